@@ -13,7 +13,10 @@ import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
+import java.util.Map;
+import org.opentripplanner.framework.application.StartupTimeline;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.standalone.server.ServerWarmup;
 import org.opentripplanner.updater.GraphUpdaterStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,6 +53,10 @@ public class ActuatorAPI {
                 "prometheus" : {
                   "href" : "%1$s/prometheus",
                   "templated" : false
+                },
+                "startup" : {
+                  "href" : "%1$s/startup",
+                  "templated" : false
                 }
               }
             }""",
@@ -61,12 +68,16 @@ public class ActuatorAPI {
   }
 
   /**
-   * Return 200 when the instance is ready to use
+   * Return 200 when the instance is ready to use, the updaters are primed and the server warmup is
+   * complete.
    */
   @GET
   @Path("/health")
   @Produces(MediaType.APPLICATION_JSON)
-  public Response health(@Context OtpServerRequestContext serverContext) {
+  public Response health(
+    @Context OtpServerRequestContext serverContext,
+    @Context ServerWarmup warmup
+  ) {
     GraphUpdaterStatus updaterStatus = serverContext.transitService().getUpdaterStatus();
     if (updaterStatus != null) {
       var listUnprimedUpdaters = updaterStatus.listUnprimedUpdaters();
@@ -83,6 +94,17 @@ public class ActuatorAPI {
       }
     }
 
+    if (!warmup.isComplete()) {
+      LOG.info("Graph ready, waiting for the server warmup");
+      throw new WebApplicationException(
+        Response
+          .status(Response.Status.NOT_FOUND)
+          .entity("Graph ready, waiting for the server warmup\n")
+          .type("text/plain")
+          .build()
+      );
+    }
+
     return Response
       .status(Response.Status.OK)
       .entity("{\n" + "  \"status\" : \"UP\"" + "\n}")
@@ -90,6 +112,38 @@ public class ActuatorAPI {
       .build();
   }
 
+  /**
+   * Return the startup tasks, with the thread each task ran on, when it started and how long it
+   * took, in milliseconds.
+   */
+  @GET
+  @Path("/startup")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response startup(@Context StartupTimeline timeline) {
+    var tasks = timeline
+      .entries()
+      .stream()
+      .map(it ->
+        Map.of(
+          "task",
+          it.task(),
+          "thread",
+          it.thread(),
+          "startMs",
+          it.startMs(),
+          "durationMs",
+          it.durationMs()
+        )
+      )
+      .toList();
+
+    return Response
+      .status(Response.Status.OK)
+      .entity(Map.of("durationMs", timeline.durationMs(), "tasks", tasks))
+      .type("application/json")
+      .build();
+  }
+
   /**
    * Returns micrometer metrics in a prometheus structured format.
    */
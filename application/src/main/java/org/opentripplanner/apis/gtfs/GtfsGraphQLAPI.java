@@ -1,6 +1,7 @@
 package org.opentripplanner.apis.gtfs;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.ExecutionResult;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.HeaderParam;
@@ -16,6 +17,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +49,29 @@ public class GtfsGraphQLAPI {
     }
   }
 
+  /**
+   * Execute a query in-process, without going through the HTTP server. This is used to replay
+   * recorded requests when the server is warming up.
+   */
+  public static ExecutionResult execute(
+    OtpServerRequestContext serverContext,
+    String query,
+    Map<String, Object> variables,
+    @Nullable String operationName,
+    int maxResolves,
+    int timeoutMs
+  ) {
+    return GtfsGraphQLIndex.getGraphQLExecutionResult(
+      query,
+      variables,
+      operationName,
+      maxResolves,
+      timeoutMs,
+      serverContext.defaultLocale(),
+      GraphQLRequestContext.ofServerContext(serverContext)
+    );
+  }
+
   @POST
   @Consumes(MediaType.APPLICATION_JSON)
   public Response getGraphQL(
@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.opentripplanner.astar.model.BinHeap;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.model.ShortestPathTree;
@@ -14,6 +15,7 @@ import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.astar.spi.AStarState;
 import org.opentripplanner.astar.spi.AStarVertex;
 import org.opentripplanner.astar.spi.DominanceFunction;
+import org.opentripplanner.astar.spi.EdgeOverlay;
 import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.astar.spi.SearchTerminationStrategy;
 import org.opentripplanner.astar.spi.SkipEdgeStrategy;
@@ -46,6 +48,9 @@ public class AStar<
   private final TraverseVisitor<State, Edge> traverseVisitor;
   private final Duration timeout;
 
+  @Nullable
+  private final EdgeOverlay<Edge, Vertex> edgeOverlay;
+
   private final ShortestPathTree<State, Edge, Vertex> spt;
   private final BinHeap<State> pq;
   private final List<State> targetAcceptedStates;
@@ -63,7 +68,8 @@ public class AStar<
     SearchTerminationStrategy<State> terminationStrategy,
     DominanceFunction<State> dominanceFunction,
     Duration timeout,
-    Collection<State> initialStates
+    Collection<State> initialStates,
+    @Nullable EdgeOverlay<Edge, Vertex> edgeOverlay
   ) {
     this.heuristic = heuristic;
     this.skipEdgeStrategy = skipEdgeStrategy;
@@ -73,6 +79,7 @@ public class AStar<
     this.arriveBy = arriveBy;
     this.terminationStrategy = terminationStrategy;
     this.timeout = Objects.requireNonNull(timeout);
+    this.edgeOverlay = edgeOverlay;
 
     this.spt = new ShortestPathTree<>(dominanceFunction);
 
@@ -134,6 +141,15 @@ public class AStar<
     }
 
     Collection<Edge> edges = arriveBy ? u_vertex.getIncoming() : u_vertex.getOutgoing();
+    if (edgeOverlay != null) {
+      var overlayEdges = arriveBy
+        ? edgeOverlay.getIncoming(u_vertex)
+        : edgeOverlay.getOutgoing(u_vertex);
+      if (!overlayEdges.isEmpty()) {
+        edges = new ArrayList<>(edges);
+        edges.addAll(overlayEdges);
+      }
+    }
     for (Edge edge : edges) {
       if (skipEdgeStrategy != null && skipEdgeStrategy.shouldSkipEdge(u, edge)) {
         continue;
@@ -6,12 +6,14 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.astar.spi.AStarState;
 import org.opentripplanner.astar.spi.AStarVertex;
 import org.opentripplanner.astar.spi.DominanceFunction;
+import org.opentripplanner.astar.spi.EdgeOverlay;
 import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.astar.spi.SearchTerminationStrategy;
 import org.opentripplanner.astar.spi.SkipEdgeStrategy;
@@ -148,7 +150,8 @@ public abstract class AStarBuilder<
       terminationStrategy,
       Optional.ofNullable(dominanceFunction).orElseGet(this::createDefaultDominanceFunction),
       streetRoutingTimeout(),
-      initialStates
+      initialStates,
+      createEdgeOverlay(initialStates, destination)
     );
   }
 
@@ -164,4 +167,16 @@ public abstract class AStarBuilder<
   );
 
   protected abstract DominanceFunction<State> createDefaultDominanceFunction();
+
+  /**
+   * Create the edges which are only visible to this search, see {@link EdgeOverlay}. The default
+   * is no overlay.
+   */
+  @Nullable
+  protected EdgeOverlay<Edge, Vertex> createEdgeOverlay(
+    Collection<State> initialStates,
+    @Nullable Set<Vertex> destination
+  ) {
+    return null;
+  }
 }
@@ -0,0 +1,16 @@
+package org.opentripplanner.astar.spi;
+
+import java.util.Collection;
+
+/**
+ * Edges which are only visible to a single search. They are traversed in addition to the edges
+ * returned by {@link AStarVertex#getOutgoing()} and {@link AStarVertex#getIncoming()}, so that
+ * a search can use edges to and from shared vertices without adding them to the shared graph.
+ */
+public interface EdgeOverlay<Edge, Vertex> {
+  /** Additional edges leading from the given vertex, empty if none. */
+  Collection<Edge> getOutgoing(Vertex vertex);
+
+  /** Additional edges leading to the given vertex, empty if none. */
+  Collection<Edge> getIncoming(Vertex vertex);
+}
@@ -0,0 +1,120 @@
+package org.opentripplanner.framework.application;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import org.opentripplanner.framework.time.DurationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Run the tasks needed to start the server, like building indexes and setting up services. Each
+ * task lists the tasks it depends on, and a task is started as soon as its dependencies are done.
+ * Independent tasks run in parallel on a pool of startup threads.
+ * <p>
+ * A task can only depend on tasks added before it, so the tasks can not have cyclic
+ * dependencies. If a task fails, the tasks depending on it are not run, and the first error is
+ * thrown by {@link #run()} when the other tasks are done.
+ * <p>
+ * THIS CLASS IS NOT THREAD SAFE, the tasks should be added and run by one thread.
+ */
+public class StartupTaskScheduler {
+
+  private static final Logger LOG = LoggerFactory.getLogger(StartupTaskScheduler.class);
+
+  private final Map<String, Task> tasks = new LinkedHashMap<>();
+
+  /**
+   * Add a task to run after the given tasks are done.
+   *
+   * @throws IllegalArgumentException if the name is already used, or if a dependency is not added
+   */
+  public StartupTaskScheduler add(String name, Runnable body, String... dependencies) {
+    if (tasks.containsKey(name)) {
+      throw new IllegalArgumentException("The startup task '" + name + "' is already added.");
+    }
+    for (String dependency : dependencies) {
+      if (!tasks.containsKey(dependency)) {
+        throw new IllegalArgumentException(
+          "The startup task '%s' depends on '%s', which must be added before it.".formatted(
+              name,
+              dependency
+            )
+        );
+      }
+    }
+    tasks.put(name, new Task(name, body, List.of(dependencies)));
+    return this;
+  }
+
+  /** Run all tasks and wait for them to complete. */
+  public StartupTimeline run() {
+    if (tasks.isEmpty()) {
+      return StartupTimeline.EMPTY;
+    }
+    int nThreads = Math.min(tasks.size(), Runtime.getRuntime().availableProcessors());
+    var executor = Executors.newFixedThreadPool(
+      nThreads,
+      new ThreadFactoryBuilder().setNameFormat("startup-%d").setDaemon(true).build()
+    );
+    LOG.info("Running {} startup tasks on {} threads.", tasks.size(), nThreads);
+    long startTime = System.currentTimeMillis();
+    var entries = new ConcurrentLinkedQueue<StartupTimeline.Entry>();
+    var futures = new HashMap<String, CompletableFuture<Void>>();
+    try {
+      for (Task task : tasks.values()) {
+        var dependencies = task
+          .dependencies()
+          .stream()
+          .map(futures::get)
+          .toArray(CompletableFuture[]::new);
+        futures.put(
+          task.name(),
+          CompletableFuture
+            .allOf(dependencies)
+            .thenRunAsync(() -> entries.add(task.run(startTime)), executor)
+        );
+      }
+      CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw e;
+    } finally {
+      executor.shutdownNow();
+    }
+    var sorted = new ArrayList<>(entries);
+    sorted.sort(Comparator.comparingLong(StartupTimeline.Entry::startMs));
+    var timeline = new StartupTimeline(sorted, System.currentTimeMillis() - startTime);
+    LOG.info("Startup tasks complete:\n{}", timeline);
+    return timeline;
+  }
+
+  private record Task(String name, Runnable body, List<String> dependencies) {
+    StartupTimeline.Entry run(long schedulerStartTime) {
+      long startTime = System.currentTimeMillis();
+      body.run();
+      long duration = System.currentTimeMillis() - startTime;
+      String thread = Thread.currentThread().getName();
+      LOG.info(
+        "Startup task {} done in {} on {}.",
+        name,
+        DurationUtils.msToSecondsStr(duration),
+        thread
+      );
+      return new StartupTimeline.Entry(name, thread, startTime - schedulerStartTime, duration);
+    }
+  }
+}
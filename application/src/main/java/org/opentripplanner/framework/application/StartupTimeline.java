@@ -0,0 +1,51 @@
+package org.opentripplanner.framework.application;
+
+import java.util.List;
+import org.opentripplanner.framework.time.DurationUtils;
+
+/**
+ * The tasks run by the {@link StartupTaskScheduler}, with the thread each task ran on, when it
+ * started and how long it took. The tasks are listed in the order they started.
+ */
+public final class StartupTimeline {
+
+  public static final StartupTimeline EMPTY = new StartupTimeline(List.of(), 0);
+
+  private final List<Entry> entries;
+  private final long durationMs;
+
+  StartupTimeline(List<Entry> entries, long durationMs) {
+    this.entries = List.copyOf(entries);
+    this.durationMs = durationMs;
+  }
+
+  public List<Entry> entries() {
+    return entries;
+  }
+
+  /** The wall-clock time from the first task started until the last task was done. */
+  public long durationMs() {
+    return durationMs;
+  }
+
+  @Override
+  public String toString() {
+    var buf = new StringBuilder();
+    for (Entry it : entries) {
+      buf.append(
+        "  %-32s %-12s start %8s  duration %8s%n".formatted(
+            it.task(),
+            it.thread(),
+            DurationUtils.msToSecondsStr(it.startMs()),
+            DurationUtils.msToSecondsStr(it.durationMs())
+          )
+      );
+    }
+    return buf.append("  Total ").append(DurationUtils.msToSecondsStr(durationMs)).toString();
+  }
+
+  /**
+   * @param startMs The time the task started, relative to the start of the first task.
+   */
+  public record Entry(String task, String thread, long startMs, long durationMs) {}
+}
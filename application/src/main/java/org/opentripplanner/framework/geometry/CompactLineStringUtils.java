@@ -140,6 +140,67 @@ public final class CompactLineStringUtils {
     boolean reverse
   ) {
     int[] coords = DlugoszVarLenIntPacker.unpack(packedCoords);
+    return toLineString(xa, ya, xb, yb, coords, reverse);
+  }
+
+  /**
+   * Same as the other version, but the packed coordinates are read from a buffer shared with other
+   * line strings. The packed coordinates start at {@code offset} and are prefixed with their
+   * length, as written by {@link #writeLengthPrefixed(byte[], byte[], int)}.
+   */
+  public static LineString uncompactLineString(
+    double xa,
+    double ya,
+    double xb,
+    double yb,
+    byte[] buffer,
+    int offset,
+    boolean reverse
+  ) {
+    int length = DlugoszVarLenIntPacker.decode(buffer, offset);
+    int start = offset + DlugoszVarLenIntPacker.encodedSize(buffer[offset]);
+    int[] coords = DlugoszVarLenIntPacker.unpack(buffer, start, length);
+    return toLineString(xa, ya, xb, yb, coords, reverse);
+  }
+
+  /**
+   * The number of bytes needed to write the given packed coordinates with a length prefix.
+   */
+  public static int lengthPrefixedSize(byte[] packedCoords) {
+    int prefixLength = DlugoszVarLenIntPacker.pack(new int[] { packedCoords.length }).length;
+    return prefixLength + packedCoords.length;
+  }
+
+  /**
+   * Write the given packed coordinates, prefixed with their length, into the buffer at the given
+   * offset. Returns the offset after the written bytes.
+   */
+  public static int writeLengthPrefixed(byte[] packedCoords, byte[] buffer, int offset) {
+    byte[] prefix = DlugoszVarLenIntPacker.pack(new int[] { packedCoords.length });
+    System.arraycopy(prefix, 0, buffer, offset, prefix.length);
+    offset += prefix.length;
+    System.arraycopy(packedCoords, 0, buffer, offset, packedCoords.length);
+    return offset + packedCoords.length;
+  }
+
+  /**
+   * Wrapper for the above method in the case where there are no start/end coordinates provided.
+   * 0-coordinates are added and then removed in order for the delta encoding to work correctly.
+   * Same as the other version, but in a var-len int packed form (Dlugosz coding).
+   */
+  public static LineString uncompactLineString(byte[] packedCoords, boolean reverse) {
+    LineString lineString = uncompactLineString(0.0, 0.0, 0.0, 0.0, packedCoords, reverse);
+    return GeometryUtils.removeStartEndCoordinatesFromLineString(lineString);
+  }
+
+  private static LineString toLineString(
+    double xa,
+    double ya,
+    double xb,
+    double yb,
+    int[] coords,
+    boolean reverse
+  ) {
     int size = coords == null ? 2 : (coords.length / 2) + 2;
     Coordinate[] c = new Coordinate[size];
     double x0 = reverse ? xb : xa;
@@ -165,14 +226,4 @@ public final class CompactLineStringUtils {
     }
     return out;
   }
-
-  /**
-   * Wrapper for the above method in the case where there are no start/end coordinates provided.
-   * 0-coordinates are added and then removed in order for the delta encoding to work correctly.
-   * Same as the other version, but in a var-len int packed form (Dlugosz coding).
-   */
-  public static LineString uncompactLineString(byte[] packedCoords, boolean reverse) {
-    LineString lineString = uncompactLineString(0.0, 0.0, 0.0, 0.0, packedCoords, reverse);
-    return GeometryUtils.removeStartEndCoordinatesFromLineString(lineString);
-  }
 }
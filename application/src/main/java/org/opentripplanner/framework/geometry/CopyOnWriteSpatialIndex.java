@@ -0,0 +1,284 @@
+package org.opentripplanner.framework.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.LineString;
+
+/**
+ * A grid spatial index, like {@link HashGridSpatialIndex}, for indexes which are read by many
+ * threads while they are updated.
+ * <p>
+ * The bins are kept in an immutable snapshot. Writers are serialized, copy the bins they modify
+ * and publish a new snapshot with a single volatile write. Readers take the current snapshot once
+ * per query, without locking, so a query always sees a consistent version of the index: an update
+ * is either fully visible or not visible at all.
+ * <p>
+ * The bins of a snapshot are spread over a fixed number of segments. A write copies the array of
+ * segments and the segments holding the bins it changes, the other segments are shared with the
+ * previous snapshot. So the cost of a write does not grow with the size of the index. Use the
+ * batch operations to publish several changes in one version.
+ *
+ * @param <T> Type of objects to be spatial indexed.
+ */
+public class CopyOnWriteSpatialIndex<T> {
+
+  /* ~500m, see HashGridSpatialIndex */
+  private static final double DEFAULT_X_BIN_SIZE = 0.0035;
+  private static final double DEFAULT_Y_BIN_SIZE = 0.005;
+
+  private static final Object[] EMPTY_BIN = new Object[0];
+
+  /** The number of segments the bins are spread over, must be a power of two. */
+  private static final int N_SEGMENTS = 256;
+
+  private final double xBinSize;
+  private final double yBinSize;
+
+  private volatile Snapshot snapshot = Snapshot.empty();
+
+  public CopyOnWriteSpatialIndex(double xBinSize, double yBinSize) {
+    if (xBinSize <= 0 || yBinSize <= 0) {
+      throw new IllegalStateException("bin size must be positive.");
+    }
+    this.xBinSize = xBinSize;
+    this.yBinSize = yBinSize;
+  }
+
+  public CopyOnWriteSpatialIndex() {
+    this(DEFAULT_X_BIN_SIZE, DEFAULT_Y_BIN_SIZE);
+  }
+
+  /**
+   * The version of the index. It is incremented each time a change is published.
+   */
+  public long version() {
+    return snapshot.version;
+  }
+
+  /**
+   * The version of the index when one of the bins touched by the envelope was last changed, or
+   * zero if none of them has ever been changed. Changes outside these bins do not change it, so it
+   * can be used to invalidate results computed from the items in an area.
+   */
+  public long version(Envelope envelope) {
+    var current = snapshot;
+    long version = 0;
+    for (long key : keys(envelope)) {
+      var bin = current.get(key);
+      if (bin != null) {
+        version = Math.max(version, bin.version);
+      }
+    }
+    return version;
+  }
+
+  /**
+   * Insert the item in every bin touched by a segment of the line string.
+   */
+  public void insert(LineString geometry, T item) {
+    insertAll(List.of(item), it -> geometry);
+  }
+
+  /**
+   * Insert all items and publish them as one new version.
+   */
+  public synchronized void insertAll(Collection<T> items, Function<T, LineString> geometry) {
+    if (items.isEmpty()) {
+      return;
+    }
+    var update = new Update(snapshot);
+    for (T item : items) {
+      for (long key : keys(geometry.apply(item))) {
+        var bin = update.get(key);
+        var copy = Arrays.copyOf(bin, bin.length + 1);
+        copy[bin.length] = item;
+        update.put(key, copy);
+      }
+    }
+    snapshot = update.publish();
+  }
+
+  /**
+   * Remove the item from all bins touched by the envelope.
+   *
+   * @return {@code true} if the item was found
+   */
+  public boolean remove(Envelope envelope, T item) {
+    return removeAll(List.of(item), it -> envelope) > 0;
+  }
+
+  /**
+   * Remove all items and publish the result as one new version.
+   *
+   * @return the number of items found and removed
+   */
+  public synchronized int removeAll(Collection<T> items, Function<T, Envelope> envelope) {
+    var update = new Update(snapshot);
+    int removed = 0;
+    for (T item : items) {
+      boolean found = false;
+      for (long key : keys(envelope.apply(item))) {
+        var bin = update.get(key);
+        var copy = Arrays.stream(bin).filter(it -> it != item).toArray();
+        if (copy.length != bin.length) {
+          found = true;
+          update.put(key, copy);
+        }
+      }
+      if (found) {
+        ++removed;
+      }
+    }
+    if (removed > 0) {
+      snapshot = update.publish();
+    }
+    return removed;
+  }
+
+  /**
+   * Return all items in the bins touched by the envelope, each item once. Like with the
+   * {@link HashGridSpatialIndex}, the result may contain items outside the envelope.
+   */
+  @SuppressWarnings("unchecked")
+  public List<T> query(Envelope envelope) {
+    // Read the snapshot once, so the whole query sees the same version
+    var current = snapshot;
+    if (current.version == 0) {
+      return List.of();
+    }
+    Set<T> result = new HashSet<>();
+    for (long key : keys(envelope)) {
+      var bin = current.get(key);
+      if (bin != null) {
+        for (Object it : bin.items) {
+          result.add((T) it);
+        }
+      }
+    }
+    return new ArrayList<>(result);
+  }
+
+  public int size() {
+    return snapshot.bins().mapToInt(it -> it.items.length).sum();
+  }
+
+  @Override
+  public String toString() {
+    var current = snapshot;
+    return String.format(
+      "CopyOnWriteSpatialIndex version %d, %d bins",
+      current.version,
+      current.bins().count()
+    );
+  }
+
+  private long[] keys(LineString geometry) {
+    Coordinate[] coordinates = geometry.getCoordinates();
+    var keys = new HashSet<Long>();
+    for (int i = 0; i < coordinates.length - 1; i++) {
+      for (long key : keys(new Envelope(coordinates[i], coordinates[i + 1]))) {
+        keys.add(key);
+      }
+    }
+    return keys.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  private long[] keys(Envelope envelope) {
+    if (envelope.isNull()) {
+      return new long[0];
+    }
+    long minXKey = Math.round(clamp(envelope.getMinX(), 180) / xBinSize);
+    long maxXKey = Math.round(clamp(envelope.getMaxX(), 180) / xBinSize);
+    long minYKey = Math.round(clamp(envelope.getMinY(), 90) / yBinSize);
+    long maxYKey = Math.round(clamp(envelope.getMaxY(), 90) / yBinSize);
+    var keys = new long[(int) ((maxXKey - minXKey + 1) * (maxYKey - minYKey + 1))];
+    int i = 0;
+    for (long xKey = minXKey; xKey <= maxXKey; xKey++) {
+      for (long yKey = minYKey; yKey <= maxYKey; yKey++) {
+        keys[i++] = (yKey << 32) | (xKey & 0xFFFFFFFFL);
+      }
+    }
+    return keys;
+  }
+
+  private static double clamp(double value, double max) {
+    return Math.max(-max, Math.min(max, value));
+  }
+
+  private static int segment(long key) {
+    int hash = Long.hashCode(key);
+    return (hash ^ (hash >>> 16)) & (N_SEGMENTS - 1);
+  }
+
+  /**
+   * The items of a bin, and the version of the index when the bin was last changed. A bin is kept
+   * when its last item is removed.
+   */
+  private record Bin(Object[] items, long version) {}
+
+  private record Snapshot(List<Map<Long, Bin>> segments, long version) {
+    static Snapshot empty() {
+      return new Snapshot(Collections.nCopies(N_SEGMENTS, Map.of()), 0);
+    }
+
+    @Nullable
+    Bin get(long key) {
+      return segments.get(segment(key)).get(key);
+    }
+
+    Stream<Bin> bins() {
+      return segments.stream().flatMap(it -> it.values().stream());
+    }
+  }
+
+  /**
+   * The changes to a snapshot made by one write. The segments with changed bins are copied the
+   * first time one of their bins is changed.
+   */
+  private static final class Update {
+
+    private final List<Map<Long, Bin>> segments;
+    private final boolean[] copied = new boolean[N_SEGMENTS];
+    private final long version;
+
+    Update(Snapshot current) {
+      this.segments = new ArrayList<>(current.segments);
+      this.version = current.version + 1;
+    }
+
+    Object[] get(long key) {
+      var bin = segments.get(segment(key)).get(key);
+      return bin == null ? EMPTY_BIN : bin.items;
+    }
+
+    void put(long key, Object[] items) {
+      int segment = segment(key);
+      if (!copied[segment]) {
+        segments.set(segment, new HashMap<>(segments.get(segment)));
+        copied[segment] = true;
+      }
+      segments.get(segment).put(key, new Bin(items, version));
+    }
+
+    Snapshot publish() {
+      for (int i = 0; i < N_SEGMENTS; ++i) {
+        if (copied[i]) {
+          segments.set(i, Collections.unmodifiableMap(segments.get(i)));
+        }
+      }
+      return new Snapshot(Collections.unmodifiableList(segments), version);
+    }
+  }
+}
@@ -1,8 +1,6 @@
 package org.opentripplanner.framework.geometry;
 
 import java.io.ByteArrayOutputStream;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Variable-length integer encoding. This optimize integer storage when most of the values are
@@ -65,53 +63,79 @@ public class DlugoszVarLenIntPacker {
     if (arr == null) {
       return null;
     }
-    List<Integer> retval = new ArrayList<>(arr.length);
-    int i = 0;
-    while (i < arr.length) {
-      int v1 = arr[i] & 0xFF;
-      i++;
-      if ((v1 & 0x80) == 0x00) {
-        // 0xxx xxxx -> 7 bits value
-        int sv = (v1 & 0x7F) - 64;
-        retval.add(sv);
-      } else if ((v1 & 0xC0) == 0x80) {
-        // 10xx xxxx + 8 -> 14 bits value
-        int sv = ((v1 & 0x3F) << 8) + (arr[i] & 0xFF) - 8192;
-        i++;
-        retval.add(sv);
-      } else if ((v1 & 0xE0) == 0xC0) {
-        // 110 xxxx + 2x8 -> 21 bits value
-        int sv = ((v1 & 0x1F) << 16) + ((arr[i] & 0xFF) << 8) + (arr[i + 1] & 0xFF) - 1048576;
-        i += 2;
-        retval.add(sv);
-      } else if ((v1 & 0xF8) == 0xE0) {
-        // 1110 0xxx + 3x8 -> 27 bits value
-        int sv =
-          ((v1 & 0x1F) << 24) +
-          ((arr[i] & 0xFF) << 16) +
-          ((arr[i + 1] & 0xFF) << 8) +
-          (arr[i + 2] & 0xFF) -
-          67108864;
-        i += 3;
-        retval.add(sv);
-      } else {
-        // 1110 1xxx + 4x8 -> 35 bits value
-        long sv =
-          (((long) v1 & 0x1F) << 32) +
-          ((arr[i] & 0xFF) << 24) +
-          ((arr[i + 1] & 0xFF) << 16) +
-          ((arr[i + 2] & 0xFF) << 8) +
-          (arr[i + 3] & 0xFF) -
-          2147483648L;
-        i += 4;
-        retval.add((int) sv);
-      }
+    return unpack(arr, 0, arr.length);
+  }
+
+  /**
+   * Unpack the {@code length} bytes starting at {@code offset}. This allows several packed arrays
+   * to be stored in one shared buffer. The values are decoded straight into the returned array.
+   */
+  public static int[] unpack(byte[] arr, int offset, int length) {
+    int end = offset + length;
+    int size = 0;
+    for (int i = offset; i < end; i += encodedSize(arr[i])) {
+      size++;
+    }
+    int[] retval = new int[size];
+    int i = offset;
+    for (int k = 0; k < size; k++) {
+      retval[k] = decode(arr, i);
+      i += encodedSize(arr[i]);
     }
-    int[] bufret = new int[retval.size()];
-    i = 0;
-    for (int v : retval) {
-      bufret[i++] = v;
+    return retval;
+  }
+
+  /**
+   * Return the number of bytes used to encode the value starting with the given byte.
+   */
+  public static int encodedSize(byte firstByte) {
+    int v1 = firstByte & 0xFF;
+    if ((v1 & 0x80) == 0x00) {
+      return 1;
+    } else if ((v1 & 0xC0) == 0x80) {
+      return 2;
+    } else if ((v1 & 0xE0) == 0xC0) {
+      return 3;
+    } else if ((v1 & 0xF8) == 0xE0) {
+      return 4;
+    }
+    return 5;
+  }
+
+  /**
+   * Decode the value starting at index {@code i}.
+   */
+  public static int decode(byte[] arr, int i) {
+    int v1 = arr[i] & 0xFF;
+    i++;
+    if ((v1 & 0x80) == 0x00) {
+      // 0xxx xxxx -> 7 bits value
+      return (v1 & 0x7F) - 64;
+    } else if ((v1 & 0xC0) == 0x80) {
+      // 10xx xxxx + 8 -> 14 bits value
+      return ((v1 & 0x3F) << 8) + (arr[i] & 0xFF) - 8192;
+    } else if ((v1 & 0xE0) == 0xC0) {
+      // 110 xxxx + 2x8 -> 21 bits value
+      return ((v1 & 0x1F) << 16) + ((arr[i] & 0xFF) << 8) + (arr[i + 1] & 0xFF) - 1048576;
+    } else if ((v1 & 0xF8) == 0xE0) {
+      // 1110 0xxx + 3x8 -> 27 bits value
+      return (
+        ((v1 & 0x1F) << 24) +
+        ((arr[i] & 0xFF) << 16) +
+        ((arr[i + 1] & 0xFF) << 8) +
+        (arr[i + 2] & 0xFF) -
+        67108864
+      );
+    } else {
+      // 1110 1xxx + 4x8 -> 35 bits value
+      long sv =
+        (((long) v1 & 0x1F) << 32) +
+        ((arr[i] & 0xFF) << 24) +
+        ((arr[i + 1] & 0xFF) << 16) +
+        ((arr[i + 2] & 0xFF) << 8) +
+        (arr[i + 3] & 0xFF) -
+        2147483648L;
+      return (int) sv;
     }
-    return bufret;
   }
 }
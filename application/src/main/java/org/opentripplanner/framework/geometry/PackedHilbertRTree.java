@@ -0,0 +1,310 @@
+package org.opentripplanner.framework.geometry;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * A static, packed R-tree. The items are sorted along a Hilbert curve and grouped bottom-up into
+ * nodes of {@link #NODE_SIZE} children. All envelopes are stored in one {@code double} array, so
+ * the index has no per-item objects except the items themselves.
+ * <p>
+ * Compared with {@link HashGridSpatialIndex}, each item is stored once, and queries return each
+ * item whose envelope intersects the query envelope exactly once, without false positives.
+ * <p>
+ * The index cannot be modified after it is built. Use the {@link HashGridSpatialIndex} for
+ * indexes that change, like the index of edges created by real-time updates.
+ * <p>
+ * The index is thread-safe, once built it is read-only.
+ *
+ * @param <T> Type of objects to be spatial indexed.
+ */
+public final class PackedHilbertRTree<T> implements Serializable {
+
+  static final int NODE_SIZE = 16;
+
+  private static final int HILBERT_MAX = (1 << 16) - 1;
+
+  private final int numItems;
+
+  /** The items, in the same order as the leaf nodes. */
+  private final Object[] items;
+
+  /**
+   * The envelopes of all nodes, four values [minX, minY, maxX, maxY] per node. The leaf nodes
+   * come first, followed by each level of parent nodes. The root node is the last node.
+   */
+  private final double[] boxes;
+
+  /**
+   * The position of the first child of each parent node. The parent node {@code i} is found at
+   * {@code firstChild[i - numItems]}.
+   */
+  private final int[] firstChild;
+
+  /** The exclusive end position of each level, starting with the leaf level. */
+  private final int[] levelEnds;
+
+  private PackedHilbertRTree(Builder<T> builder) {
+    this.numItems = builder.size;
+    int numNodes = numItems;
+    int count = numItems;
+    var ends = new ArrayList<Integer>();
+    ends.add(numNodes);
+    while (count > 1) {
+      count = (count + NODE_SIZE - 1) / NODE_SIZE;
+      numNodes += count;
+      ends.add(numNodes);
+    }
+    this.levelEnds = ends.stream().mapToInt(Integer::intValue).toArray();
+    this.items = new Object[numItems];
+    this.boxes = new double[numNodes * 4];
+    this.firstChild = new int[numNodes - numItems];
+
+    sortLeaves(builder);
+    buildParents();
+  }
+
+  public static <T> Builder<T> of() {
+    return new Builder<>();
+  }
+
+  public int size() {
+    return numItems;
+  }
+
+  public boolean isEmpty() {
+    return numItems == 0;
+  }
+
+  /**
+   * Return all items whose envelope intersects the given envelope. Each item is returned once.
+   */
+  public List<T> query(Envelope envelope) {
+    var result = new ArrayList<T>();
+    query(envelope, result::add);
+    return result;
+  }
+
+  /**
+   * Call the visitor for each item whose envelope intersects the given envelope.
+   */
+  @SuppressWarnings("unchecked")
+  public void query(Envelope envelope, Consumer<T> visitor) {
+    if (numItems == 0 || envelope.isNull()) {
+      return;
+    }
+    double minX = envelope.getMinX();
+    double minY = envelope.getMinY();
+    double maxX = envelope.getMaxX();
+    double maxY = envelope.getMaxY();
+
+    int[] stack = new int[NODE_SIZE * levelEnds.length];
+    int stackSize = 0;
+    int node = rootNode();
+
+    while (true) {
+      int end = Math.min(node + NODE_SIZE, levelEnd(node));
+      for (int pos = node; pos < end; ++pos) {
+        int b = pos * 4;
+        if (maxX < boxes[b] || maxY < boxes[b + 1] || minX > boxes[b + 2] || minY > boxes[b + 3]) {
+          continue;
+        }
+        if (pos < numItems) {
+          visitor.accept((T) items[pos]);
+        } else {
+          if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+          }
+          stack[stackSize++] = firstChild[pos - numItems];
+        }
+      }
+      if (stackSize == 0) {
+        return;
+      }
+      node = stack[--stackSize];
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+      "PackedHilbertRTree %d items, %d nodes, %d levels",
+      numItems,
+      boxes.length / 4,
+      levelEnds.length
+    );
+  }
+
+  private int rootNode() {
+    return boxes.length / 4 - 1;
+  }
+
+  private int levelEnd(int node) {
+    for (int end : levelEnds) {
+      if (node < end) {
+        return end;
+      }
+    }
+    throw new IllegalArgumentException("Node outside index: " + node);
+  }
+
+  private void sortLeaves(Builder<T> builder) {
+    if (numItems == 0) {
+      return;
+    }
+    double minX = Double.POSITIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    double[] b = builder.boxes;
+    for (int i = 0; i < numItems * 4; i += 4) {
+      minX = Math.min(minX, b[i]);
+      minY = Math.min(minY, b[i + 1]);
+      maxX = Math.max(maxX, b[i + 2]);
+      maxY = Math.max(maxY, b[i + 3]);
+    }
+    double width = maxX - minX;
+    double height = maxY - minY;
+
+    // Sort on the Hilbert value of the center, keep the original position in the lower 32 bits
+    long[] keys = new long[numItems];
+    for (int i = 0; i < numItems; ++i) {
+      int x = width == 0
+        ? 0
+        : (int) (HILBERT_MAX * ((b[i * 4] + b[i * 4 + 2]) / 2 - minX) / width);
+      int y = height == 0
+        ? 0
+        : (int) (HILBERT_MAX * ((b[i * 4 + 1] + b[i * 4 + 3]) / 2 - minY) / height);
+      keys[i] = (Integer.toUnsignedLong(hilbert(x, y)) << 32) | i;
+    }
+    Arrays.sort(keys);
+
+    for (int i = 0; i < numItems; ++i) {
+      int source = (int) keys[i];
+      items[i] = builder.items[source];
+      System.arraycopy(b, source * 4, boxes, i * 4, 4);
+    }
+  }
+
+  private void buildParents() {
+    int pos = 0;
+    int out = numItems;
+    for (int level = 0; level < levelEnds.length - 1; ++level) {
+      int end = levelEnds[level];
+      while (pos < end) {
+        firstChild[out - numItems] = pos;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int j = 0; j < NODE_SIZE && pos < end; ++j, ++pos) {
+          int b = pos * 4;
+          minX = Math.min(minX, boxes[b]);
+          minY = Math.min(minY, boxes[b + 1]);
+          maxX = Math.max(maxX, boxes[b + 2]);
+          maxY = Math.max(maxY, boxes[b + 3]);
+        }
+        int b = out * 4;
+        boxes[b] = minX;
+        boxes[b + 1] = minY;
+        boxes[b + 2] = maxX;
+        boxes[b + 3] = maxY;
+        ++out;
+      }
+    }
+  }
+
+  /**
+   * The position of (x, y) along a Hilbert curve filling a 2^16 x 2^16 grid. See "Fast Hilbert
+   * curve generation, sorting, and range queries" by rawrunprotected.
+   */
+  static int hilbert(int x, int y) {
+    int a = x ^ y;
+    int b = 0xFFFF ^ a;
+    int c = 0xFFFF ^ (x | y);
+    int d = x & (y ^ 0xFFFF);
+
+    int A = a | (b >>> 1);
+    int B = (a >>> 1) ^ a;
+    int C = ((c >>> 1) ^ (b & (d >>> 1))) ^ c;
+    int D = ((a & (c >>> 1)) ^ (d >>> 1)) ^ d;
+
+    a = A;
+    b = B;
+    c = C;
+    d = D;
+    A = ((a & (a >>> 2)) ^ (b & (b >>> 2)));
+    B = ((a & (b >>> 2)) ^ (b & ((a ^ b) >>> 2)));
+    C ^= ((a & (c >>> 2)) ^ (b & (d >>> 2)));
+    D ^= ((b & (c >>> 2)) ^ ((a ^ b) & (d >>> 2)));
+
+    a = A;
+    b = B;
+    c = C;
+    d = D;
+    A = ((a & (a >>> 4)) ^ (b & (b >>> 4)));
+    B = ((a & (b >>> 4)) ^ (b & ((a ^ b) >>> 4)));
+    C ^= ((a & (c >>> 4)) ^ (b & (d >>> 4)));
+    D ^= ((b & (c >>> 4)) ^ ((a ^ b) & (d >>> 4)));
+
+    a = A;
+    b = B;
+    c = C;
+    d = D;
+    C ^= ((a & (c >>> 8)) ^ (b & (d >>> 8)));
+    D ^= ((b & (c >>> 8)) ^ ((a ^ b) & (d >>> 8)));
+
+    a = C ^ (C >>> 1);
+    b = D ^ (D >>> 1);
+
+    int i0 = x ^ y;
+    int i1 = b | (0xFFFF ^ (i0 | a));
+
+    return (interleave(i1) << 1) | interleave(i0);
+  }
+
+  private static int interleave(int value) {
+    value = (value | (value << 8)) & 0x00FF00FF;
+    value = (value | (value << 4)) & 0x0F0F0F0F;
+    value = (value | (value << 2)) & 0x33333333;
+    value = (value | (value << 1)) & 0x55555555;
+    return value;
+  }
+
+  public static final class Builder<T> {
+
+    private Object[] items = new Object[16];
+    private double[] boxes = new double[64];
+    private int size = 0;
+
+    private Builder() {}
+
+    public Builder<T> add(Envelope envelope, T item) {
+      if (size == items.length) {
+        items = Arrays.copyOf(items, size * 2);
+        boxes = Arrays.copyOf(boxes, size * 8);
+      }
+      items[size] = item;
+      int b = size * 4;
+      boxes[b] = envelope.getMinX();
+      boxes[b + 1] = envelope.getMinY();
+      boxes[b + 2] = envelope.getMaxX();
+      boxes[b + 3] = envelope.getMaxY();
+      ++size;
+      return this;
+    }
+
+    public Builder<T> add(Coordinate coordinate, T item) {
+      return add(new Envelope(coordinate), item);
+    }
+
+    public PackedHilbertRTree<T> build() {
+      return new PackedHilbertRTree<>(this);
+    }
+  }
+}
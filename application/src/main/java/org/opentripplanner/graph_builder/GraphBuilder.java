@@ -23,6 +23,7 @@ import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeRepository;
 import org.opentripplanner.standalone.config.BuildConfig;
 import org.opentripplanner.street.model.StreetLimitationParameters;
+import org.opentripplanner.street.model.edge.StreetEdgeGeometryPacker;
 import org.opentripplanner.transit.service.TimetableRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -195,6 +196,9 @@ public class GraphBuilder implements Runnable {
       load.buildGraph();
     }
 
+    // Street edges are no longer added or split, move their geometries into shared buffers
+    StreetEdgeGeometryPacker.pack(graph.getStreetEdges());
+
     new DataImportIssueSummary(issueStore.listIssues()).logSummary();
 
     // Log before we validate, this way we have more information if the validation fails
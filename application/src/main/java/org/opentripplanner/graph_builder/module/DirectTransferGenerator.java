@@ -3,7 +3,10 @@ package org.opentripplanner.graph_builder.module;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimaps;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -18,10 +21,16 @@ import org.opentripplanner.graph_builder.module.nearbystops.StraightLineNearbySt
 import org.opentripplanner.graph_builder.module.nearbystops.StreetNearbyStopFinder;
 import org.opentripplanner.model.PathTransfer;
 import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
+import org.opentripplanner.street.search.state.EdgeTraverser;
+import org.opentripplanner.street.search.state.StateEditor;
 import org.opentripplanner.transit.model.site.RegularStop;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.service.DefaultTransitService;
@@ -44,6 +53,7 @@ public class DirectTransferGenerator implements GraphBuilderModule {
   private final Duration radiusByDuration;
 
   private final List<RouteRequest> transferRequests;
+  private final boolean shareTransferSearches;
   private final Graph graph;
   private final TimetableRepository timetableRepository;
   private final DataImportIssueStore issueStore;
@@ -54,12 +64,28 @@ public class DirectTransferGenerator implements GraphBuilderModule {
     DataImportIssueStore issueStore,
     Duration radiusByDuration,
     List<RouteRequest> transferRequests
+  ) {
+    this(graph, timetableRepository, issueStore, radiusByDuration, transferRequests, false);
+  }
+
+  /**
+   * @param shareTransferSearches Search once for all transfer requests with the same transfer
+   *                              mode, see {@link #transferSearches(List, Duration)}.
+   */
+  public DirectTransferGenerator(
+    Graph graph,
+    TimetableRepository timetableRepository,
+    DataImportIssueStore issueStore,
+    Duration radiusByDuration,
+    List<RouteRequest> transferRequests,
+    boolean shareTransferSearches
   ) {
     this.graph = graph;
     this.timetableRepository = timetableRepository;
     this.issueStore = issueStore;
     this.radiusByDuration = radiusByDuration;
     this.transferRequests = transferRequests;
+    this.shareTransferSearches = shareTransferSearches;
   }
 
   @Override
@@ -67,10 +93,19 @@ public class DirectTransferGenerator implements GraphBuilderModule {
     /* Initialize transit model index which is needed by the nearby stop finder. */
     timetableRepository.index();
 
-    /* The linker will use streets if they are available, or straight-line distance otherwise. */
-    NearbyStopFinder nearbyStopFinder = createNearbyStopFinder();
-
     List<TransitStopVertex> stops = graph.getVerticesOfType(TransitStopVertex.class);
+    List<RouteRequest> transferProfiles = distinctTransferProfiles(transferRequests);
+
+    // Straight-line transfers do not depend on the transfer request, so there is nothing to share
+    List<TransferSearch> transferSearches = shareTransferSearches && graph.hasStreets
+      ? transferSearches(transferProfiles, radiusByDuration)
+      : transferProfiles.stream().map(it -> TransferSearch.of(it, radiusByDuration)).toList();
+
+    /* The linker will use streets if they are available, or straight-line distance otherwise. */
+    Map<Duration, NearbyStopFinder> nearbyStopFinders = new HashMap<>();
+    for (TransferSearch it : transferSearches) {
+      nearbyStopFinders.computeIfAbsent(it.durationLimit(), this::createNearbyStopFinder);
+    }
 
     ProgressTracker progress = ProgressTracker.track(
       "Create transfer edges for stops",
@@ -101,12 +136,17 @@ public class DirectTransferGenerator implements GraphBuilderModule {
 
         LOG.debug("Linking stop '{}' {}", stop, ts0);
 
-        for (RouteRequest transferProfile : transferRequests) {
-          for (NearbyStop sd : nearbyStopFinder.findNearbyStops(
-            ts0,
-            transferProfile,
-            transferProfile.journey().transfer(),
-            false
+        for (TransferSearch search : transferSearches) {
+          NearbyStopFinder nearbyStopFinder = nearbyStopFinders.get(search.durationLimit());
+          RouteRequest transferProfile = search.request();
+          for (NearbyStop sd : search.filter(
+            nearbyStopFinder.findNearbyStops(
+              ts0,
+              transferProfile,
+              transferProfile.journey().transfer(),
+              false
+            ),
+            radiusByDuration
           )) {
             // Skip the origin stop, loop transfers are not needed.
             if (sd.stop == stop) {
@@ -123,11 +163,14 @@ public class DirectTransferGenerator implements GraphBuilderModule {
           if (OTPFeature.FlexRouting.isOn()) {
             // This code is for finding transfers from AreaStops to Stops, transfers
             // from Stops to AreaStops and between Stops are already covered above.
-            for (NearbyStop sd : nearbyStopFinder.findNearbyStops(
-              ts0,
-              transferProfile,
-              transferProfile.journey().transfer(),
-              true
+            for (NearbyStop sd : search.filter(
+              nearbyStopFinder.findNearbyStops(
+                ts0,
+                transferProfile,
+                transferProfile.journey().transfer(),
+                true
+              ),
+              radiusByDuration
             )) {
               // Skip the origin stop, loop transfers are not needed.
               if (sd.stop == stop) {
@@ -174,22 +217,117 @@ public class DirectTransferGenerator implements GraphBuilderModule {
     );
   }
 
+  /**
+   * Remove transfer profiles which result in the same street search as a previous profile. The
+   * search only depends on the transfer mode, the wheelchair flag and the preferences, and the
+   * transfers of identical searches would be discarded as duplicates anyway.
+   */
+  static List<RouteRequest> distinctTransferProfiles(List<RouteRequest> transferRequests) {
+    Map<TransferProfileKey, RouteRequest> distinct = new LinkedHashMap<>();
+    for (RouteRequest it : transferRequests) {
+      distinct.putIfAbsent(
+        new TransferProfileKey(it.journey().transfer().mode(), it.wheelchair(), it.preferences()),
+        it
+      );
+    }
+    if (distinct.size() < transferRequests.size()) {
+      LOG.info(
+        "{} of {} transfer requests result in the same street search as another request and are skipped.",
+        transferRequests.size() - distinct.size(),
+        transferRequests.size()
+      );
+    }
+    return List.copyOf(distinct.values());
+  }
+
+  /**
+   * Group the transfer profiles by transfer mode and wheelchair flag, and search once for each
+   * group. The search uses the first profile of the group, with the duration limit extended for
+   * the fastest profile of the group. The paths found are then traversed with each profile, and a
+   * path is kept if any of them can traverse it within the given maximum duration.
+   * <p>
+   * The transfers of a profile are then the paths found with the preferences of the first profile
+   * of the group, not the paths the profile would find in a search of its own. Each request still
+   * computes the transfer cost with its own preferences when routing.
+   */
+  static List<TransferSearch> transferSearches(
+    List<RouteRequest> transferProfiles,
+    Duration maxDuration
+  ) {
+    Map<TransferModeKey, List<RouteRequest>> groups = new LinkedHashMap<>();
+    for (RouteRequest it : transferProfiles) {
+      groups
+        .computeIfAbsent(
+          new TransferModeKey(it.journey().transfer().mode(), it.wheelchair()),
+          k -> new ArrayList<>()
+        )
+        .add(it);
+    }
+    var searches = new ArrayList<TransferSearch>();
+    for (List<RouteRequest> group : groups.values()) {
+      if (group.size() == 1) {
+        searches.add(TransferSearch.of(group.getFirst(), maxDuration));
+        continue;
+      }
+      RouteRequest first = group.getFirst();
+      double fastest = group
+        .stream()
+        .mapToDouble(DirectTransferGenerator::speed)
+        .max()
+        .orElseThrow();
+      var durationLimit = Duration.ofSeconds(
+        (long) Math.ceil(maxDuration.toSeconds() * fastest / speed(first))
+      );
+      var filters = group
+        .stream()
+        .map(it -> StreetSearchRequestMapper.mapToTransferRequest(it).build())
+        .toList();
+      searches.add(new TransferSearch(first, durationLimit, filters));
+    }
+    if (searches.size() < transferProfiles.size()) {
+      LOG.info(
+        "{} transfer requests are searched with {} street searches.",
+        transferProfiles.size(),
+        searches.size()
+      );
+    }
+    return List.copyOf(searches);
+  }
+
+  /**
+   * The speed of the transfer mode of the request, the speed of cars is given by the streets.
+   */
+  private static double speed(RouteRequest request) {
+    var mode = request.journey().transfer().mode();
+    var preferences = request.preferences();
+    if (mode.includesDriving()) {
+      return 1.0;
+    }
+    if (mode.includesBiking()) {
+      return preferences.bike().speed();
+    }
+    if (mode.includesScooter()) {
+      return preferences.scooter().speed();
+    }
+    return preferences.walk().speed();
+  }
+
   /**
    * Factory method for creating a NearbyStopFinder. Will create different finders depending on
    * whether the graph has a street network and if ConsiderPatternsForDirectTransfers feature is
    * enabled.
    */
-  private NearbyStopFinder createNearbyStopFinder() {
+  private NearbyStopFinder createNearbyStopFinder(Duration durationLimit) {
     var transitService = new DefaultTransitService(timetableRepository);
     NearbyStopFinder finder;
     if (!graph.hasStreets) {
       LOG.info(
         "Creating direct transfer edges between stops using straight line distance (not streets)..."
       );
-      finder = new StraightLineNearbyStopFinder(transitService, radiusByDuration);
+      finder = new StraightLineNearbyStopFinder(transitService, durationLimit);
     } else {
       LOG.info("Creating direct transfer edges between stops using the street network from OSM...");
-      finder = new StreetNearbyStopFinder(radiusByDuration, 0, null);
+      finder = new StreetNearbyStopFinder(durationLimit, 0, null);
     }
 
     if (OTPFeature.ConsiderPatternsForDirectTransfers.isOn()) {
@@ -200,4 +338,49 @@ public class DirectTransferGenerator implements GraphBuilderModule {
   }
 
   private record TransferKey(StopLocation source, StopLocation target, List<Edge> edges) {}
+
+  private record TransferProfileKey(
+    StreetMode mode,
+    boolean wheelchair,
+    RoutingPreferences preferences
+  ) {}
+
+  private record TransferModeKey(StreetMode mode, boolean wheelchair) {}
+
+  /**
+   * A street search for one or more transfer requests. If there are no filters the result of the
+   * search is used as is, otherwise only the paths which one of the filter requests can traverse
+   * within the maximum duration are kept.
+   */
+  record TransferSearch(
+    RouteRequest request,
+    Duration durationLimit,
+    List<StreetSearchRequest> filters
+  ) {
+    static TransferSearch of(RouteRequest request, Duration durationLimit) {
+      return new TransferSearch(request, durationLimit, List.of());
+    }
+
+    Collection<NearbyStop> filter(Collection<NearbyStop> nearbyStops, Duration maxDuration) {
+      if (filters.isEmpty()) {
+        return nearbyStops;
+      }
+      return nearbyStops.stream().filter(it -> isTraversable(it.edges, maxDuration)).toList();
+    }
+
+    private boolean isTraversable(List<Edge> edges, Duration maxDuration) {
+      if (edges.isEmpty()) {
+        return true;
+      }
+      for (StreetSearchRequest filter : filters) {
+        var editor = new StateEditor(edges.getFirst().getFromVertex(), filter);
+        editor.setTimeSeconds(0);
+        var state = EdgeTraverser.traverseEdges(editor.makeState(), edges);
+        if (state.isPresent() && state.get().getElapsedTimeSeconds() <= maxDuration.toSeconds()) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
 }
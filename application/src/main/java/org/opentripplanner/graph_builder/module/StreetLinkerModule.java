@@ -106,6 +106,7 @@ public class StreetLinkerModule implements GraphBuilderModule {
       );
     }
 
+    List<TransitStopVertex> verticesToLink = new ArrayList<>();
     for (TransitStopVertex tStop : vertices) {
       // Stops with pathways do not need to be connected to the street network, since there are explicit entrances defined for that
       if (tStop.hasPathways()) {
@@ -115,48 +116,36 @@ public class StreetLinkerModule implements GraphBuilderModule {
       if (tStop.isConnectedToGraph()) {
         continue;
       }
-
-      // ordinarily stops only need to be accessible by foot
-      StopLinkType linkType = StopLinkType.WALK_ONLY;
-
-      if (
-        OTPFeature.FlexRouting.isOn() && stopLocationsUsedForFlexTrips.contains(tStop.getStop())
-      ) {
-        linkType = StopLinkType.WALK_AND_CAR;
-      }
-
-      linkStopToStreetNetwork(tStop, linkType);
-
-      //noinspection Convert2MethodRef
-      progress.step(m -> LOG.info(m));
+      verticesToLink.add(tStop);
     }
-    LOG.info(progress.completeMessage());
-  }
 
-  /**
-   * Link a stop to the nearest "relevant" edges.
-   * <p>
-   * These are mostly walk edges but if a stop is used by a flex pattern it also needs to be
-   * car-accessible. Therefore, flex stops are ensured to be connected to the car-accessible
-   * edge. This may lead to several links being created.
-   */
-  private void linkStopToStreetNetwork(TransitStopVertex tStop, StopLinkType linkType) {
+    final Set<StopLocation> flexStops = stopLocationsUsedForFlexTrips;
     graph
       .getLinker()
-      .linkVertexPermanently(
-        tStop,
+      .linkVerticesPermanently(
+        verticesToLink,
         WALK_ONLY,
         LinkingDirection.BOTH_WAYS,
         (transitVertex, streetVertex) -> {
-          var linkEdges = createStopLinkEdges((TransitStopVertex) transitVertex, streetVertex);
-
-          if (linkType == StopLinkType.WALK_AND_CAR && !streetVertex.isConnectedToDriveableEdge()) {
+          var tStop = (TransitStopVertex) transitVertex;
+          var linkEdges = createStopLinkEdges(tStop, streetVertex);
+
+          // ordinarily stops only need to be accessible by foot, but stops used by flex trips
+          // also need to be car-accessible
+          if (
+            OTPFeature.FlexRouting.isOn() &&
+            flexStops.contains(tStop.getStop()) &&
+            !streetVertex.isConnectedToDriveableEdge()
+          ) {
             linkToDriveableEdge(tStop);
           }
 
           return linkEdges;
-        }
+        },
+        //noinspection Convert2MethodRef
+        () -> progress.step(m -> LOG.info(m))
       );
+    LOG.info(progress.completeMessage());
   }
 
   /**
@@ -238,26 +227,25 @@ public class StreetLinkerModule implements GraphBuilderModule {
 
   private void linkTransitEntrances(Graph graph) {
     LOG.info("Linking transit entrances to graph...");
-    for (TransitEntranceVertex tEntrance : graph.getVerticesOfType(TransitEntranceVertex.class)) {
-      graph
-        .getLinker()
-        .linkVertexPermanently(
-          tEntrance,
-          new TraverseModeSet(TraverseMode.WALK),
-          LinkingDirection.BOTH_WAYS,
-          (vertex, streetVertex) ->
-            List.of(
-              StreetTransitEntranceLink.createStreetTransitEntranceLink(
-                (TransitEntranceVertex) vertex,
-                streetVertex
-              ),
-              StreetTransitEntranceLink.createStreetTransitEntranceLink(
-                streetVertex,
-                (TransitEntranceVertex) vertex
-              )
+    graph
+      .getLinker()
+      .linkVerticesPermanently(
+        graph.getVerticesOfType(TransitEntranceVertex.class),
+        new TraverseModeSet(TraverseMode.WALK),
+        LinkingDirection.BOTH_WAYS,
+        (vertex, streetVertex) ->
+          List.of(
+            StreetTransitEntranceLink.createStreetTransitEntranceLink(
+              (TransitEntranceVertex) vertex,
+              streetVertex
+            ),
+            StreetTransitEntranceLink.createStreetTransitEntranceLink(
+              streetVertex,
+              (TransitEntranceVertex) vertex
             )
-        );
-    }
+          ),
+        () -> {}
+      );
   }
 
   private void linkStationCentroids(Graph graph) {
@@ -276,16 +264,15 @@ public class StreetLinkerModule implements GraphBuilderModule {
         )
       );
 
-    for (StationCentroidVertex station : graph.getVerticesOfType(StationCentroidVertex.class)) {
-      graph
-        .getLinker()
-        .linkVertexPermanently(
-          station,
-          new TraverseModeSet(TraverseMode.WALK),
-          LinkingDirection.BOTH_WAYS,
-          stationAndStreetVertexLinker
-        );
-    }
+    graph
+      .getLinker()
+      .linkVerticesPermanently(
+        graph.getVerticesOfType(StationCentroidVertex.class),
+        new TraverseModeSet(TraverseMode.WALK),
+        LinkingDirection.BOTH_WAYS,
+        stationAndStreetVertexLinker,
+        () -> {}
+      );
   }
 
   private void linkVehicleParks(Graph graph, DataImportIssueStore issueStore) {
@@ -365,17 +352,4 @@ public class StreetLinkerModule implements GraphBuilderModule {
       return null;
     }
   }
-
-  private enum StopLinkType {
-    /**
-     * Only ensure that the link leads to a walkable edge.
-     * (The same edge may also be drivable but this is not guaranteed.)
-     */
-    WALK_ONLY,
-    /**
-     * Make sure that the stop is linked to an edge each that is walkable and drivable.
-     * This may lead to several links being created.
-     */
-    WALK_AND_CAR,
-  }
 }
@@ -0,0 +1,65 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A union-find (disjoint set) structure over the dense indices {@code 0..size-1}, which can be
+ * updated by several threads at the same time without locking.
+ * <p>
+ * A root is always linked below the root with the lower index, using compare-and-set, so a union
+ * is retried if another thread changed one of the roots in the meantime. Paths are shortened with
+ * path halving while searching for the root.
+ */
+class ConcurrentUnionFind {
+
+  private final AtomicIntegerArray parents;
+
+  ConcurrentUnionFind(int size) {
+    parents = new AtomicIntegerArray(size);
+    for (int i = 0; i < size; i++) {
+      parents.set(i, i);
+    }
+  }
+
+  int size() {
+    return parents.length();
+  }
+
+  /**
+   * Return the root of the set the element belongs to. Elements in the same set have the same root,
+   * once all unions are completed.
+   */
+  int find(int element) {
+    while (true) {
+      int parent = parents.get(element);
+      if (parent == element) {
+        return element;
+      }
+      int grandparent = parents.get(parent);
+      if (parent != grandparent) {
+        parents.compareAndSet(element, parent, grandparent);
+      }
+      element = parent;
+    }
+  }
+
+  /**
+   * Merge the sets the two elements belong to.
+   *
+   * @return {@code true} if the elements were in different sets
+   */
+  boolean union(int a, int b) {
+    while (true) {
+      int rootA = find(a);
+      int rootB = find(b);
+      if (rootA == rootB) {
+        return false;
+      }
+      int high = Math.max(rootA, rootB);
+      int low = Math.min(rootA, rootB);
+      if (parents.compareAndSet(high, high, low)) {
+        return true;
+      }
+    }
+  }
+}
@@ -1,5 +1,8 @@
 package org.opentripplanner.graph_builder.module.islandpruning;
 
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -9,8 +12,9 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.annotation.Nullable;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.GraphConnectivity;
 import org.opentripplanner.graph_builder.issues.IsolatedStop;
@@ -170,42 +174,52 @@ public class PruneIslands implements GraphBuilderModule {
 
   private void pruneIslands(TraverseMode traverseMode) {
     LOG.debug("nothru pruning");
-    Map<Vertex, Subgraph> subgraphs = new HashMap<>();
-    Map<Vertex, Subgraph> extgraphs = new HashMap<>();
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex = new HashMap<>();
+    // Vertices are identified by their dense index in this list in the connectivity analysis
+    List<Vertex> vertices = List.copyOf(graph.getVertices());
+    TObjectIntMap<Vertex> indexes = new TObjectIntHashMap<>(vertices.size(), 0.5f, -1);
+    for (int i = 0; i < vertices.size(); i++) {
+      indexes.put(vertices.get(i), i);
+    }
     Map<Edge, Boolean> isolated = new HashMap<>();
-    ArrayList<Subgraph> islands = new ArrayList<>();
+    boolean[] connected = new boolean[vertices.size()];
     int count;
 
-    /* establish vertex neighbourhood without currently relevant noThruTrafficEdges */
-    collectNeighbourVertices(neighborsForVertex, traverseMode, false);
+    /* establish vertex neighbourhood with and without currently relevant noThruTrafficEdges */
+    int[][] neighbors = collectNeighbourVertices(vertices, indexes, traverseMode, false);
+    int[][] noThruNeighbors = collectNeighbourVertices(vertices, indexes, traverseMode, true);
 
     /* associate each connected vertex with a subgraph */
-    count = collectSubGraphs(neighborsForVertex, subgraphs, null, null);
+    var components = new ConcurrentUnionFind(vertices.size());
+    union(components, neighbors, connected);
+    Subgraph[] subgraphs = new Subgraph[vertices.size()];
+    count = collectComponents(vertices, components, connected, subgraphs).size();
     LOG.info("Islands when {} noThruTraffic is considered: {}", traverseMode, count);
 
-    /* Expand vertex neighbourhood with relevant noThruTrafficEdges
-       Note that we can reuse the original neighbour map here
-       and simply process a smaller set of noThruTrafficEdges */
-    collectNeighbourVertices(neighborsForVertex, traverseMode, true);
+    /* Expand the components with relevant noThruTrafficEdges. Note that we can reuse the
+       components from the previous step and simply process a smaller set of noThruTrafficEdges */
+    union(components, noThruNeighbors, connected);
 
     /* Next: generate subgraphs without considering access limitations */
-    count = collectSubGraphs(neighborsForVertex, extgraphs, null, islands);
-    LOG.info("Islands when {} noThruTraffic is ignored: {}", traverseMode, count);
+    List<Subgraph> islands = collectComponents(vertices, components, connected, null);
+    LOG.info("Islands when {} noThruTraffic is ignored: {}", traverseMode, islands.size());
 
     /* collect unreachable edges to a map */
     processIslands(islands, isolated, true, traverseMode);
 
-    extgraphs = new HashMap<>(); // let old map go
+    components = null; // let old components go
     islands = new ArrayList<>(); // reset this too
 
+    var neighborTable = NeighborTable.of(vertices.size(), neighbors, noThruNeighbors);
+    Subgraph[] extgraphs = new Subgraph[vertices.size()];
+    Subgraph[] members = new Subgraph[vertices.size()];
+
     /* Recompute expanded subgraphs by accepting noThruTraffic edges in graph expansion.
        However, expansion is not allowed to jump from an original island to another one
      */
-    collectSubGraphs(neighborsForVertex, extgraphs, subgraphs, islands);
+    collectSubGraphs(vertices, neighborTable, connected, extgraphs, subgraphs, members, islands);
 
     /* Next round: generate purely noThruTraffic islands if such ones exist */
-    count = collectSubGraphs(neighborsForVertex, extgraphs, null, islands);
+    count = collectSubGraphs(vertices, neighborTable, connected, extgraphs, null, members, islands);
 
     LOG.info("{} noThruTraffic island count: {}", traverseMode, count);
 
@@ -216,7 +230,7 @@ public class PruneIslands implements GraphBuilderModule {
   }
 
   private int processIslands(
-    ArrayList<Subgraph> islands,
+    List<Subgraph> islands,
     Map<Edge, Boolean> isolated,
     boolean markIsolated,
     TraverseMode traverseMode
@@ -303,8 +317,15 @@ public class PruneIslands implements GraphBuilderModule {
     return count;
   }
 
-  private void collectNeighbourVertices(
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex,
+  /**
+   * Find the neighbours of each street vertex, which can be reached by traversing one of its
+   * outgoing edges with the given mode. The vertices are processed in parallel.
+   *
+   * @return the indexes of the neighbours for each vertex index, or null if it has none
+   */
+  private int[][] collectNeighbourVertices(
+    List<Vertex> vertices,
+    TObjectIntMap<Vertex> indexes,
     TraverseMode traverseMode,
     boolean shouldMatchNoThruType
   ) {
@@ -318,67 +339,145 @@ public class PruneIslands implements GraphBuilderModule {
 
     StreetSearchRequest request = StreetSearchRequest.of().withMode(streetMode).build();
 
-    for (Vertex gv : graph.getVertices()) {
-      if (!(gv instanceof StreetVertex)) {
-        continue;
-      }
-      State s0 = new State(gv, request);
-      for (Edge e : gv.getOutgoing()) {
-        if (
-          e instanceof StreetEdge &&
-          shouldMatchNoThruType != ((StreetEdge) e).isNoThruTraffic(traverseMode)
-        ) {
-          continue;
+    int[][] neighbors = new int[vertices.size()][];
+    IntStream
+      .range(0, vertices.size())
+      .parallel()
+      .forEach(i -> {
+        if (!(vertices.get(i) instanceof StreetVertex gv)) {
+          return;
         }
-        State[] states = e.traverse(s0);
-        if (State.isEmpty(states)) {
-          continue;
+        State s0 = new State(gv, request);
+        TIntArrayList out = new TIntArrayList(gv.getDegreeOut());
+        for (Edge e : gv.getOutgoing()) {
+          if (
+            e instanceof StreetEdge &&
+            shouldMatchNoThruType != ((StreetEdge) e).isNoThruTraffic(traverseMode)
+          ) {
+            continue;
+          }
+          for (State state : e.traverse(s0)) {
+            int neighbor = indexes.get(state.getVertex());
+            if (neighbor >= 0) {
+              out.add(neighbor);
+            }
+          }
+        }
+        if (!out.isEmpty()) {
+          neighbors[i] = out.toArray();
+        }
+      });
+    return neighbors;
+  }
+
+  /**
+   * Merge each vertex with its neighbours in parallel, and mark them as connected.
+   * <p>
+   * Note: this assumes that edges are bi-directional. Maybe explicit state traversal is needed for
+   * CAR mode.
+   */
+  private static void union(
+    ConcurrentUnionFind components,
+    int[][] neighbors,
+    boolean[] connected
+  ) {
+    IntStream
+      .range(0, neighbors.length)
+      .parallel()
+      .forEach(v -> {
+        if (neighbors[v] == null) {
+          return;
+        }
+        connected[v] = true;
+        for (int neighbor : neighbors[v]) {
+          connected[neighbor] = true;
+          components.union(v, neighbor);
+        }
+      });
+  }
+
+  /**
+   * Create a subgraph for each component which contains a street vertex. The subgraphs are
+   * returned in the order of their first street vertex.
+   *
+   * @param mapped optional array to put the subgraph of each vertex in, except for stops
+   */
+  private static List<Subgraph> collectComponents(
+    List<Vertex> vertices,
+    ConcurrentUnionFind components,
+    boolean[] connected,
+    @Nullable Subgraph[] mapped
+  ) {
+    Subgraph[] subgraphForRoot = new Subgraph[vertices.size()];
+    List<Subgraph> result = new ArrayList<>();
+    for (int i = 0; i < vertices.size(); i++) {
+      if (connected[i] && vertices.get(i) instanceof StreetVertex) {
+        int root = components.find(i);
+        if (subgraphForRoot[root] == null) {
+          subgraphForRoot[root] = new Subgraph();
+          result.add(subgraphForRoot[root]);
         }
-        Arrays
-          .stream(states)
-          .map(State::getVertex)
-          .forEach(out -> {
-            var vertexList = neighborsForVertex.computeIfAbsent(gv, k -> new ArrayList<>());
-            vertexList.add(out);
-
-            // note: this assumes that edges are bi-directional. Maybe explicit state traversal is needed for CAR mode.
-            vertexList = neighborsForVertex.computeIfAbsent(out, k -> new ArrayList<>());
-            vertexList.add(gv);
-          });
       }
     }
+    for (int i = 0; i < vertices.size(); i++) {
+      if (!connected[i]) {
+        continue;
+      }
+      Subgraph subgraph = subgraphForRoot[components.find(i)];
+      if (subgraph == null) {
+        continue;
+      }
+      Vertex vertex = vertices.get(i);
+      subgraph.addVertex(vertex);
+      if (mapped != null && !(vertex instanceof TransitStopVertex)) {
+        mapped[i] = subgraph;
+      }
+    }
+    return result;
   }
 
-  private int collectSubGraphs(
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex,
-    Map<Vertex, Subgraph> newgraphs, // put new subgraphs here
-    Map<Vertex, Subgraph> subgraphs, // optional isolation map from a previous round
-    ArrayList<Subgraph> islands
-  ) { // final list of islands or null
+  private static int collectSubGraphs(
+    List<Vertex> vertices,
+    NeighborTable neighbors,
+    boolean[] connected,
+    Subgraph[] newgraphs, // put new subgraphs here
+    @Nullable Subgraph[] subgraphs, // optional isolation map from a previous round
+    Subgraph[] members, // the subgraph each vertex was last added to
+    List<Subgraph> islands // final list of islands
+  ) {
     int count = 0;
-    for (Vertex gv : graph.getVertices()) {
-      if (!(gv instanceof StreetVertex)) {
+    for (int i = 0; i < vertices.size(); i++) {
+      if (!(vertices.get(i) instanceof StreetVertex)) {
         continue;
       }
 
-      if (subgraphs != null && !subgraphs.containsKey(gv)) {
+      if (subgraphs != null && subgraphs[i] == null) {
         // do not start new graph generation from non-classified vertex
         continue;
       }
-      if (newgraphs.containsKey(gv)) { // already processed
+      if (newgraphs[i] != null) { // already processed
         continue;
       }
-      if (!neighborsForVertex.containsKey(gv)) {
+      if (!connected[i]) {
         continue;
       }
-      Subgraph subgraph = computeConnectedSubgraph(neighborsForVertex, gv, subgraphs, newgraphs);
-      for (Iterator<Vertex> vIter = subgraph.streetIterator(); vIter.hasNext();) {
-        Vertex subnode = vIter.next();
-        newgraphs.put(subnode, subgraph);
-      }
-      if (islands != null) {
-        islands.add(subgraph);
+      TIntArrayList visited = new TIntArrayList();
+      Subgraph subgraph = computeConnectedSubgraph(
+        vertices,
+        neighbors,
+        i,
+        subgraphs,
+        newgraphs,
+        members,
+        visited
+      );
+      for (int j = 0; j < visited.size(); j++) {
+        int subnode = visited.get(j);
+        if (members[subnode] == subgraph && !(vertices.get(subnode) instanceof TransitStopVertex)) {
+          newgraphs[subnode] = subgraph;
+        }
       }
+      islands.add(subgraph);
       count++;
     }
     return count;
@@ -502,36 +601,85 @@ public class PruneIslands implements GraphBuilderModule {
     return true;
   }
 
-  private Subgraph computeConnectedSubgraph(
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex,
-    Vertex startVertex,
-    Map<Vertex, Subgraph> anchors,
-    Map<Vertex, Subgraph> alreadyMapped
+  /**
+   * Find the vertices connected to the start vertex, which are not mapped to another subgraph.
+   * If anchors are given, the search does not enter vertices anchored to another subgraph than
+   * the start vertex.
+   *
+   * @param queue filled with the start vertex and the indexes of all vertices in the subgraph
+   */
+  private static Subgraph computeConnectedSubgraph(
+    List<Vertex> vertices,
+    NeighborTable neighbors,
+    int startVertex,
+    @Nullable Subgraph[] anchors,
+    Subgraph[] alreadyMapped,
+    Subgraph[] members,
+    TIntArrayList queue
   ) {
     Subgraph subgraph = new Subgraph();
-    Queue<Vertex> q = new LinkedList<>();
     Subgraph anchor = null;
 
     if (anchors != null) {
       // anchor subgraph expansion to this subgraph
-      anchor = anchors.get(startVertex);
+      anchor = anchors[startVertex];
     }
-    q.add(startVertex);
-    while (!q.isEmpty()) {
-      Vertex vertex = q.poll();
-      for (Vertex neighbor : neighborsForVertex.get(vertex)) {
-        if (!subgraph.contains(neighbor) && !alreadyMapped.containsKey(neighbor)) {
+    queue.add(startVertex);
+    // The start vertex is added to the subgraph when it is reached from one of its neighbours
+    for (int head = 0; head < queue.size(); head++) {
+      int vertex = queue.get(head);
+      for (int i = neighbors.offsets[vertex]; i < neighbors.offsets[vertex + 1]; i++) {
+        int neighbor = neighbors.targets[i];
+        if (members[neighbor] != subgraph && alreadyMapped[neighbor] == null) {
           if (anchor != null) {
-            Subgraph compare = anchors.get(neighbor);
+            Subgraph compare = anchors[neighbor];
             if (compare != null && compare != anchor) { // do not enter a new island
               continue;
             }
           }
-          subgraph.addVertex(neighbor);
-          q.add(neighbor);
+          subgraph.addVertex(vertices.get(neighbor));
+          members[neighbor] = subgraph;
+          queue.add(neighbor);
         }
       }
     }
     return subgraph;
   }
+
+  /**
+   * The neighbours of each vertex in both directions, in compressed sparse row format: the
+   * neighbours of vertex {@code v} are {@code targets[offsets[v]]} to
+   * {@code targets[offsets[v + 1] - 1]}.
+   */
+  private record NeighborTable(int[] offsets, int[] targets) {
+    static NeighborTable of(int size, int[][]... outgoing) {
+      int[] offsets = new int[size + 1];
+      for (int[][] neighbors : outgoing) {
+        for (int v = 0; v < size; v++) {
+          if (neighbors[v] != null) {
+            offsets[v + 1] += neighbors[v].length;
+            for (int neighbor : neighbors[v]) {
+              offsets[neighbor + 1]++;
+            }
+          }
+        }
+      }
+      for (int v = 0; v < size; v++) {
+        offsets[v + 1] += offsets[v];
+      }
+      int[] next = Arrays.copyOf(offsets, size);
+      int[] targets = new int[offsets[size]];
+      for (int[][] neighbors : outgoing) {
+        for (int v = 0; v < size; v++) {
+          if (neighbors[v] != null) {
+            for (int neighbor : neighbors[v]) {
+              targets[next[v]++] = neighbor;
+              targets[next[neighbor]++] = v;
+            }
+          }
+        }
+      }
+      return new NeighborTable(offsets, targets);
+    }
+  }
 }
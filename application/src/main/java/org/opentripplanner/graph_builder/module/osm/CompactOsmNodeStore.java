@@ -0,0 +1,236 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.opentripplanner.osm.OsmProvider;
+import org.opentripplanner.osm.model.OsmNode;
+
+/**
+ * A compact store for OSM nodes without tags. Most nodes in a street network only carry a
+ * position, and keeping each of them as an {@link OsmNode} object in a hash map costs around
+ * 70 bytes per node. This store keeps the ids, the coordinates as fixed point integers in units of
+ * 10<sup>-7</sup> degrees (the default PBF resolution) and the provider in parallel primitive
+ * arrays, which is 17 bytes per node.
+ * <p>
+ * The nodes are sorted by id on the first lookup after an insert, and found using binary search.
+ * An {@link OsmNode} is materialized on lookup. The nodes looked up recently are kept in a small
+ * cache, so looking up the nodes of a way several times does not allocate new nodes each time.
+ * Still, callers must not depend on the identity of the returned nodes. Nodes which are used by
+ * identity, like area nodes, should not be added to this store.
+ * <p>
+ * When several files contain the same node, the node from the first file is kept. The store is
+ * sorted after each file, and {@link #containsSorted(long)} finds the nodes of the files loaded
+ * before, so they are not added again.
+ * <p>
+ * This class is not thread-safe.
+ */
+class CompactOsmNodeStore {
+
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final double FIXED_POINT_SCALE = 1e7;
+
+  /** The number of materialized nodes to keep, must be a power of two. */
+  private static final int MATERIALIZED_CACHE_SIZE = 4096;
+
+  private final List<OsmProvider> providers = new ArrayList<>();
+
+  private long[] ids = new long[INITIAL_CAPACITY];
+  private int[] lats = new int[INITIAL_CAPACITY];
+  private int[] lons = new int[INITIAL_CAPACITY];
+  private byte[] providerIndexes = new byte[INITIAL_CAPACITY];
+  private int size = 0;
+  private boolean sorted = true;
+
+  /** The nodes before this index are sorted by id, and each id is found only once. */
+  private int sortedSize = 0;
+
+  /** The nodes looked up recently, in a slot given by the hash of the id. */
+  private final OsmNode[] materialized = new OsmNode[MATERIALIZED_CACHE_SIZE];
+
+  /**
+   * Add the node, if it has no tags and its position can be stored without loss of precision.
+   *
+   * @return {@code true} if the node was added, {@code false} if it must be stored as an object.
+   */
+  boolean add(OsmNode node) {
+    if (!node.getTags().isEmpty()) {
+      return false;
+    }
+    int providerIndex = providerIndex(node.getOsmProvider());
+    if (providerIndex < 0) {
+      return false;
+    }
+    long lat = Math.round(node.lat * FIXED_POINT_SCALE);
+    long lon = Math.round(node.lon * FIXED_POINT_SCALE);
+    if (
+      lat != (int) lat ||
+      lon != (int) lon ||
+      toDegrees((int) lat) != node.lat ||
+      toDegrees((int) lon) != node.lon
+    ) {
+      return false;
+    }
+    ensureCapacity(size + 1);
+    if (size > 0 && ids[size - 1] >= node.getId()) {
+      sorted = false;
+    }
+    ids[size] = node.getId();
+    lats[size] = (int) lat;
+    lons[size] = (int) lon;
+    providerIndexes[size] = (byte) providerIndex;
+    ++size;
+    return true;
+  }
+
+  @Nullable
+  OsmNode get(long id) {
+    int slot = Long.hashCode(id) & (MATERIALIZED_CACHE_SIZE - 1);
+    var cached = materialized[slot];
+    if (cached != null && cached.getId() == id) {
+      return cached;
+    }
+    int i = indexOf(id);
+    if (i < 0) {
+      return null;
+    }
+    var node = new OsmNode();
+    node.setId(id);
+    node.lat = toDegrees(lats[i]);
+    node.lon = toDegrees(lons[i]);
+    node.setOsmProvider(providers.get(providerIndexes[i]));
+    materialized[slot] = node;
+    return node;
+  }
+
+  boolean contains(long id) {
+    return indexOf(id) >= 0;
+  }
+
+  /**
+   * Return {@code true} if the node was added before the last sort. Unlike
+   * {@link #contains(long)}, this never sorts the store, so it is cheap to call for each node
+   * while a file is loaded.
+   */
+  boolean containsSorted(long id) {
+    return Arrays.binarySearch(ids, 0, sortedSize, id) >= 0;
+  }
+
+  /**
+   * Sort the nodes added since the last sort. Call this when a file is loaded, to make
+   * {@link #containsSorted(long)} find its nodes.
+   */
+  void sort() {
+    sortIfNeeded();
+    sortedSize = size;
+  }
+
+  int size() {
+    sortIfNeeded();
+    return size;
+  }
+
+  /**
+   * Convert a fixed point coordinate to degrees, with the same arithmetic as the PBF parser uses
+   * for the default granularity. This makes sure the coordinates of a materialized node are
+   * identical to those of the parsed node.
+   */
+  private static double toDegrees(int fixedPoint) {
+    return (100L * fixedPoint) * .000000001;
+  }
+
+  private int providerIndex(@Nullable OsmProvider provider) {
+    int i = providers.indexOf(provider);
+    if (i >= 0) {
+      return i;
+    }
+    if (providers.size() > Byte.MAX_VALUE) {
+      return -1;
+    }
+    providers.add(provider);
+    return providers.size() - 1;
+  }
+
+  private int indexOf(long id) {
+    sortIfNeeded();
+    int i = Arrays.binarySearch(ids, 0, size, id);
+    return i < 0 ? -1 : i;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= ids.length) {
+      return;
+    }
+    int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1));
+    ids = Arrays.copyOf(ids, newCapacity);
+    lats = Arrays.copyOf(lats, newCapacity);
+    lons = Arrays.copyOf(lons, newCapacity);
+    providerIndexes = Arrays.copyOf(providerIndexes, newCapacity);
+  }
+
+  /**
+   * Sort the parallel arrays by id in place, and remove duplicate ids. Nodes are normally added in
+   * id order, since PBF files are sorted, so this only happens when several files are loaded.
+   * Nodes found by {@link #containsSorted(long)} are not added again, so duplicate ids only occur
+   * within one file, and which of them is kept is not defined.
+   */
+  private void sortIfNeeded() {
+    if (sorted) {
+      return;
+    }
+    // Heapsort, to sort the parallel arrays in place without extra memory
+    for (int i = size / 2 - 1; i >= 0; i--) {
+      siftDown(i, size);
+    }
+    for (int end = size - 1; end > 0; end--) {
+      swap(0, end);
+      siftDown(0, end);
+    }
+    int n = 0;
+    for (int i = 0; i < size; i++) {
+      if (n > 0 && ids[n - 1] == ids[i]) {
+        continue;
+      }
+      ids[n] = ids[i];
+      lats[n] = lats[i];
+      lons[n] = lons[i];
+      providerIndexes[n] = providerIndexes[i];
+      ++n;
+    }
+    size = n;
+    sorted = true;
+  }
+
+  private void siftDown(int root, int end) {
+    while (true) {
+      int child = 2 * root + 1;
+      if (child >= end) {
+        return;
+      }
+      if (child + 1 < end && ids[child + 1] > ids[child]) {
+        ++child;
+      }
+      if (ids[root] >= ids[child]) {
+        return;
+      }
+      swap(root, child);
+      root = child;
+    }
+  }
+
+  private void swap(int a, int b) {
+    long id = ids[a];
+    ids[a] = ids[b];
+    ids[b] = id;
+    int lat = lats[a];
+    lats[a] = lats[b];
+    lats[b] = lat;
+    int lon = lons[a];
+    lons[a] = lons[b];
+    lons[b] = lon;
+    byte provider = providerIndexes[a];
+    providerIndexes[a] = providerIndexes[b];
+    providerIndexes[b] = provider;
+  }
+}
@@ -59,9 +59,12 @@ public class OsmDatabase {
 
   private final DataImportIssueStore issueStore;
 
-  /* Map of all nodes used in ways/areas keyed by their OSM ID */
+  /* Map of all nodes used in areas, tagged nodes and virtual nodes keyed by their OSM ID */
   private final TLongObjectMap<OsmNode> nodesById = new TLongObjectHashMap<>();
 
+  /* All other nodes used in ways, which only carry a position */
+  private final CompactOsmNodeStore untaggedWayNodes = new CompactOsmNodeStore();
+
   /* Map of all bike parking nodes, keyed by their OSM ID */
   private final TLongObjectMap<OsmNode> bikeParkingNodes = new TLongObjectHashMap<>();
 
@@ -135,7 +138,8 @@ public class OsmDatabase {
   }
 
   public OsmNode getNode(Long nodeId) {
-    return nodesById.get(nodeId);
+    var node = nodesById.get(nodeId);
+    return node != null ? node : untaggedWayNodes.get(nodeId);
   }
 
   public OsmWay getWay(Long nodeId) {
@@ -151,7 +155,7 @@ public class OsmDatabase {
   }
 
   public int nodeCount() {
-    return nodesById.size();
+    return nodesById.size() + untaggedWayNodes.size();
   }
 
   public int wayCount() {
@@ -227,7 +231,12 @@ public class OsmDatabase {
       return;
     }
 
-    if (nodesById.containsKey(node.getId())) {
+    // Keep the node from the first file if several files contain it
+    if (nodesById.containsKey(node.getId()) || untaggedWayNodes.containsSorted(node.getId())) {
+      return;
+    }
+    // Area nodes are kept as objects, since the area processing depends on their identity
+    if (!areaNodeIds.contains(node.getId()) && untaggedWayNodes.add(node)) {
       return;
     }
     nodesById.put(node.getId(), node);
@@ -332,6 +341,7 @@ public class OsmDatabase {
   }
 
   public void doneThirdPhaseNodes() {
+    untaggedWayNodes.sort();
     processMultipolygonRelations();
     processSingleWayAreas();
   }
@@ -390,8 +400,8 @@ public class OsmDatabase {
 
       // For each segment of the way
       for (int i = 0; i < way.getNodeRefs().size() - 1; i++) {
-        OsmNode nA = nodesById.get(way.getNodeRefs().get(i));
-        OsmNode nB = nodesById.get(way.getNodeRefs().get(i + 1));
+        OsmNode nA = getNode(way.getNodeRefs().get(i));
+        OsmNode nB = getNode(way.getNodeRefs().get(i + 1));
         if (nA == null || nB == null) {
           continue;
         }
@@ -1059,7 +1069,7 @@ public class OsmDatabase {
     for (OsmRelationMember member : relation.getMembers()) {
       switch (member.getType()) {
         case NODE -> {
-          var node = nodesById.get(member.getRef());
+          var node = getNode(member.getRef());
           if (node != null && (node.isEntrance() || node.isBoardingLocation())) {
             platformNodes.add(node);
           }
@@ -395,7 +395,7 @@ public class OsmModule implements GraphBuilderModule {
 
           applyEdgesToTurnRestrictions(way, startNode, endNode, street, backStreet);
           startNode = endNode;
-          osmStartNode = osmdb.getNode(startNode);
+          osmStartNode = osmEndNode;
         }
       }
 
@@ -405,6 +405,13 @@ public class OsmModule implements GraphBuilderModule {
     } // END loop over OSM ways
 
     LOG.info(progress.completeMessage());
+    for (OsmProvider provider : providers) {
+      LOG.info(
+        "Way properties cache for {}: {}",
+        provider,
+        provider.getWayPropertySet().dataForWayCacheSummary()
+      );
+    }
   }
 
   private void validateBarriers() {
@@ -525,6 +532,11 @@ public class OsmModule implements GraphBuilderModule {
     String label = "way " + way.getId() + " from " + index;
     label = label.intern();
     I18NString name = params.edgeNamer().getNameForWay(way, label);
+    // Many edges have the same name, share one instance of each name. Unnamed ways get a name
+    // unique to the edge, which is not worth keeping in the deduplicator.
+    if (way.isNamed()) {
+      name = graph.deduplicator.deduplicateObject(I18NString.class, name);
+    }
     float carSpeed = way.getOsmProvider().getOsmTagMapper().getCarSpeedForWay(way, back);
 
     StreetEdgeBuilder<?> seb = new StreetEdgeBuilder<>()
@@ -1,14 +1,23 @@
 package org.opentripplanner.gtfs.graphbuilder;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.awt.Color;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.onebusaway.csv_entities.EntityHandler;
 import org.onebusaway.gtfs.impl.GtfsRelationalDaoImpl;
 import org.onebusaway.gtfs.model.Agency;
@@ -26,6 +35,7 @@ import org.onebusaway.gtfs.model.ServiceCalendarDate;
 import org.onebusaway.gtfs.model.ShapePoint;
 import org.onebusaway.gtfs.model.Stop;
 import org.onebusaway.gtfs.model.StopArea;
+import org.onebusaway.gtfs.model.StopTime;
 import org.onebusaway.gtfs.model.Trip;
 import org.onebusaway.gtfs.serialization.GtfsReader;
 import org.onebusaway.gtfs.services.GenericMutableDao;
@@ -42,6 +52,7 @@ import org.opentripplanner.graph_builder.module.geometry.GeometryProcessor;
 import org.opentripplanner.gtfs.GenerateTripPatternsOperation;
 import org.opentripplanner.gtfs.interlining.InterlineProcessor;
 import org.opentripplanner.gtfs.mapping.GTFSToOtpTransitServiceMapper;
+import org.opentripplanner.gtfs.mapping.StagedStopTimes;
 import org.opentripplanner.model.OtpTransitService;
 import org.opentripplanner.model.TripStopTimes;
 import org.opentripplanner.model.calendar.CalendarServiceData;
@@ -67,7 +78,13 @@ public class GtfsModule implements GraphBuilderModule {
   );
 
   private static final Logger LOG = LoggerFactory.getLogger(GtfsModule.class);
-  private final EntityHandler counter = new EntityCounter();
+
+  /**
+   * The number of bundles loaded ahead of the one being mapped. Each loaded bundle holds all the
+   * entities of a feed until it is mapped, so this is kept low to limit the memory used.
+   */
+  private static final int BUNDLES_LOADED_AHEAD = 1;
+
   private final Set<String> agencyIdsSeen = new HashSet<>();
   /**
    * @see BuildConfig#transitServiceStart
@@ -122,9 +139,15 @@ public class GtfsModule implements GraphBuilderModule {
 
     Map<String, GtfsBundle> feedIdsEncountered = new HashMap<>();
 
+    ExecutorService loaderPool = Executors.newFixedThreadPool(
+      BUNDLES_LOADED_AHEAD + 1,
+      new ThreadFactoryBuilder().setNameFormat("gtfs-loader-%d").setDaemon(true).build()
+    );
     try {
+      var loadedBundles = loadBundles(loaderPool);
+
       for (GtfsBundle gtfsBundle : gtfsBundles) {
-        GtfsMutableRelationalDao gtfsDao = loadBundle(gtfsBundle);
+        StoreImpl store = loadedBundles.next();
 
         final String feedId = gtfsBundle.getFeedId().getId();
         verifyUniqueFeedId(gtfsBundle, feedIdsEncountered, feedId);
@@ -136,7 +159,8 @@ public class GtfsModule implements GraphBuilderModule {
           feedId,
           issueStore,
           gtfsBundle.discardMinTransferTimes(),
-          gtfsDao,
+          store.dao,
+          store.stopTimes,
           gtfsBundle.stationTransferPreference()
         );
         mapper.mapStopTripAndRouteDataIntoBuilder();
@@ -201,6 +225,7 @@ public class GtfsModule implements GraphBuilderModule {
     } catch (IOException e) {
       throw new RuntimeException(e);
     } finally {
+      loaderPool.shutdownNow();
       // Note the close method of each bundle should NOT throw an exception, so this
       // code should be safe without the try/catch block.
       gtfsBundles.forEach(GtfsBundle::close);
@@ -304,7 +329,66 @@ public class GtfsModule implements GraphBuilderModule {
     );
   }
 
-  private GtfsMutableRelationalDao loadBundle(GtfsBundle gtfsBundle) throws IOException {
+  /**
+   * Load the bundles in the background, in the order of the bundles. The agency ids are resolved
+   * for all bundles before the loading starts, since a conflicting agency id is replaced depending
+   * on the bundles loaded before it.
+   */
+  private LoadedBundles loadBundles(ExecutorService loaderPool) throws IOException {
+    var tasks = new ArrayList<Callable<StoreImpl>>();
+    for (GtfsBundle gtfsBundle : gtfsBundles) {
+      var generatedAgencyIds = resolveAgencyIds(gtfsBundle);
+      tasks.add(() -> loadBundle(gtfsBundle, generatedAgencyIds));
+    }
+    return new LoadedBundles(loaderPool, tasks);
+  }
+
+  /**
+   * Read the agencies of the bundle and find the agency ids which are missing or already used by
+   * another bundle. Return a generated id for each of these agencies, in the order they are read,
+   * and {@code null} for agencies which keep their id.
+   */
+  private List<String> resolveAgencyIds(GtfsBundle gtfsBundle) throws IOException {
+    GtfsFeedId gtfsFeedId = gtfsBundle.getFeedId();
+
+    GtfsReader reader = new GtfsReader();
+    reader.setInputSource(gtfsBundle.getCsvInputSource());
+    reader.setEntityStore(new GtfsRelationalDaoImpl());
+    reader.setDefaultAgencyId(gtfsFeedId.getId());
+    reader.readEntities(Agency.class);
+
+    var generatedAgencyIds = new ArrayList<String>();
+    for (Agency agency : reader.getAgencies()) {
+      String agencyId = agency.getId();
+      String generatedAgencyId = null;
+      LOG.info("This Agency has the ID {}", agencyId);
+      // Somehow, when the agency's id field is missing, OBA replaces it with the agency's name.
+      // TODO Figure out how and why this is happening.
+      if (agencyId == null || agencyIdsSeen.contains(gtfsFeedId.getId() + agencyId)) {
+        // Loop in case generated name is already in use.
+        while (generatedAgencyId == null || agencyIdsSeen.contains(generatedAgencyId)) {
+          generatedAgencyId = "F" + nextAgencyId;
+          nextAgencyId++;
+        }
+        LOG.warn(
+          "The agency ID '{}' was already seen, or I think it's bad. Replacing with '{}'.",
+          agencyId,
+          generatedAgencyId
+        );
+        agencyId = generatedAgencyId;
+      }
+      if (agencyId != null) agencyIdsSeen.add(gtfsFeedId.getId() + agencyId);
+      generatedAgencyIds.add(generatedAgencyId);
+    }
+    return generatedAgencyIds;
+  }
+
+  /**
+   * Load the entities of the bundle. This is called from the loader threads, so it must not
+   * change the state of this module.
+   */
+  private StoreImpl loadBundle(GtfsBundle gtfsBundle, List<String> generatedAgencyIds)
+    throws IOException {
     StoreImpl store = new StoreImpl(new GtfsRelationalDaoImpl());
     store.open();
     LOG.info("reading {}", gtfsBundle.toString());
@@ -317,7 +401,7 @@ public class GtfsModule implements GraphBuilderModule {
     reader.setInternStrings(true);
     reader.setDefaultAgencyId(gtfsFeedId.getId());
 
-    if (LOG.isDebugEnabled()) reader.addEntityHandler(counter);
+    if (LOG.isDebugEnabled()) reader.addEntityHandler(new EntityCounter());
 
     for (Class<?> entityClass : reader.getEntityClasses()) {
       if (skipEntityClass(entityClass)) {
@@ -331,28 +415,13 @@ public class GtfsModule implements GraphBuilderModule {
       // set the agencyId here. Each feed ("bundle") is loaded by a separate reader, so there is no risk of
       // agency mappings accumulating.
       if (entityClass == Agency.class) {
+        int i = 0;
         for (Agency agency : reader.getAgencies()) {
-          String agencyId = agency.getId();
-          LOG.info("This Agency has the ID {}", agencyId);
-          // Somehow, when the agency's id field is missing, OBA replaces it with the agency's name.
-          // TODO Figure out how and why this is happening.
-          if (agencyId == null || agencyIdsSeen.contains(gtfsFeedId.getId() + agencyId)) {
-            // Loop in case generated name is already in use.
-            String generatedAgencyId = null;
-            while (generatedAgencyId == null || agencyIdsSeen.contains(generatedAgencyId)) {
-              generatedAgencyId = "F" + nextAgencyId;
-              nextAgencyId++;
-            }
-            LOG.warn(
-              "The agency ID '{}' was already seen, or I think it's bad. Replacing with '{}'.",
-              agencyId,
-              generatedAgencyId
-            );
-            reader.addAgencyIdMapping(agencyId, generatedAgencyId); // NULL key should work
+          String generatedAgencyId = generatedAgencyIds.get(i++);
+          if (generatedAgencyId != null) {
+            reader.addAgencyIdMapping(agency.getId(), generatedAgencyId); // NULL key should work
             agency.setId(generatedAgencyId);
-            agencyId = generatedAgencyId;
           }
-          if (agencyId != null) agencyIdsSeen.add(gtfsFeedId.getId() + agencyId);
         }
       }
     }
@@ -397,7 +466,8 @@ public class GtfsModule implements GraphBuilderModule {
     }
 
     store.close();
-    return store.dao;
+    LOG.info("Staged {} stop times from {}", store.stopTimes.size(), gtfsBundle);
+    return store;
   }
 
   /**
@@ -448,9 +518,52 @@ public class GtfsModule implements GraphBuilderModule {
     route.setTextColor(textColor);
   }
 
+  /**
+   * Submit the bundles to the loader pool in order, and return the loaded bundles in the same
+   * order. At most {@link #BUNDLES_LOADED_AHEAD} bundles are loaded ahead of the one returned.
+   */
+  private static class LoadedBundles {
+
+    private final ExecutorService loaderPool;
+    private final List<Callable<StoreImpl>> tasks;
+    private final Deque<Future<StoreImpl>> pending = new ArrayDeque<>();
+    private int nextToSubmit = 0;
+
+    LoadedBundles(ExecutorService loaderPool, List<Callable<StoreImpl>> tasks) {
+      this.loaderPool = loaderPool;
+      this.tasks = tasks;
+    }
+
+    StoreImpl next() throws IOException {
+      while (nextToSubmit < tasks.size() && pending.size() <= BUNDLES_LOADED_AHEAD) {
+        pending.addLast(loaderPool.submit(tasks.get(nextToSubmit++)));
+      }
+      try {
+        return pending.removeFirst().get();
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof IOException ioe) {
+          throw ioe;
+        }
+        if (e.getCause() instanceof RuntimeException re) {
+          throw re;
+        }
+        throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e.getMessage(), e);
+      }
+    }
+  }
+
+  /**
+   * Store the entities in the DAO, except the stop times which are staged in a compact form. The
+   * stop times are by far the most numerous entities in a feed, and they are only read once by the
+   * mapper.
+   */
   private static class StoreImpl implements GenericMutableDao {
 
     private final GtfsMutableRelationalDao dao;
+    private final StagedStopTimes stopTimes = new StagedStopTimes();
 
     StoreImpl(GtfsMutableRelationalDao dao) {
       this.dao = dao;
@@ -463,7 +576,11 @@ public class GtfsModule implements GraphBuilderModule {
 
     @Override
     public void saveEntity(Object entity) {
-      dao.saveEntity(entity);
+      if (entity instanceof StopTime stopTime) {
+        stopTimes.add(stopTime);
+      } else {
+        dao.saveEntity(entity);
+      }
     }
 
     @Override
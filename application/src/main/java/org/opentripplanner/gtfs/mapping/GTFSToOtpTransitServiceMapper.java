@@ -8,6 +8,7 @@ import static org.onebusaway.gtfs.model.Stop.LOCATION_TYPE_STOP;
 
 import java.util.Collection;
 import java.util.function.Function;
+import javax.annotation.Nullable;
 import org.onebusaway.gtfs.services.GtfsRelationalDao;
 import org.opentripplanner.ext.fares.model.FareRulesData;
 import org.opentripplanner.framework.application.OTPFeature;
@@ -78,6 +79,9 @@ public class GTFSToOtpTransitServiceMapper {
 
   private final GtfsRelationalDao data;
 
+  @Nullable
+  private final StagedStopTimes stagedStopTimes;
+
   private final OtpTransitServiceBuilder builder;
 
   private final FareRulesData fareRulesBuilder = new FareRulesData();
@@ -92,6 +96,30 @@ public class GTFSToOtpTransitServiceMapper {
     boolean discardMinTransferTimes,
     GtfsRelationalDao data,
     StopTransferPriority stationTransferPreference
+  ) {
+    this(
+      builder,
+      feedId,
+      issueStore,
+      discardMinTransferTimes,
+      data,
+      null,
+      stationTransferPreference
+    );
+  }
+
+  /**
+   * @param stagedStopTimes The stop times of the feed, if they are staged outside the DAO. If
+   *                        {@code null} the stop times are read from the DAO.
+   */
+  public GTFSToOtpTransitServiceMapper(
+    OtpTransitServiceBuilder builder,
+    String feedId,
+    DataImportIssueStore issueStore,
+    boolean discardMinTransferTimes,
+    GtfsRelationalDao data,
+    @Nullable StagedStopTimes stagedStopTimes,
+    StopTransferPriority stationTransferPreference
   ) {
     this.issueStore = issueStore;
     this.builder = builder;
@@ -100,6 +128,7 @@ public class GTFSToOtpTransitServiceMapper {
     Function<FeedScopedId, RegularStop> stopLookup = id -> builder.getStops().get(id);
 
     this.data = data;
+    this.stagedStopTimes = stagedStopTimes;
     this.discardMinTransferTimes = discardMinTransferTimes;
     translationHelper = new TranslationHelper();
     feedInfoMapper = new FeedInfoMapper(feedId);
@@ -165,7 +194,13 @@ public class GTFSToOtpTransitServiceMapper {
     }
 
     builder.getPathways().addAll(pathwayMapper.map(data.getAllPathways()));
-    builder.getStopTimesSortedByTrip().addAll(stopTimeMapper.map(data.getAllStopTimes()));
+    builder
+      .getStopTimesSortedByTrip()
+      .addAll(
+        stagedStopTimes == null
+          ? stopTimeMapper.map(data.getAllStopTimes())
+          : stopTimeMapper.map(stagedStopTimes)
+      );
     builder.getFlexTimePenalty().putAll(tripMapper.flexSafeTimePenalties());
     builder.getTripsById().addAll(tripMapper.map(data.getAllTrips()));
 
@@ -0,0 +1,124 @@
+package org.opentripplanner.gtfs.mapping;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import org.onebusaway.gtfs.model.BookingRule;
+import org.onebusaway.gtfs.model.StopLocation;
+import org.onebusaway.gtfs.model.StopTime;
+import org.onebusaway.gtfs.model.Trip;
+
+/**
+ * A compact staging area for the GTFS stop times of a feed, used instead of keeping one
+ * {@link StopTime} entity for each row in the GTFS DAO.
+ * <p>
+ * The integer fields of all rows are packed into a single array, with {@link #INT_FIELDS} values
+ * for each row. The references to trips, stops and the optional text fields are kept in separate
+ * arrays, the referenced objects are shared with the DAO. The rows are kept in the order they are
+ * added, which is usually grouped by trip in the GTFS file.
+ */
+public class StagedStopTimes {
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private static final int ARRIVAL_TIME = 0;
+  private static final int DEPARTURE_TIME = 1;
+  private static final int TIMEPOINT = 2;
+  private static final int STOP_SEQUENCE = 3;
+  private static final int PICKUP_TYPE = 4;
+  private static final int DROP_OFF_TYPE = 5;
+  private static final int CONTINUOUS_PICKUP = 6;
+  private static final int CONTINUOUS_DROP_OFF = 7;
+  private static final int FLEX_WINDOW_START = 8;
+  private static final int FLEX_WINDOW_END = 9;
+  private static final int INT_FIELDS = 10;
+
+  private int size = 0;
+  private int[] values = new int[INITIAL_CAPACITY * INT_FIELDS];
+  private double[] shapeDistTraveled = new double[INITIAL_CAPACITY];
+  private Trip[] trips = new Trip[INITIAL_CAPACITY];
+  private StopLocation[] stops = new StopLocation[INITIAL_CAPACITY];
+  private String[] stopHeadsigns = new String[INITIAL_CAPACITY];
+  private String[] routeShortNames = new String[INITIAL_CAPACITY];
+  private String[] farePeriodIds = new String[INITIAL_CAPACITY];
+  private BookingRule[] pickupBookingRules = new BookingRule[INITIAL_CAPACITY];
+  private BookingRule[] dropOffBookingRules = new BookingRule[INITIAL_CAPACITY];
+
+  /**
+   * Copy the values of the stop time into the staging area, the stop time is not kept.
+   */
+  public void add(StopTime stopTime) {
+    if (stopTime.getProxy() != null) {
+      throw new IllegalStateException("Did not expect proxy to be set!");
+    }
+    if (size == trips.length) {
+      grow();
+    }
+    int offset = size * INT_FIELDS;
+    values[offset + ARRIVAL_TIME] = stopTime.getArrivalTime();
+    values[offset + DEPARTURE_TIME] = stopTime.getDepartureTime();
+    values[offset + TIMEPOINT] = stopTime.getTimepoint();
+    values[offset + STOP_SEQUENCE] = stopTime.getStopSequence();
+    values[offset + PICKUP_TYPE] = stopTime.getPickupType();
+    values[offset + DROP_OFF_TYPE] = stopTime.getDropOffType();
+    values[offset + CONTINUOUS_PICKUP] = stopTime.getContinuousPickup();
+    values[offset + CONTINUOUS_DROP_OFF] = stopTime.getContinuousDropOff();
+    values[offset + FLEX_WINDOW_START] = stopTime.getStartPickupDropOffWindow();
+    values[offset + FLEX_WINDOW_END] = stopTime.getEndPickupDropOffWindow();
+    shapeDistTraveled[size] = stopTime.getShapeDistTraveled();
+    trips[size] = stopTime.getTrip();
+    stops[size] = stopTime.getStopLocation();
+    stopHeadsigns[size] = stopTime.getStopHeadsign();
+    routeShortNames[size] = stopTime.getRouteShortName();
+    farePeriodIds[size] = stopTime.getFarePeriodId();
+    pickupBookingRules[size] = stopTime.getPickupBookingRule();
+    dropOffBookingRules[size] = stopTime.getDropOffBookingRule();
+    ++size;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Call the consumer for each row, in the order they were added. The same {@link StopTime}
+   * instance is reused for all rows, so the consumer must not keep a reference to it.
+   */
+  void forEach(Consumer<StopTime> consumer) {
+    var stopTime = new StopTime();
+    for (int i = 0; i < size; ++i) {
+      int offset = i * INT_FIELDS;
+      stopTime.setArrivalTime(values[offset + ARRIVAL_TIME]);
+      stopTime.setDepartureTime(values[offset + DEPARTURE_TIME]);
+      stopTime.setTimepoint(values[offset + TIMEPOINT]);
+      stopTime.setStopSequence(values[offset + STOP_SEQUENCE]);
+      stopTime.setPickupType(values[offset + PICKUP_TYPE]);
+      stopTime.setDropOffType(values[offset + DROP_OFF_TYPE]);
+      stopTime.setContinuousPickup(values[offset + CONTINUOUS_PICKUP]);
+      stopTime.setContinuousDropOff(values[offset + CONTINUOUS_DROP_OFF]);
+      stopTime.setStartPickupDropOffWindow(values[offset + FLEX_WINDOW_START]);
+      stopTime.setEndPickupDropOffWindow(values[offset + FLEX_WINDOW_END]);
+      stopTime.setShapeDistTraveled(shapeDistTraveled[i]);
+      stopTime.setTrip(trips[i]);
+      stopTime.setStop(stops[i]);
+      stopTime.setStopHeadsign(stopHeadsigns[i]);
+      stopTime.setRouteShortName(routeShortNames[i]);
+      stopTime.setFarePeriodId(farePeriodIds[i]);
+      stopTime.setPickupBookingRule(pickupBookingRules[i]);
+      stopTime.setDropOffBookingRule(dropOffBookingRules[i]);
+      consumer.accept(stopTime);
+    }
+  }
+
+  private void grow() {
+    int capacity = trips.length * 2;
+    values = Arrays.copyOf(values, capacity * INT_FIELDS);
+    shapeDistTraveled = Arrays.copyOf(shapeDistTraveled, capacity);
+    trips = Arrays.copyOf(trips, capacity);
+    stops = Arrays.copyOf(stops, capacity);
+    stopHeadsigns = Arrays.copyOf(stopHeadsigns, capacity);
+    routeShortNames = Arrays.copyOf(routeShortNames, capacity);
+    farePeriodIds = Arrays.copyOf(farePeriodIds, capacity);
+    pickupBookingRules = Arrays.copyOf(pickupBookingRules, capacity);
+    dropOffBookingRules = Arrays.copyOf(dropOffBookingRules, capacity);
+  }
+}
@@ -1,7 +1,9 @@
 package org.opentripplanner.gtfs.mapping;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import org.onebusaway.gtfs.model.Location;
@@ -49,6 +51,15 @@ class StopTimeMapper {
     return MapUtils.mapToList(times, this::map);
   }
 
+  /**
+   * Map all staged stop times. The staged rows are not cached, each row is mapped once.
+   */
+  Collection<StopTime> map(StagedStopTimes times) {
+    List<StopTime> result = new ArrayList<>(times.size());
+    times.forEach(it -> result.add(doMap(it)));
+    return result;
+  }
+
   /** Map from GTFS to OTP model, {@code null} safe. */
   StopTime map(org.onebusaway.gtfs.model.StopTime orginal) {
     return orginal == null ? null : mappedStopTimes.computeIfAbsent(orginal, this::doMap);
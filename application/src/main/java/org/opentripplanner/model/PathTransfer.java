@@ -2,6 +2,7 @@ package org.opentripplanner.model;
 
 import java.io.Serializable;
 import java.util.List;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.model.transfer.ConstrainedTransfer;
 import org.opentripplanner.street.model.edge.Edge;
@@ -25,13 +26,25 @@ public class PathTransfer implements Serializable {
 
   private final double distanceMeters;
 
+  /**
+   * The edges are copied to an immutable list rather than kept in the list returned by the street
+   * search. There are many transfers, and the list would waste memory on its unused capacity. The
+   * immutable list is backed by an array of the exact size, and is returned as is by
+   * {@link #getEdges()}.
+   */
+  @Nullable
   private final List<Edge> edges;
 
-  public PathTransfer(StopLocation from, StopLocation to, double distanceMeters, List<Edge> edges) {
+  public PathTransfer(
+    StopLocation from,
+    StopLocation to,
+    double distanceMeters,
+    @Nullable List<Edge> edges
+  ) {
     this.from = from;
     this.to = to;
     this.distanceMeters = distanceMeters;
-    this.edges = edges;
+    this.edges = edges == null ? null : List.copyOf(edges);
   }
 
   public String getName() {
@@ -42,8 +55,13 @@ public class PathTransfer implements Serializable {
     return distanceMeters;
   }
 
+  /**
+   * Return the immutable list of edges, or {@code null} if the transfer has no street path. The
+   * same list is returned on each call, so callers may keep it.
+   */
+  @Nullable
   public List<Edge> getEdges() {
-    return this.edges;
+    return edges;
   }
 
   @Override
@@ -53,7 +71,7 @@ public class PathTransfer implements Serializable {
       .addObj("from", from)
       .addObj("to", to)
       .addNum("distance", distanceMeters)
-      .addColSize("edges", edges)
+      .addColSize("edges", getEdges())
       .toString();
   }
 }
@@ -17,6 +17,7 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -62,11 +63,19 @@ public class Timetable implements Serializable {
   @Nullable
   private final LocalDate serviceDate;
 
+  /**
+   * The index of each trip in {@link #tripTimes}, built the first time a trip is looked up. It is
+   * not serialized, and it is rebuilt if a copy of this timetable has the trips in another order.
+   */
+  @Nullable
+  private transient volatile TripIndex tripIndex;
+
   Timetable(TimetableBuilder timetableBuilder) {
     this.pattern = timetableBuilder.getPattern();
     this.serviceDate = timetableBuilder.getServiceDate();
     this.tripTimes = timetableBuilder.createImmutableOrderedListOfTripTimes();
     this.frequencyEntries = List.copyOf(timetableBuilder.getFrequencies());
+    this.tripIndex = TripIndex.reuse(timetableBuilder.getOriginal(), tripTimes);
   }
 
   /** Construct an empty Timetable. */
@@ -83,16 +92,7 @@ public class Timetable implements Serializable {
 
   /** @return the index of TripTimes for this trip ID in this particular Timetable */
   public int getTripIndex(FeedScopedId tripId) {
-    int ret = 0;
-    for (TripTimes tt : tripTimes) {
-      // could replace linear search with indexing in stoptime updater, but not necessary
-      // at this point since the updater thread is far from pegged.
-      if (tt.getTrip().getId().equals(tripId)) {
-        return ret;
-      }
-      ret += 1;
-    }
-    return -1;
+    return tripIndex().byId.getOrDefault(tripId, -1);
   }
 
   /**
@@ -100,14 +100,7 @@ public class Timetable implements Serializable {
    * AgencyIds.
    */
   public int getTripIndex(String tripId) {
-    int ret = 0;
-    for (TripTimes tt : tripTimes) {
-      if (tt.getTrip().getId().getId().equals(tripId)) {
-        return ret;
-      }
-      ret += 1;
-    }
-    return -1;
+    return tripIndex().byIdIgnoringFeed.getOrDefault(tripId, -1);
   }
 
   public TripTimes getTripTimes(int tripIndex) {
@@ -116,21 +109,13 @@ public class Timetable implements Serializable {
 
   @Nullable
   public TripTimes getTripTimes(Trip trip) {
-    for (TripTimes tt : tripTimes) {
-      if (tt.getTrip() == trip) {
-        return tt;
-      }
-    }
-    return null;
+    var tt = getTripTimes(trip.getId());
+    return tt != null && tt.getTrip() == trip ? tt : null;
   }
 
   public TripTimes getTripTimes(FeedScopedId tripId) {
-    for (TripTimes tt : tripTimes) {
-      if (tt.getTrip().getId().equals(tripId)) {
-        return tt;
-      }
-    }
-    return null;
+    int index = getTripIndex(tripId);
+    return index == -1 ? null : tripTimes.get(index);
   }
 
   /**
@@ -447,6 +432,19 @@ public class Timetable implements Serializable {
     return serviceDate != null;
   }
 
+  /**
+   * Two threads may build the index at the same time, but they build the same immutable index, so
+   * it does not matter which one is kept.
+   */
+  private TripIndex tripIndex() {
+    var index = tripIndex;
+    if (index == null) {
+      index = new TripIndex(tripTimes);
+      tripIndex = index;
+    }
+    return index;
+  }
+
   /**
    * The direction for the given collections of trip times.
    * The method assumes that all trip times have the same directions and picks up one arbitrarily.
@@ -483,4 +481,51 @@ public class Timetable implements Serializable {
       return null;
     }
   }
+
+  /** The index of each trip in the trip times of a timetable, by trip id. */
+  private static final class TripIndex {
+
+    private final Map<FeedScopedId, Integer> byId;
+
+    /**
+     * Trips from different feeds may have the same id, the first trip is indexed to do the same as
+     * a search from the start of the list.
+     */
+    private final Map<String, Integer> byIdIgnoringFeed;
+
+    private TripIndex(List<TripTimes> tripTimes) {
+      var byId = new HashMap<FeedScopedId, Integer>();
+      var byIdIgnoringFeed = new HashMap<String, Integer>();
+      for (int i = 0; i < tripTimes.size(); ++i) {
+        var id = tripTimes.get(i).getTrip().getId();
+        byId.putIfAbsent(id, i);
+        byIdIgnoringFeed.putIfAbsent(id.getId(), i);
+      }
+      this.byId = Map.copyOf(byId);
+      this.byIdIgnoringFeed = Map.copyOf(byIdIgnoringFeed);
+    }
+
+    /**
+     * Return the index of the original timetable if it has the same trips in the same order as the
+     * given trip times. This is the case when a real-time update does not change the order of the
+     * trips, so the index does not need to be rebuilt for each update.
+     */
+    @Nullable
+    private static TripIndex reuse(@Nullable Timetable original, List<TripTimes> tripTimes) {
+      var index = original == null ? null : original.tripIndex;
+      if (index == null) {
+        return null;
+      }
+      var originalTripTimes = original.tripTimes;
+      if (originalTripTimes.size() != tripTimes.size()) {
+        return null;
+      }
+      for (int i = 0; i < tripTimes.size(); ++i) {
+        if (originalTripTimes.get(i).getTrip() != tripTimes.get(i).getTrip()) {
+          return null;
+        }
+      }
+      return index;
+    }
+  }
 }
@@ -7,6 +7,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.UnaryOperator;
+import javax.annotation.Nullable;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.timetable.Direction;
@@ -20,9 +21,16 @@ public class TimetableBuilder {
   private final Map<FeedScopedId, TripTimes> tripTimes = new HashMap<>();
   private final List<FrequencyEntry> frequencies = new ArrayList<>();
 
-  TimetableBuilder() {}
+  /** The timetable this builder is a copy of, the new timetable may reuse its trip index. */
+  @Nullable
+  private final Timetable original;
+
+  TimetableBuilder() {
+    this.original = null;
+  }
 
   TimetableBuilder(Timetable tt) {
+    original = tt;
     pattern = tt.getPattern();
     serviceDate = tt.getServiceDate();
     frequencies.addAll(tt.getFrequencyEntries());
@@ -130,6 +138,11 @@ public class TimetableBuilder {
     return serviceDate;
   }
 
+  @Nullable
+  Timetable getOriginal() {
+    return original;
+  }
+
   List<FrequencyEntry> getFrequencies() {
     return frequencies;
   }
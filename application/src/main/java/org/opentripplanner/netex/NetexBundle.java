@@ -1,11 +1,19 @@
 package org.opentripplanner.netex;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import jakarta.xml.bind.JAXBException;
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.opentripplanner.datastore.api.CompositeDataSource;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
@@ -33,12 +41,24 @@ import org.slf4j.LoggerFactory;
  * keeping an index of entities to enable linking. The convention is documented here {@link
  * NetexFeedParameters#sharedFilePattern()} and here {@link NetexDataSourceHierarchy}.
  * <p>
+ * The XML documents are parsed in parallel, ahead of the entry being processed. Each document is
+ * still added to the index, validated and mapped in the order of the entries, so the result is the
+ * same as when parsing one document at a time.
+ * <p>
  * This class is also responsible for logging progress and exception handling.
  */
 public class NetexBundle implements Closeable {
 
   private static final Logger LOG = LoggerFactory.getLogger(NetexBundle.class);
 
+  private static final int PARSER_THREADS = Math.max(
+    1,
+    Runtime.getRuntime().availableProcessors() - 1
+  );
+
+  /** Limit the number of parsed documents waiting to be processed, they can be large */
+  private static final int MAX_PENDING_DOCUMENTS = 2 * PARSER_THREADS;
+
   private final CompositeDataSource source;
 
   private final NetexDataSourceHierarchy hierarchy;
@@ -56,7 +76,11 @@ public class NetexBundle implements Closeable {
   private DataImportIssueStore issueStore;
   /** maps the NeTEx XML document to OTP transit model. */
   private NetexMapper mapper;
-  private NetexXmlParser xmlParser;
+  /** Parse the XML documents in the background, with one parser for each thread. */
+  private ExecutorService parserPool;
+  private final ThreadLocal<NetexXmlParser> xmlParser = ThreadLocal.withInitial(
+    NetexXmlParser::new
+  );
 
   public NetexBundle(
     String feedId,
@@ -89,8 +113,7 @@ public class NetexBundle implements Closeable {
 
     this.issueStore = issueStore;
 
-    // init parser and mapper
-    xmlParser = new NetexXmlParser();
+    // init mapper
     mapper =
       new NetexMapper(
         transitBuilder,
@@ -124,23 +147,37 @@ public class NetexBundle implements Closeable {
 
   /** Load all files entries in the bundle */
   private void loadFileEntries() {
-    // Load global shared files
-    loadFilesThenMapToTimetableRepository("shared file", hierarchy.sharedEntries());
-
-    for (GroupEntries group : hierarchy.groups()) {
-      LOG.info("reading group {}", group.name());
-
-      scopeInputData(() -> {
-        // Load shared group files
-        loadFilesThenMapToTimetableRepository("shared group file", group.sharedEntries());
-
-        for (DataSource entry : group.independentEntries()) {
-          scopeInputData(() -> {
-            // Load each independent file in group
-            loadFilesThenMapToTimetableRepository("group file", List.of(entry));
-          });
-        }
-      });
+    parserPool =
+      Executors.newFixedThreadPool(
+        PARSER_THREADS,
+        new ThreadFactoryBuilder().setNameFormat("netex-parser-%d").setDaemon(true).build()
+      );
+    try {
+      // Load global shared files
+      loadFilesThenMapToTimetableRepository("shared file", hierarchy.sharedEntries());
+
+      for (GroupEntries group : hierarchy.groups()) {
+        LOG.info("reading group {}", group.name());
+
+        scopeInputData(() -> {
+          // Load shared group files
+          loadFilesThenMapToTimetableRepository("shared group file", group.sharedEntries());
+
+          // Parse the independent files ahead, while the previous ones are mapped
+          var entries = List.copyOf(group.independentEntries());
+          var documents = new ParsedDocuments(entries);
+          for (DataSource entry : entries) {
+            var document = documents.next();
+            scopeInputData(() -> {
+              // Load each independent file in group
+              loadSingeFileEntry("group file", entry, document);
+              validateAndMapToTimetableRepository();
+            });
+          }
+        });
+      }
+    } finally {
+      parserPool.shutdownNow();
     }
     mapper.finishUp();
     NetexDocumentParser.finishUp();
@@ -168,11 +205,16 @@ public class NetexBundle implements Closeable {
     String fileDescription,
     Iterable<DataSource> entries
   ) {
-    for (DataSource entry : entries) {
+    var list = ImmutableList.copyOf(entries);
+    var documents = new ParsedDocuments(list);
+    for (DataSource entry : list) {
       // Load entry and store it in the index
-      loadSingeFileEntry(fileDescription, entry);
+      loadSingeFileEntry(fileDescription, entry, documents.next());
     }
+    validateAndMapToTimetableRepository();
+  }
 
+  private void validateAndMapToTimetableRepository() {
     // Validate input data, and remove invalid data
     Validator.validate(index, issueStore);
 
@@ -180,17 +222,51 @@ public class NetexBundle implements Closeable {
     mapper.mapNetexToOtp(index.readOnlyView());
   }
 
-  /** Load a single entry and store it in the index for later */
-  private void loadSingeFileEntry(String fileDescription, DataSource entry) {
+  /** Load a single parsed entry and store it in the index for later */
+  private void loadSingeFileEntry(
+    String fileDescription,
+    DataSource entry,
+    Future<PublicationDeliveryStructure> document
+  ) {
     try {
       LOG.info("reading entity {}: {}", fileDescription, entry.name());
       issueStore.startProcessingSource(entry.name());
-      PublicationDeliveryStructure doc = xmlParser.parseXmlDoc(entry.asInputStream());
+      PublicationDeliveryStructure doc = document.get();
       NetexDocumentParser.parseAndPopulateIndex(index, doc, ignoredFeatures);
-    } catch (JAXBException e) {
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
       throw new RuntimeException(e.getMessage(), e);
     } finally {
       issueStore.stopProcessingSource();
     }
   }
+
+  private PublicationDeliveryStructure parseXmlDoc(DataSource entry) throws JAXBException {
+    return xmlParser.get().parseXmlDoc(entry.asInputStream());
+  }
+
+  /**
+   * Submit the entries to the parser pool in order, and return the parsed documents in the same
+   * order. At most {@link #MAX_PENDING_DOCUMENTS} are parsed ahead of the one returned.
+   */
+  private final class ParsedDocuments {
+
+    private final List<DataSource> entries;
+    private final Deque<Future<PublicationDeliveryStructure>> pending = new ArrayDeque<>();
+    private int nextToSubmit = 0;
+
+    private ParsedDocuments(List<DataSource> entries) {
+      this.entries = entries;
+    }
+
+    Future<PublicationDeliveryStructure> next() {
+      while (nextToSubmit < entries.size() && pending.size() <= MAX_PENDING_DOCUMENTS) {
+        var entry = entries.get(nextToSubmit++);
+        pending.addLast(parserPool.submit(() -> parseXmlDoc(entry)));
+      }
+      return pending.removeFirst();
+    }
+  }
 }
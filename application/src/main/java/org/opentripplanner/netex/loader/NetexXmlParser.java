@@ -7,9 +7,16 @@ import jakarta.xml.bind.Unmarshaller;
 import java.io.InputStream;
 import org.rutebanken.netex.model.PublicationDeliveryStructure;
 
-/** Simple wrapper to perform typesafe xml parsing and simple error handling. */
+/**
+ * Simple wrapper to perform typesafe xml parsing and simple error handling.
+ * <p>
+ * A parser is not thread-safe, use one parser for each thread. The JAXB context is thread-safe and
+ * expensive to create, so it is shared by all parsers.
+ */
 public class NetexXmlParser {
 
+  private static final JAXBContext CONTEXT = createContext();
+
   /** used to parse the XML. */
   private final Unmarshaller unmarshaller;
 
@@ -32,7 +39,7 @@ public class NetexXmlParser {
   /** factory method for unmarshaller */
   private static Unmarshaller createUnmarshaller() {
     try {
-      return JAXBContext.newInstance(PublicationDeliveryStructure.class).createUnmarshaller();
+      return CONTEXT.createUnmarshaller();
     } catch (JAXBException e) {
       // This is a programming error - not expected!
       // We abort early and also allow for this to happen in the constructor;
@@ -40,4 +47,14 @@ public class NetexXmlParser {
       throw new RuntimeException(e);
     }
   }
+
+  /** factory method for the shared context */
+  private static JAXBContext createContext() {
+    try {
+      return JAXBContext.newInstance(PublicationDeliveryStructure.class);
+    } catch (JAXBException e) {
+      // This is a programming error - not expected!
+      throw new RuntimeException(e);
+    }
+  }
 }
@@ -1,34 +1,53 @@
 package org.opentripplanner.osm;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
 import org.openstreetmap.osmosis.osmbinary.BinaryParser;
 import org.openstreetmap.osmosis.osmbinary.Osmformat;
-import org.opentripplanner.graph_builder.module.osm.OsmDatabase;
+import org.openstreetmap.osmosis.osmbinary.file.FileBlock;
 import org.opentripplanner.osm.model.OsmMemberType;
 import org.opentripplanner.osm.model.OsmNode;
 import org.opentripplanner.osm.model.OsmRelation;
 import org.opentripplanner.osm.model.OsmRelationMember;
 import org.opentripplanner.osm.model.OsmTag;
 import org.opentripplanner.osm.model.OsmWay;
+import org.opentripplanner.osm.model.OsmWithTags;
 
 /**
  * Parser for the OpenStreetMap PBF Format.
+ * <p>
+ * The parser decodes a single file block into the entities of the current phase. Blocks are
+ * independent of each other, so several blocks can be decoded in parallel, each with its own
+ * parser instance. Only the string table is shared.
  *
  * @since 0.4
  */
 class OsmParser extends BinaryParser {
 
-  private final OsmDatabase osmdb;
-  private final Map<String, String> stringTable = new HashMap<>();
+  private final ConcurrentMap<String, String> stringTable;
   private final OsmProvider provider;
-  private OsmParserPhase parsePhase;
-
-  public OsmParser(OsmDatabase osmdb, OsmProvider provider) {
-    this.osmdb = Objects.requireNonNull(osmdb);
+  private final OsmParserPhase parsePhase;
+  private final List<OsmWithTags> entities = new ArrayList<>();
+
+  public OsmParser(
+    OsmProvider provider,
+    OsmParserPhase parsePhase,
+    ConcurrentMap<String, String> stringTable
+  ) {
     this.provider = Objects.requireNonNull(provider);
+    this.parsePhase = Objects.requireNonNull(parsePhase);
+    this.stringTable = Objects.requireNonNull(stringTable);
+  }
+
+  /**
+   * Inflate and decode the block, and return the entities of the current phase in the order they
+   * appear in the block.
+   */
+  public List<OsmWithTags> decode(FileBlock block) {
+    handleBlock(block);
+    return entities;
   }
 
   // The strings are already being pulled from a string table in the PBF file,
@@ -36,12 +55,8 @@ class OsmParser extends BinaryParser {
   // String.intern grinds to a halt on large PBF files (as it did on GTFS import), so
   // we implement our own.
   public String internalize(String s) {
-    String fromTable = stringTable.get(s);
-    if (fromTable == null) {
-      stringTable.put(s, s);
-      return s;
-    }
-    return fromTable;
+    String fromTable = stringTable.putIfAbsent(s, s);
+    return fromTable == null ? s : fromTable;
   }
 
   @Override
@@ -49,13 +64,6 @@ class OsmParser extends BinaryParser {
     // Jump in circles
   }
 
-  /**
-   * Set the phase to be parsed
-   */
-  public void setPhase(OsmParserPhase phase) {
-    this.parsePhase = phase;
-  }
-
   @Override
   protected void parseRelations(List<Osmformat.Relation> rels) {
     if (parsePhase != OsmParserPhase.Relations) {
@@ -99,7 +107,7 @@ class OsmParser extends BinaryParser {
         tmp.addMember(relMember);
       }
 
-      osmdb.addRelation(tmp);
+      entities.add(tmp);
     }
   }
 
@@ -144,7 +152,7 @@ class OsmParser extends BinaryParser {
         j++; // Skip over the '0' delimiter.
       }
 
-      osmdb.addNode(tmp);
+      entities.add(tmp);
     }
   }
 
@@ -171,7 +179,7 @@ class OsmParser extends BinaryParser {
         tmp.addTag(tag);
       }
 
-      osmdb.addNode(tmp);
+      entities.add(tmp);
     }
   }
 
@@ -201,7 +209,7 @@ class OsmParser extends BinaryParser {
         lastId = j + lastId;
       }
 
-      osmdb.addWay(tmp);
+      entities.add(tmp);
     }
   }
 
@@ -1,11 +1,24 @@
 package org.opentripplanner.osm;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.ZoneId;
-import org.openstreetmap.osmosis.osmbinary.file.BlockInputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.openstreetmap.osmosis.osmbinary.file.BlockReaderAdapter;
+import org.openstreetmap.osmosis.osmbinary.file.FileBlock;
+import org.openstreetmap.osmosis.osmbinary.file.FileBlockPosition;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.datastore.api.FileType;
 import org.opentripplanner.datastore.file.FileDataSource;
@@ -14,6 +27,10 @@ import org.opentripplanner.framework.logging.ProgressTracker;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.module.osm.OsmDatabase;
+import org.opentripplanner.osm.model.OsmNode;
+import org.opentripplanner.osm.model.OsmRelation;
+import org.opentripplanner.osm.model.OsmWay;
+import org.opentripplanner.osm.model.OsmWithTags;
 import org.opentripplanner.osm.tagmapping.OsmTagMapper;
 import org.opentripplanner.osm.tagmapping.OsmTagMapperSource;
 import org.opentripplanner.osm.wayproperty.WayPropertySet;
@@ -22,12 +39,21 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Parser for the OpenStreetMap PBF format. Parses files in three passes: First the relations, then
- * the ways, then the nodes are also loaded.
+ * the ways, then the nodes are also loaded. In each pass the file blocks are inflated and decoded
+ * in parallel, while the entities are added to the {@link OsmDatabase} in file order.
  */
 public class OsmProvider {
 
   private static final Logger LOG = LoggerFactory.getLogger(OsmProvider.class);
 
+  private static final int DECODER_THREADS = Math.max(
+    1,
+    Runtime.getRuntime().availableProcessors() - 1
+  );
+
+  /** Each decoded block holds up to 8000 entities */
+  private static final int MAX_PENDING_BLOCKS = 4 * DECODER_THREADS;
+
   private final DataSource source;
   private final boolean cacheDataInMem;
 
@@ -67,19 +93,25 @@ public class OsmProvider {
   }
 
   public void readOsm(OsmDatabase osmdb) {
+    ExecutorService executor = Executors.newFixedThreadPool(
+      DECODER_THREADS,
+      new ThreadFactoryBuilder().setNameFormat("osm-decoder-%d").setDaemon(true).build()
+    );
     try {
-      OsmParser parser = new OsmParser(osmdb, this);
+      ConcurrentMap<String, String> stringTable = new ConcurrentHashMap<>();
 
-      parsePhase(parser, OsmParserPhase.Relations);
+      parsePhase(osmdb, OsmParserPhase.Relations, stringTable, executor);
       osmdb.doneFirstPhaseRelations();
 
-      parsePhase(parser, OsmParserPhase.Ways);
+      parsePhase(osmdb, OsmParserPhase.Ways, stringTable, executor);
       osmdb.doneSecondPhaseWays();
 
-      parsePhase(parser, OsmParserPhase.Nodes);
+      parsePhase(osmdb, OsmParserPhase.Nodes, stringTable, executor);
       osmdb.doneThirdPhaseNodes();
     } catch (Exception ex) {
       throw new IllegalStateException("error loading OSM from path " + source.path(), ex);
+    } finally {
+      executor.shutdownNow();
     }
   }
 
@@ -105,20 +137,60 @@ public class OsmProvider {
     return ProgressTracker.track("Parse OSM " + phase, 1000, size, inputStream, m -> LOG.info(m));
   }
 
-  private void parsePhase(OsmParser parser, OsmParserPhase phase) throws IOException {
-    parser.setPhase(phase);
-    BlockInputStream in = null;
-    try {
-      in = new BlockInputStream(createInputStream(phase), parser);
-      in.process();
-    } finally {
-      // Close
+  /**
+   * Read the file blocks in order on the calling thread, and inflate and decode them on the
+   * executor. The entities are added to the database on the calling thread, in the order of the
+   * blocks, so the result is the same as when decoding the blocks one by one.
+   */
+  private void parsePhase(
+    OsmDatabase osmdb,
+    OsmParserPhase phase,
+    ConcurrentMap<String, String> stringTable,
+    ExecutorService executor
+  ) throws IOException, InterruptedException, ExecutionException {
+    Deque<Future<List<OsmWithTags>>> pending = new ArrayDeque<>();
+    try (InputStream in = createInputStream(phase)) {
+      var reader = new BlockReaderAdapter() {
+        @Override
+        public boolean skipBlock(FileBlockPosition block) {
+          return !(block.getType().equals("OSMData") || block.getType().equals("OSMHeader"));
+        }
+
+        @Override
+        public void handleBlock(FileBlock block) {
+          var parser = new OsmParser(OsmProvider.this, phase, stringTable);
+          pending.add(executor.submit(() -> parser.decode(block)));
+        }
+
+        @Override
+        public void complete() {}
+      };
       try {
-        if (in != null) {
-          in.close();
+        while (true) {
+          FileBlock.process(in, reader);
+          // Limit the number of decoded blocks waiting in memory
+          while (pending.size() > MAX_PENDING_BLOCKS) {
+            addToDatabase(osmdb, pending.removeFirst().get());
+          }
         }
-      } catch (Exception e) {
-        LOG.error(e.getMessage(), e);
+      } catch (EOFException e) {
+        // End of file
+      }
+      while (!pending.isEmpty()) {
+        addToDatabase(osmdb, pending.removeFirst().get());
+      }
+    } finally {
+      pending.forEach(it -> it.cancel(true));
+    }
+  }
+
+  private static void addToDatabase(OsmDatabase osmdb, List<OsmWithTags> entities) {
+    for (OsmWithTags entity : entities) {
+      switch (entity) {
+        case OsmNode node -> osmdb.addNode(node);
+        case OsmWay way -> osmdb.addWay(way);
+        case OsmRelation relation -> osmdb.addRelation(relation);
+        default -> throw new IllegalStateException("Unexpected OSM entity: " + entity);
       }
     }
   }
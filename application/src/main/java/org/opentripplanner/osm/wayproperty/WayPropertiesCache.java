@@ -0,0 +1,160 @@
+package org.opentripplanner.osm.wayproperty;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.opentripplanner.osm.model.OsmWithTags;
+import org.opentripplanner.osm.wayproperty.specifier.OsmSpecifier;
+
+/**
+ * A cache of the properties resolved by {@link WayPropertySet#getDataForWay(OsmWithTags)}. The
+ * resolution evaluates every specifier and mixin against the tags of the way, but most ways in a
+ * street network share the same set of relevant tags with many other ways.
+ * <p>
+ * The cache is keyed on the type of the entity and its tags, without the tags that only describe
+ * the entity, like names and sources. Descriptive tags which are read by a specifier are kept in
+ * the key. The default safety functions of a tag mapper are assumed not to read descriptive tags.
+ */
+final class WayPropertiesCache {
+
+  private static final int MAXIMUM_SIZE = 100_000;
+
+  /** Keys of tags which only describe an entity, and are not used to resolve its properties. */
+  private static final Set<String> DESCRIPTIVE_KEYS = Set.of(
+    "name",
+    "alt_name",
+    "old_name",
+    "official_name",
+    "loc_name",
+    "short_name",
+    "int_name",
+    "nat_name",
+    "reg_name",
+    "description",
+    "note",
+    "fixme",
+    "source",
+    "wikidata",
+    "wikipedia",
+    "created_by",
+    "check_date",
+    "mapillary",
+    "website"
+  );
+
+  /** Prefixes of tag keys which only describe an entity. */
+  private static final List<String> DESCRIPTIVE_KEY_PREFIXES = List.of(
+    "name:",
+    "alt_name:",
+    "old_name:",
+    "official_name:",
+    "note:",
+    "source:",
+    "tiger:",
+    "wikipedia:",
+    "check_date:"
+  );
+
+  /** The descriptive keys which are read by a specifier, and must be part of the cache key. */
+  private final Set<String> specifierKeys = new HashSet<>();
+
+  private final Cache<Key, Entry> cache = CacheBuilder
+    .newBuilder()
+    .maximumSize(MAXIMUM_SIZE)
+    .recordStats()
+    .build();
+
+  /**
+   * Return the cached entry for ways with the same relevant tags as the given way, or resolve
+   * and cache it.
+   */
+  Entry getOrResolve(OsmWithTags way, Function<OsmWithTags, Entry> resolver) {
+    var key = new Key(way.getClass(), relevantTags(way));
+    var entry = cache.getIfPresent(key);
+    if (entry == null) {
+      entry = resolver.apply(way);
+      cache.put(key, entry);
+    }
+    return entry;
+  }
+
+  /**
+   * Make sure the tags read by the specifier are part of the key, and remove all entries. This
+   * must be called when a specifier is added.
+   */
+  void addSpecifier(OsmSpecifier specifier) {
+    for (String key : specifier.tagKeys()) {
+      if (isDescriptiveKey(key)) {
+        specifierKeys.add(key);
+      }
+    }
+    clear();
+  }
+
+  /**
+   * Remove all entries. This must be called when the rules used to resolve the properties change.
+   */
+  void clear() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * A summary of the number of lookups, the hit rate and the number of distinct tag sets.
+   */
+  String summary() {
+    var stats = cache.stats();
+    return String.format(
+      Locale.ROOT,
+      "%d lookups, %.1f%% hits, %d distinct tag sets",
+      stats.requestCount(),
+      stats.hitRate() * 100,
+      cache.size()
+    );
+  }
+
+  private static boolean isDescriptiveKey(String key) {
+    if (DESCRIPTIVE_KEYS.contains(key)) {
+      return true;
+    }
+    for (String prefix : DESCRIPTIVE_KEY_PREFIXES) {
+      if (key.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Map<String, String> relevantTags(OsmWithTags way) {
+    var tags = way.getTags();
+    var result = new HashMap<String, String>(tags.size() * 2);
+    for (var it : tags.entrySet()) {
+      if (isRelevantKey(it.getKey())) {
+        result.put(it.getKey(), it.getValue());
+      }
+    }
+    return result;
+  }
+
+  private boolean isRelevantKey(String key) {
+    if (!isDescriptiveKey(key) || specifierKeys.contains(key)) {
+      return true;
+    }
+    // Conditions also read the key with a suffix, like 'name:left'
+    int colon = key.indexOf(':');
+    return colon > 0 && specifierKeys.contains(key.substring(0, colon));
+  }
+
+  /**
+   * The resolved properties, and the invalid car speed limits found while resolving them. Ways
+   * with the same tags have the same invalid speed limits, so they are reported for each way.
+   */
+  record Entry(WayProperties properties, List<Float> invalidCarSpeeds) {}
+
+  private record Key(Class<?> type, Map<String, String> tags) {}
+}
@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.opentripplanner.framework.functional.FunctionUtils.TriFunction;
@@ -70,6 +71,8 @@ public class WayPropertySet {
   /** The WayProperties applied to all ways that do not match any WayPropertyPicker. */
   private final WayProperties defaultProperties;
   private final DataImportIssueStore issueStore;
+  /** The resolved properties for each distinct set of tags, see {@link #getDataForWay}. */
+  private final WayPropertiesCache dataForWayCache = new WayPropertiesCache();
 
   public List<MixinProperties> getMixins() {
     return mixins;
@@ -106,6 +109,21 @@ public class WayPropertySet {
    * that are mixins will have their safety values applied if they match at all.
    */
   public WayProperties getDataForWay(OsmWithTags way) {
+    var data = dataForWayCache.getOrResolve(way, this::resolveDataForWay);
+    for (Float speed : data.invalidCarSpeeds()) {
+      reportInvalidCarSpeed(way, speed);
+    }
+    return data.properties();
+  }
+
+  /**
+   * A summary of how often {@link #getDataForWay(OsmWithTags)} found the properties in the cache.
+   */
+  public String dataForWayCacheSummary() {
+    return dataForWayCache.summary();
+  }
+
+  private WayPropertiesCache.Entry resolveDataForWay(OsmWithTags way) {
     WayProperties backwardResult = defaultProperties;
     WayProperties forwardResult = defaultProperties;
     int bestBackwardScore = 0;
@@ -136,8 +154,9 @@ public class WayPropertySet {
       }
     }
 
-    float forwardSpeed = getCarSpeedForWay(way, false);
-    float backSpeed = getCarSpeedForWay(way, true);
+    List<Float> invalidCarSpeeds = new ArrayList<>(0);
+    float forwardSpeed = getCarSpeedForWay(way, false, invalidCarSpeeds::add);
+    float backSpeed = getCarSpeedForWay(way, true, invalidCarSpeeds::add);
 
     var permission = way.overridePermissions(forwardResult.getPermission());
 
@@ -184,7 +203,7 @@ public class WayPropertySet {
       String all_tags = dumpTags(way);
       LOG.debug("Used default permissions: {}", all_tags);
     }
-    return result;
+    return new WayPropertiesCache.Entry(result, List.copyOf(invalidCarSpeeds));
   }
 
   public I18NString getCreativeNameForWay(OsmWithTags way) {
@@ -209,6 +228,14 @@ public class WayPropertySet {
    * Calculate the automobile speed, in meters per second, for this way.
    */
   public float getCarSpeedForWay(OsmWithTags way, boolean backward) {
+    return getCarSpeedForWay(way, backward, speed -> reportInvalidCarSpeed(way, speed));
+  }
+
+  private float getCarSpeedForWay(
+    OsmWithTags way,
+    boolean backward,
+    Consumer<Float> invalidSpeedHandler
+  ) {
     // first, check for maxspeed tags
     Float speed = null;
     Float currentSpeed;
@@ -244,15 +271,7 @@ public class WayPropertySet {
       // we use default speed limits for the way type in that case.
       // The small epsilon is to account for possible rounding errors.
       if (speed < 1.387 || speed > maxPossibleCarSpeed + 0.0001) {
-        var id = way.getId();
-        var link = way.url();
-        issueStore.add(
-          "InvalidCarSpeedLimit",
-          "OSM object with id '%s' (%s) has an invalid maxspeed value (%f), that speed will be ignored",
-          id,
-          link,
-          speed
-        );
+        invalidSpeedHandler.accept(speed);
       } else {
         if (speed > maxUsedCarSpeed) {
           maxUsedCarSpeed = speed;
@@ -288,6 +307,16 @@ public class WayPropertySet {
     }
   }
 
+  private void reportInvalidCarSpeed(OsmWithTags way, float speed) {
+    issueStore.add(
+      "InvalidCarSpeedLimit",
+      "OSM object with id '%s' (%s) has an invalid maxspeed value (%f), that speed will be ignored",
+      way.getId(),
+      way.url(),
+      speed
+    );
+  }
+
   public Set<StreetNoteAndMatcher> getNoteForWay(OsmWithTags way) {
     HashSet<StreetNoteAndMatcher> out = new HashSet<>();
     for (NotePicker picker : notes) {
@@ -316,10 +345,12 @@ public class WayPropertySet {
 
   public void addMixin(MixinProperties mixin) {
     mixins.add(mixin);
+    dataForWayCache.addSpecifier(mixin.specifier());
   }
 
   public void addProperties(OsmSpecifier spec, WayProperties properties) {
     wayProperties.add(new WayPropertyPicker(spec, properties));
+    dataForWayCache.addSpecifier(spec);
   }
 
   public void addCreativeNamer(OsmSpecifier spec, CreativeNamer namer) {
@@ -358,6 +389,7 @@ public class WayPropertySet {
 
   public void addSpeedPicker(SpeedPicker picker) {
     this.speedPickers.add(picker);
+    dataForWayCache.addSpecifier(picker.specifier);
   }
 
   public Float getMetersSecondFromSpeed(String speed) {
@@ -424,6 +456,7 @@ public class WayPropertySet {
       throw new IllegalStateException("A custom default walk safety resolver was already set");
     }
     this.defaultWalkSafetyForPermission = defaultWalkSafetyForPermission;
+    dataForWayCache.clear();
   }
 
   /**
@@ -437,6 +470,7 @@ public class WayPropertySet {
       throw new IllegalStateException("A custom default cycling safety resolver was already set");
     }
     this.defaultBicycleSafetyForPermission = defaultBicycleSafetyForPermission;
+    dataForWayCache.clear();
   }
 
   public void setMixinProperties(OsmSpecifier spec, MixinPropertiesBuilder builder) {
@@ -1,6 +1,7 @@
 package org.opentripplanner.osm.wayproperty.specifier;
 
 import java.util.Arrays;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.osm.model.OsmWithTags;
@@ -79,6 +80,11 @@ public class BestMatchSpecifier implements OsmSpecifier {
     return Arrays.stream(conditions).map(Object::toString).collect(Collectors.joining("; "));
   }
 
+  @Override
+  public Set<String> tagKeys() {
+    return Arrays.stream(conditions).map(Condition::key).collect(Collectors.toSet());
+  }
+
   @Override
   public String toString() {
     return ToStringBuilder.of(this.getClass()).addObj("conditions", conditions).toString();
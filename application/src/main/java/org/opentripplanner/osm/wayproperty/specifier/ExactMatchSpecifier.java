@@ -2,6 +2,7 @@ package org.opentripplanner.osm.wayproperty.specifier;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.opentripplanner.osm.model.OsmWithTags;
 
@@ -60,6 +61,11 @@ public class ExactMatchSpecifier implements OsmSpecifier {
     return conditions.stream().map(Object::toString).collect(Collectors.joining("; "));
   }
 
+  @Override
+  public Set<String> tagKeys() {
+    return conditions.stream().map(Condition::key).collect(Collectors.toSet());
+  }
+
   public boolean allTagsMatch(OsmWithTags way) {
     return conditions.stream().allMatch(o -> o.isMatch(way));
   }
@@ -2,6 +2,7 @@ package org.opentripplanner.osm.wayproperty.specifier;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.opentripplanner.osm.model.OsmWithTags;
 
@@ -49,4 +50,9 @@ public class LogicalOrSpecifier implements OsmSpecifier {
   public String toDocString() {
     return subSpecs.stream().map(ExactMatchSpecifier::toDocString).collect(Collectors.joining("|"));
   }
+
+  @Override
+  public Set<String> tagKeys() {
+    return subSpecs.stream().flatMap(it -> it.tagKeys().stream()).collect(Collectors.toSet());
+  }
 }
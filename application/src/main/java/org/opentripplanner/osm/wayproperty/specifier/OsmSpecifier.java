@@ -1,6 +1,7 @@
 package org.opentripplanner.osm.wayproperty.specifier;
 
 import java.util.Arrays;
+import java.util.Set;
 import org.opentripplanner.osm.model.OsmWithTags;
 
 /**
@@ -48,6 +49,12 @@ public interface OsmSpecifier {
    */
   String toDocString();
 
+  /**
+   * The keys of the tags this specifier reads. Keys with a suffix, like ':left' or ':forward', are
+   * represented by the key without the suffix.
+   */
+  Set<String> tagKeys();
+
   record Scores(int forward, int backward) {
     public static Scores of(int s) {
       return new Scores(s, s);
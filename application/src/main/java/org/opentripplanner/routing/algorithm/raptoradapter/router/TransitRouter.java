@@ -262,7 +262,8 @@ public class TransitRouter {
       serverContext.dataOverlayContext(accessRequest),
       type,
       durationLimit,
-      stopCountLimit
+      stopCountLimit,
+      serverContext.accessEgressCache()
     );
     var accessEgresses = AccessEgressMapper.mapNearbyStops(nearbyStops, type);
     accessEgresses = timeshiftRideHailing(streetRequest, type, accessEgresses);
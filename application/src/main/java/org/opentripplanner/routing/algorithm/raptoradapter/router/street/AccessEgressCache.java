@@ -0,0 +1,455 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Sets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.graph_builder.module.nearbystops.StreetNearbyStopFinder;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.BikePreferences;
+import org.opentripplanner.routing.api.request.preference.CarPreferences;
+import org.opentripplanner.routing.api.request.preference.ScooterPreferences;
+import org.opentripplanner.routing.api.request.preference.StreetPreferences;
+import org.opentripplanner.routing.api.request.preference.WalkPreferences;
+import org.opentripplanner.routing.api.request.preference.WheelchairPreferences;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.TemporaryEdge;
+import org.opentripplanner.street.model.vertex.TemporaryVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+import org.opentripplanner.transit.model.site.StopLocation;
+
+/**
+ * A bounded, time-expiring cache of access/egress street search results shared between requests.
+ * Clients tend to send many requests from the same few places, and without the cache the same
+ * street search is repeated for each of them.
+ * <p>
+ * A coordinate origin is linked to the street graph through temporary vertices and edges, which
+ * belong to a single request. The cache therefore does not store the search from the origin, but
+ * a search from each permanent vertex the origin is linked to, the entry vertices. Every origin
+ * linked to the same street shares these entries, so requests from nearby places reuse them.
+ * <p>
+ * A request first finds its way from the origin to the entry vertices, through its own temporary
+ * edges. The cached paths from each entry vertex are then traversed again from there, so the
+ * returned states start at the origin of the request, and are valid for its time and street
+ * conditions. For each stop, the best path through any entry vertex is kept. This gives the same
+ * stops as a search from the origin: a stop which is among the closest from the origin through an
+ * entry vertex is also among the closest from that entry vertex. A path which can no longer be
+ * traversed is dropped.
+ * <p>
+ * The cache is keyed on the entry vertex, the street mode, the search limits and the street
+ * preferences. Modes which depend on real-time street data (renting and parking), searches with a
+ * data overlay and flex area stops are never cached. Paths through temporary edges of the shared
+ * graph, like real-time splits, are not cached either. Entries expire after a configured
+ * time-to-live.
+ * <p>
+ * The cache is disabled if the maximum size is zero.
+ */
+public class AccessEgressCache {
+
+  public static final AccessEgressCache DISABLED = new AccessEgressCache(0, Duration.ZERO);
+
+  @Nullable
+  private final Cache<CacheKey, SearchTree> cache;
+
+  public AccessEgressCache(int maximumSize, Duration timeToLive) {
+    this.cache =
+      maximumSize > 0
+        ? CacheBuilder
+          .newBuilder()
+          .maximumSize(maximumSize)
+          .expireAfterWrite(timeToLive)
+          .recordStats()
+          .build()
+        : null;
+  }
+
+  /**
+   * The underlying cache, used to bind cache metrics. Returns {@code null} if the cache is
+   * disabled.
+   */
+  @Nullable
+  public Cache<?, ?> getCache() {
+    return cache;
+  }
+
+  public boolean isEnabled() {
+    return cache != null;
+  }
+
+  /**
+   * Find the stops reachable by a street search from the given origin vertices, like
+   * {@link StreetNearbyStopFinder#findNearbyStops(Set, RouteRequest, StreetRequest, boolean)},
+   * using the cached searches from the entry vertices of the origin.
+   */
+  public Collection<NearbyStop> findNearbyStops(
+    Set<Vertex> originVertices,
+    Set<Vertex> ignoreVertices,
+    RouteRequest request,
+    StreetRequest streetRequest,
+    @Nullable DataOverlayContext dataOverlayContext,
+    AccessEgressType accessOrEgress,
+    Duration durationLimit,
+    int maxStopCount
+  ) {
+    var finder = new StreetNearbyStopFinder(
+      durationLimit,
+      maxStopCount,
+      dataOverlayContext,
+      ignoreVertices
+    );
+    boolean reverse = accessOrEgress.isEgress();
+    if (!isCacheable(streetRequest.mode(), dataOverlayContext)) {
+      return finder.findNearbyStops(originVertices, request, streetRequest, reverse);
+    }
+    OTPRequestTimeoutException.checkForTimeout();
+
+    List<NearbyStop> stopsFound = NearbyStop.nearbyStopsForTransitStopVerticesFiltered(
+      Sets.difference(originVertices, ignoreVertices),
+      reverse,
+      request,
+      streetRequest
+    );
+    if (maxStopCount != 0 && stopsFound.size() >= maxStopCount) {
+      return stopsFound;
+    }
+
+    var best = new HashMap<StopLocation, NearbyStop>();
+    for (State entryState : findEntryStates(originVertices, request, streetRequest, reverse)) {
+      var entry = entryState.getVertex();
+      var key = new CacheKey(
+        entry,
+        ignoreVertices,
+        accessOrEgress,
+        streetRequest.mode(),
+        durationLimit,
+        maxStopCount,
+        request
+      );
+      var tree = cache.getIfPresent(key);
+      if (tree == null) {
+        var result = finder.findNearbyStops(Set.of(entry), request, streetRequest, reverse);
+        tree = SearchTree.of(result);
+        if (tree.isReusable()) {
+          cache.put(key, tree);
+        }
+      }
+      for (NearbyStop it : tree.traverseFrom(entryState)) {
+        var vertex = it.state.getVertex();
+        if (
+          it.state.isFinal() &&
+          it.state.getElapsedTimeSeconds() <= durationLimit.toSeconds() &&
+          !originVertices.contains(vertex)
+        ) {
+          best.merge(it.stop, it, (a, b) -> b.isBetter(a) ? b : a);
+        }
+      }
+    }
+
+    var streetStops = new ArrayList<>(best.values());
+    streetStops.sort(Comparator.comparingDouble(it -> it.state.getWeight()));
+    if (maxStopCount != 0 && streetStops.size() > maxStopCount) {
+      streetStops.subList(maxStopCount, streetStops.size()).clear();
+    }
+    var results = new ArrayList<>(stopsFound);
+    results.addAll(streetStops);
+    return results;
+  }
+
+  /**
+   * Search from the origin vertices through the temporary vertices and edges of the request only.
+   * The states at permanent vertices are the entries to the shared street graph. An origin which
+   * is a permanent vertex, like a stop, is its own entry.
+   */
+  private static List<State> findEntryStates(
+    Set<Vertex> originVertices,
+    RouteRequest request,
+    StreetRequest streetRequest,
+    boolean reverse
+  ) {
+    var spt = StreetSearchBuilder
+      .of()
+      .setSkipEdgeStrategy((current, edge) -> !(current.getVertex() instanceof TemporaryVertex))
+      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setRequest(request)
+      .setArriveBy(reverse)
+      .setStreetRequest(streetRequest)
+      .setFrom(reverse ? null : originVertices)
+      .setTo(reverse ? originVertices : null)
+      .getShortestPathTree();
+
+    var entryStates = new ArrayList<State>();
+    if (spt != null) {
+      for (State state : spt.getAllStates()) {
+        if (!(state.getVertex() instanceof TemporaryVertex)) {
+          entryStates.add(state);
+        }
+      }
+    }
+    return entryStates;
+  }
+
+  private boolean isCacheable(StreetMode mode, @Nullable DataOverlayContext dataOverlayContext) {
+    return (
+      cache != null &&
+      dataOverlayContext == null &&
+      mode != StreetMode.NOT_SET &&
+      !mode.includesRenting() &&
+      !mode.includesParking() &&
+      // Flex area stops may be at the temporary split vertices of the origin
+      !OTPFeature.FlexRouting.isOn()
+    );
+  }
+
+  /**
+   * The paths of a street search from one entry vertex, stored as a tree of edges. The paths to
+   * different stops share the edges close to the entry vertex, so each edge is traversed once when
+   * the tree is traversed again from another state.
+   */
+  static final class SearchTree {
+
+    private static final int ROOT = 0;
+
+    /** The edge leading to each node, and the mode it was traversed with. */
+    private final Edge[] edges;
+    private final TraverseMode[] modes;
+
+    /** The parent of each node, always before the node itself. */
+    private final int[] parents;
+
+    private final StopLocation[] stops;
+    private final int[] stopNodes;
+    private final boolean reusable;
+
+    private SearchTree(
+      List<Edge> edges,
+      List<TraverseMode> modes,
+      List<Integer> parents,
+      List<StopLocation> stops,
+      List<Integer> stopNodes,
+      boolean reusable
+    ) {
+      this.edges = edges.toArray(new Edge[0]);
+      this.modes = modes.toArray(new TraverseMode[0]);
+      this.parents = parents.stream().mapToInt(Integer::intValue).toArray();
+      this.stops = stops.toArray(new StopLocation[0]);
+      this.stopNodes = stopNodes.stream().mapToInt(Integer::intValue).toArray();
+      this.reusable = reusable;
+    }
+
+    /**
+     * Build the tree from the result of a search from a single vertex. Stops at the vertex itself
+     * are left out, they are found without a street search.
+     */
+    static SearchTree of(Collection<NearbyStop> result) {
+      var edges = new ArrayList<Edge>();
+      var modes = new ArrayList<TraverseMode>();
+      var parents = new ArrayList<Integer>();
+      var stops = new ArrayList<StopLocation>();
+      var stopNodes = new ArrayList<Integer>();
+      boolean reusable = true;
+
+      edges.add(null);
+      modes.add(null);
+      parents.add(-1);
+      Map<State, Integer> nodes = new IdentityHashMap<>();
+      for (NearbyStop it : result) {
+        var chain = new ArrayList<State>();
+        State s = it.state;
+        while (s.getBackState() != null && !nodes.containsKey(s)) {
+          chain.add(s);
+          s = s.getBackState();
+        }
+        if (chain.isEmpty() && s.getBackState() == null) {
+          continue;
+        }
+        int parent = s.getBackState() == null ? ROOT : nodes.get(s);
+        for (int i = chain.size() - 1; i >= 0; --i) {
+          State state = chain.get(i);
+          if (
+            state.getBackEdge() instanceof TemporaryEdge ||
+            state.getVertex() instanceof TemporaryVertex
+          ) {
+            reusable = false;
+          }
+          nodes.put(state, edges.size());
+          edges.add(state.getBackEdge());
+          modes.add(state.getBackMode());
+          parents.add(parent);
+          parent = edges.size() - 1;
+        }
+        stops.add(it.stop);
+        stopNodes.add(parent);
+      }
+      return new SearchTree(edges, modes, parents, stops, stopNodes, reusable);
+    }
+
+    boolean isReusable() {
+      return reusable;
+    }
+
+    int size() {
+      return edges.length - 1;
+    }
+
+    /**
+     * Traverse the edges of the tree again, starting with the given state at the vertex the tree
+     * was searched from. Paths which can not be traversed, because an edge is closed or the mode
+     * is not the same, are left out.
+     */
+    List<NearbyStop> traverseFrom(State root) {
+      var states = new State[edges.length];
+      states[ROOT] = root;
+      for (int i = ROOT + 1; i < edges.length; ++i) {
+        State parent = states[parents[i]];
+        if (parent != null) {
+          states[i] = traverse(parent, edges[i], modes[i]);
+        }
+      }
+      var result = new ArrayList<NearbyStop>(stops.length);
+      for (int i = 0; i < stops.length; ++i) {
+        State state = states[stopNodes[i]];
+        if (state != null) {
+          result.add(NearbyStop.nearbyStopForState(state, stops[i]));
+        }
+      }
+      return result;
+    }
+
+    @Nullable
+    private static State traverse(State s0, Edge edge, TraverseMode mode) {
+      for (State it : edge.traverse(s0)) {
+        if (it.getBackMode() == mode) {
+          return it;
+        }
+      }
+      return null;
+    }
+  }
+
+  static final class CacheKey {
+
+    private final Vertex entry;
+    private final Set<Vertex> ignoreVertices;
+    private final AccessEgressType accessOrEgress;
+    private final StreetMode mode;
+    private final Duration durationLimit;
+    private final int maxStopCount;
+    private final boolean wheelchair;
+    private final WalkPreferences walk;
+    private final BikePreferences bike;
+    private final CarPreferences car;
+    private final ScooterPreferences scooter;
+    private final StreetPreferences street;
+    private final WheelchairPreferences wheelchairPreferences;
+    private final int hashCode;
+
+    CacheKey(
+      Vertex entry,
+      Set<Vertex> ignoreVertices,
+      AccessEgressType accessOrEgress,
+      StreetMode mode,
+      Duration durationLimit,
+      int maxStopCount,
+      RouteRequest request
+    ) {
+      this.entry = entry;
+      this.ignoreVertices = Set.copyOf(ignoreVertices);
+      this.accessOrEgress = accessOrEgress;
+      this.mode = mode;
+      this.durationLimit = durationLimit;
+      this.maxStopCount = maxStopCount;
+      this.wheelchair = request.wheelchair();
+
+      var preferences = request.preferences();
+      this.walk = preferences.walk();
+      this.bike = mode.includesBiking() ? preferences.bike() : BikePreferences.DEFAULT;
+      this.car = mode.includesDriving() ? preferences.car() : CarPreferences.DEFAULT;
+      this.scooter = mode.includesScooter() ? preferences.scooter() : ScooterPreferences.DEFAULT;
+      this.street = preferences.street();
+      this.wheelchairPreferences =
+        this.wheelchair ? preferences.wheelchair() : WheelchairPreferences.DEFAULT;
+
+      this.hashCode =
+        Objects.hash(
+          entry,
+          this.ignoreVertices,
+          accessOrEgress,
+          mode,
+          durationLimit,
+          maxStopCount,
+          wheelchair,
+          walk,
+          bike,
+          car,
+          scooter,
+          street,
+          wheelchairPreferences
+        );
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CacheKey that)) {
+        return false;
+      }
+      return (
+        hashCode == that.hashCode &&
+        entry == that.entry &&
+        maxStopCount == that.maxStopCount &&
+        wheelchair == that.wheelchair &&
+        accessOrEgress == that.accessOrEgress &&
+        mode == that.mode &&
+        Objects.equals(ignoreVertices, that.ignoreVertices) &&
+        Objects.equals(durationLimit, that.durationLimit) &&
+        Objects.equals(walk, that.walk) &&
+        Objects.equals(bike, that.bike) &&
+        Objects.equals(car, that.car) &&
+        Objects.equals(scooter, that.scooter) &&
+        Objects.equals(street, that.street) &&
+        Objects.equals(wheelchairPreferences, that.wheelchairPreferences)
+      );
+    }
+
+    @Override
+    public String toString() {
+      return ToStringBuilder
+        .of(CacheKey.class)
+        .addObj("entry", entry)
+        .addEnum("accessOrEgress", accessOrEgress)
+        .addEnum("mode", mode)
+        .addDuration("durationLimit", durationLimit)
+        .addNum("maxStopCount", maxStopCount)
+        .addBoolIfTrue("wheelchair", wheelchair)
+        .toString();
+    }
+  }
+}
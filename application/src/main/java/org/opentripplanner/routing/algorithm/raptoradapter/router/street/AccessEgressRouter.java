@@ -8,7 +8,6 @@ import javax.annotation.Nullable;
 import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.framework.collection.ListUtils;
-import org.opentripplanner.graph_builder.module.nearbystops.StreetNearbyStopFinder;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.request.StreetRequest;
 import org.opentripplanner.routing.graphfinder.NearbyStop;
@@ -36,6 +35,31 @@ public class AccessEgressRouter {
     AccessEgressType accessOrEgress,
     Duration durationLimit,
     int maxStopCount
+  ) {
+    return findAccessEgresses(
+      request,
+      verticesContainer,
+      streetRequest,
+      dataOverlayContext,
+      accessOrEgress,
+      durationLimit,
+      maxStopCount,
+      AccessEgressCache.DISABLED
+    );
+  }
+
+  /**
+   * Find accesses or egresses, reusing the street searches in the given cache.
+   */
+  public static Collection<NearbyStop> findAccessEgresses(
+    RouteRequest request,
+    TemporaryVerticesContainer verticesContainer,
+    StreetRequest streetRequest,
+    @Nullable DataOverlayContext dataOverlayContext,
+    AccessEgressType accessOrEgress,
+    Duration durationLimit,
+    int maxStopCount,
+    AccessEgressCache cache
   ) {
     OTPRequestTimeoutException.checkForTimeout();
 
@@ -58,13 +82,16 @@ public class AccessEgressRouter {
     var originVertices = accessOrEgress.isAccess()
       ? verticesContainer.getFromVertices()
       : verticesContainer.getToVertices();
-    var streetAccessEgress = new StreetNearbyStopFinder(
-      durationLimit,
-      maxStopCount,
+    var streetAccessEgress = cache.findNearbyStops(
+      originVertices,
+      ignoreVertices,
+      request,
+      streetRequest,
       dataOverlayContext,
-      ignoreVertices
-    )
-      .findNearbyStops(originVertices, request, streetRequest, accessOrEgress.isEgress());
+      accessOrEgress,
+      durationLimit,
+      maxStopCount
+    );
 
     var results = ListUtils.combine(zeroDistanceAccessEgress, streetAccessEgress);
     LOG.debug("Found {} {} stops", results.size(), accessOrEgress);
@@ -47,6 +47,16 @@ public interface TransitTuningParameters {
       return 5;
     }
 
+    @Override
+    public int accessEgressCacheMaxSize() {
+      return 0;
+    }
+
+    @Override
+    public Duration accessEgressCacheTimeToLive() {
+      return Duration.ofMinutes(1);
+    }
+
     @Override
     public Duration maxSearchWindow() {
       return Duration.ofHours(24);
@@ -83,6 +93,18 @@ public interface TransitTuningParameters {
    */
   int transferCacheMaxSize();
 
+  /**
+   * The maximum number of access/egress street search results to cache across requests. Zero
+   * disables the cache.
+   * {@link org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache}
+   */
+  int accessEgressCacheMaxSize();
+
+  /**
+   * How long a cached access/egress street search result is kept before it is searched again.
+   */
+  Duration accessEgressCacheTimeToLive();
+
   /**
    * The maximum search window that can be set through the searchWindow API parameter. Due to the
    * way timetable data are collected before a Raptor trip search, using a search window larger than
@@ -33,8 +33,10 @@ class TransfersMapper {
         if (pathTransfer.to instanceof RegularStop) {
           int toStopIndex = pathTransfer.to.getIndex();
           Transfer newTransfer;
-          if (pathTransfer.getEdges() != null) {
-            newTransfer = new Transfer(toStopIndex, pathTransfer.getEdges());
+          // The immutable edge list is shared with the path transfer, not copied
+          var edges = pathTransfer.getEdges();
+          if (edges != null) {
+            newTransfer = new Transfer(toStopIndex, edges);
           } else {
             newTransfer =
               new Transfer(toStopIndex, (int) Math.ceil(pathTransfer.getDistanceMeters()));
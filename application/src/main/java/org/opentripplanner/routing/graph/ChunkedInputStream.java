@@ -0,0 +1,193 @@
+package org.opentripplanner.routing.graph;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import javax.annotation.Nullable;
+
+/**
+ * Read a section of the graph file written by {@link ChunkedOutputStream}. The stream ends at the
+ * end of the section, the underlying stream is not closed.
+ * <p>
+ * Compressed chunks are read ahead of the consumer and decompressed by the given executor, so the
+ * decompression runs in parallel with the deserialization of the chunks already read.
+ */
+class ChunkedInputStream extends InputStream {
+
+  private static final byte[] EMPTY = new byte[0];
+
+  /** The number of compressed chunks decompressed ahead of the consumer. */
+  private static final int MAX_PENDING_CHUNKS = 2 * Runtime.getRuntime().availableProcessors();
+
+  private final DataInputStream in;
+  private final GraphFileCompression compression;
+
+  @Nullable
+  private final ExecutorService inflaterPool;
+
+  private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+  private byte[] chunk = EMPTY;
+  private int position = 0;
+  private boolean endOfSection = false;
+  private long size = 0;
+  private long storedSize = 0;
+
+  /**
+   * @param inflaterPool used to decompress the chunks, if {@code null} the chunks are decompressed
+   *                     by the reading thread.
+   */
+  ChunkedInputStream(
+    DataInputStream in,
+    GraphFileCompression compression,
+    @Nullable ExecutorService inflaterPool
+  ) {
+    this.in = in;
+    this.compression = compression;
+    this.inflaterPool = inflaterPool;
+  }
+
+  /**
+   * Skip a section without reading its content.
+   *
+   * @return the number of bytes stored in the section, not including the chunk lengths
+   */
+  static long skipSection(DataInputStream in) throws IOException {
+    long size = 0;
+    int storedLength;
+    while ((storedLength = in.readInt()) != 0) {
+      // Skip the uncompressed length and the content
+      in.skipNBytes(Integer.BYTES + storedLength);
+      size += storedLength;
+    }
+    return size;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!nextChunk()) {
+      return -1;
+    }
+    ++size;
+    return chunk[position++] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (!nextChunk()) {
+      return -1;
+    }
+    int n = Math.min(len, chunk.length - position);
+    System.arraycopy(chunk, position, b, off, n);
+    position += n;
+    size += n;
+    return n;
+  }
+
+  /** Stop decompressing the chunks read ahead, the underlying stream is not closed. */
+  @Override
+  public void close() {
+    pending.forEach(it -> it.cancel(true));
+    pending.clear();
+  }
+
+  /** The number of bytes read from the section, after decompression. */
+  long size() {
+    return size;
+  }
+
+  /** The number of bytes read from the file, not including the chunk lengths. */
+  long storedSize() {
+    return storedSize;
+  }
+
+  /** Move to the next chunk if the current is read, return {@code false} at the end. */
+  private boolean nextChunk() throws IOException {
+    while (position == chunk.length) {
+      readAhead();
+      if (pending.isEmpty()) {
+        return false;
+      }
+      chunk = await(pending.removeFirst());
+      position = 0;
+    }
+    return true;
+  }
+
+  /** Read chunks from the underlying stream until enough chunks are pending. */
+  private void readAhead() throws IOException {
+    int maxPending = compression.isCompressed() ? MAX_PENDING_CHUNKS : 1;
+    while (!endOfSection && pending.size() < maxPending) {
+      int storedLength = in.readInt();
+      if (storedLength == 0) {
+        endOfSection = true;
+        return;
+      }
+      int length = in.readInt();
+      byte[] stored = new byte[storedLength];
+      in.readFully(stored);
+      storedSize += storedLength;
+      pending.addLast(decode(stored, length));
+    }
+  }
+
+  private Future<byte[]> decode(byte[] stored, int length) {
+    if (!compression.isCompressed()) {
+      return CompletableFuture.completedFuture(stored);
+    }
+    if (inflaterPool == null) {
+      try {
+        return CompletableFuture.completedFuture(inflate(stored, length));
+      } catch (DataFormatException e) {
+        return CompletableFuture.failedFuture(e);
+      }
+    }
+    return inflaterPool.submit(() -> inflate(stored, length));
+  }
+
+  private static byte[] await(Future<byte[]> chunk) throws IOException {
+    try {
+      return chunk.get();
+    } catch (ExecutionException e) {
+      throw new IOException("Unable to decompress graph file chunk.", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(e.getMessage());
+    }
+  }
+
+  private static byte[] inflate(byte[] stored, int length) throws DataFormatException {
+    var inflater = new Inflater();
+    try {
+      inflater.setInput(stored);
+      byte[] result = new byte[length];
+      int n = 0;
+      while (n < length && !inflater.finished()) {
+        int r = inflater.inflate(result, n, length - n);
+        if (r == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        n += r;
+      }
+      if (n != length) {
+        throw new DataFormatException(
+          "Expected %d bytes in graph file chunk, but got %d.".formatted(length, n)
+        );
+      }
+      return result;
+    } finally {
+      inflater.end();
+    }
+  }
+}
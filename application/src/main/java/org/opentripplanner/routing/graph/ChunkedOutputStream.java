@@ -0,0 +1,114 @@
+package org.opentripplanner.routing.graph;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import javax.annotation.Nullable;
+
+/**
+ * Write a section of the graph file as a sequence of chunks. Each chunk is prefixed with its
+ * stored length and its uncompressed length, and the section ends with an empty chunk. A reader
+ * can skip a section by reading only the chunk lengths, without parsing the content.
+ * <p>
+ * If the section is compressed, each chunk is compressed on its own. This allows the reader to
+ * decompress the chunks in parallel.
+ * <p>
+ * The underlying stream is not closed, call {@link #finish()} to end the section.
+ *
+ * @see ChunkedInputStream
+ */
+class ChunkedOutputStream extends OutputStream {
+
+  static final int CHUNK_SIZE = 1 << 20;
+
+  private final DataOutputStream out;
+
+  @Nullable
+  private final Deflater deflater;
+
+  private final byte[] buffer = new byte[CHUNK_SIZE];
+  private byte[] compressed = null;
+  private int position = 0;
+  private long size = 0;
+  private long storedSize = 0;
+
+  ChunkedOutputStream(DataOutputStream out, GraphFileCompression compression) {
+    this.out = out;
+    this.deflater = compression.createDeflater();
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (position == buffer.length) {
+      writeChunk();
+    }
+    buffer[position++] = (byte) b;
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    while (len > 0) {
+      if (position == buffer.length) {
+        writeChunk();
+      }
+      int n = Math.min(len, buffer.length - position);
+      System.arraycopy(b, off, buffer, position, n);
+      position += n;
+      off += n;
+      len -= n;
+    }
+  }
+
+  /** Write the remaining bytes and the end of the section. */
+  void finish() throws IOException {
+    if (position > 0) {
+      writeChunk();
+    }
+    out.writeInt(0);
+    out.flush();
+    if (deflater != null) {
+      deflater.end();
+    }
+  }
+
+  /** The number of bytes written to the section, before compression. */
+  long size() {
+    return size + position;
+  }
+
+  /** The number of bytes stored in the file, not including the chunk lengths. */
+  long storedSize() {
+    return storedSize;
+  }
+
+  private void writeChunk() throws IOException {
+    byte[] stored = buffer;
+    int storedLength = position;
+
+    if (deflater != null) {
+      if (compressed == null) {
+        compressed = new byte[CHUNK_SIZE];
+      }
+      deflater.reset();
+      deflater.setInput(buffer, 0, position);
+      deflater.finish();
+      storedLength = 0;
+      while (!deflater.finished()) {
+        if (storedLength == compressed.length) {
+          compressed = Arrays.copyOf(compressed, 2 * compressed.length);
+        }
+        storedLength += deflater.deflate(compressed, storedLength, compressed.length - storedLength);
+      }
+      stored = compressed;
+    }
+
+    out.writeInt(storedLength);
+    out.writeInt(position);
+    out.write(stored, 0, storedLength);
+    size += position;
+    storedSize += storedLength;
+    position = 0;
+  }
+}
@@ -17,9 +17,11 @@ import org.locationtech.jts.geom.Geometry;
 import org.opentripplanner.ext.dataoverlay.configuration.DataOverlayParameterBindings;
 import org.opentripplanner.framework.geometry.CompactElevationProfile;
 import org.opentripplanner.framework.geometry.GeometryUtils;
+import org.opentripplanner.framework.time.DurationUtils;
 import org.opentripplanner.model.calendar.openinghours.OpeningHoursCalendarService;
 import org.opentripplanner.routing.fares.FareService;
 import org.opentripplanner.routing.graph.index.StreetIndex;
+import org.opentripplanner.routing.graph.index.StreetSpatialIndex;
 import org.opentripplanner.routing.linking.VertexLinker;
 import org.opentripplanner.routing.services.notes.StreetNotesService;
 import org.opentripplanner.routing.vehicle_parking.VehicleParkingService;
@@ -79,6 +81,10 @@ public class Graph implements Serializable {
 
   private transient StreetIndex streetIndex;
 
+  /** The street spatial index saved with the graph, used once when the graph is indexed. */
+  @Nullable
+  private transient StreetSpatialIndex savedStreetSpatialIndex;
+
   /** The convex hull of all the graph vertices. Generated at the time the Graph is built. */
   private Geometry convexHull = null;
 
@@ -286,8 +292,14 @@ public class Graph implements Serializable {
    */
   public void index(SiteRepository siteRepository) {
     LOG.info("Index street model...");
-    streetIndex = new StreetIndex(this, siteRepository);
-    LOG.info("Index street model complete.");
+    long startTime = System.currentTimeMillis();
+    streetIndex = new StreetIndex(this, siteRepository, savedStreetSpatialIndex);
+    // The street index owns the saved index now, and may change it
+    savedStreetSpatialIndex = null;
+    LOG.info(
+      "Index street model complete in {}.",
+      DurationUtils.msToSecondsStr(System.currentTimeMillis() - startTime)
+    );
   }
 
   @Nullable
@@ -295,6 +307,10 @@ public class Graph implements Serializable {
     return this.openingHoursCalendarService;
   }
 
+  void setSavedStreetSpatialIndex(@Nullable StreetSpatialIndex savedStreetSpatialIndex) {
+    this.savedStreetSpatialIndex = savedStreetSpatialIndex;
+  }
+
   /**
    * Get streetIndex, safe to use while routing, but do not use during graph build.
    * @see #getStreetIndexSafe(SiteRepository)
@@ -0,0 +1,35 @@
+package org.opentripplanner.routing.graph;
+
+import java.util.zip.Deflater;
+import javax.annotation.Nullable;
+
+/**
+ * The compression used for the sections of the graph file. Each chunk of a section is compressed
+ * on its own, so the chunks can be decompressed in parallel when the graph is loaded.
+ *
+ * @see ChunkedOutputStream
+ */
+public enum GraphFileCompression {
+  /** The chunks are written as they are. */
+  NONE(Deflater.NO_COMPRESSION),
+  /** Deflate with the fastest compression level. */
+  DEFLATE_FAST(Deflater.BEST_SPEED),
+  /** Deflate with the default compression level, smaller files but slower to write. */
+  DEFLATE(Deflater.DEFAULT_COMPRESSION);
+
+  private final int level;
+
+  GraphFileCompression(int level) {
+    this.level = level;
+  }
+
+  boolean isCompressed() {
+    return this != NONE;
+  }
+
+  /** Create a new deflater, or {@code null} if the chunks are not compressed. */
+  @Nullable
+  Deflater createDeflater() {
+    return isCompressed() ? new Deflater(level) : null;
+  }
+}
@@ -6,6 +6,11 @@ import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -13,20 +18,37 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
-import java.util.Collection;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.annotation.Nullable;
 import org.opentripplanner.datastore.api.DataSource;
+import org.opentripplanner.datastore.file.FileDataSource;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationRepository;
 import org.opentripplanner.framework.application.OtpAppException;
 import org.opentripplanner.framework.geometry.CompactElevationProfile;
 import org.opentripplanner.framework.lang.OtpNumberFormat;
 import org.opentripplanner.framework.logging.ProgressTracker;
+import org.opentripplanner.framework.time.DurationUtils;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.model.projectinfo.GraphFileHeader;
 import org.opentripplanner.model.projectinfo.OtpProjectInfo;
+import org.opentripplanner.routing.graph.index.StreetSpatialIndex;
 import org.opentripplanner.routing.graph.kryosupport.KryoBuilder;
+import org.opentripplanner.routing.graph.kryosupport.SiteRepositoryReferences;
+import org.opentripplanner.routing.graph.kryosupport.StreetEdgeReferences;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeRepository;
 import org.opentripplanner.standalone.config.BuildConfig;
 import org.opentripplanner.standalone.config.RouterConfig;
@@ -35,6 +57,7 @@ import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.transit.model.basic.SubMode;
 import org.opentripplanner.transit.model.network.RoutingTripPattern;
+import org.opentripplanner.transit.service.SiteRepository;
 import org.opentripplanner.transit.service.TimetableRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,15 +72,48 @@ import org.slf4j.LoggerFactory;
  * serializer to know that vertices referenced by the edges are the same vertices stored in the
  * graph itself. The easiest way to do this is to make only one serialization call, serializing a
  * single object that contains both the graph and the edge collection.
+ * <p>
+ * The file is split into sections, each written as an independent Kryo stream, see {@link
+ * Section}. The stops and stations of the {@link SiteRepository} are written in the first section,
+ * and the other sections refer to them by id. The transfers in the transit section refer to the
+ * edges of the street section by index, see {@link StreetEdgeReferences}. When the graph is loaded
+ * from a local file, the other sections are read in parallel once the site repository is loaded.
+ * Other sources are read once, one section after the other, so a remote graph file is only
+ * downloaded once.
+ * <p>
+ * The sections can be compressed, see {@link GraphFileCompression}. The compression is written
+ * after the file header, and the chunks of the sections are decompressed in parallel when loaded.
+ * <p>
+ * The {@link StreetSpatialIndex} is saved with the graph if {@link BuildConfig#saveStreetIndex}
+ * is set, so it does not have to be rebuilt when the graph is loaded.
  */
 public class SerializedGraphObject implements Serializable {
 
   private static final Logger LOG = LoggerFactory.getLogger(SerializedGraphObject.class);
 
+  /** The edge lists are copied when changed, so the empty list can be shared. */
+  private static final Edge[] NO_EDGES = new Edge[0];
+
+  private static final int INFLATER_THREADS = Math.max(
+    1,
+    Runtime.getRuntime().availableProcessors() - 1
+  );
+
+  /**
+   * The sections of the graph file, in the order they are written. All sections except the first
+   * refer to the entities in the {@link SiteRepository} of the first section.
+   */
+  private enum Section {
+    SITES,
+    STREETS,
+    TRANSIT,
+    OTHER,
+  }
+
   public final Graph graph;
   public final TimetableRepository timetableRepository;
   public final WorldEnvelopeRepository worldEnvelopeRepository;
-  private final Collection<Edge> edges;
+  private final List<Edge> edges;
 
   /**
    * The config JSON used to build this graph. Allows checking whether the configuration has
@@ -92,7 +148,7 @@ public class SerializedGraphObject implements Serializable {
     StreetLimitationParameters streetLimitationParameters
   ) {
     this.graph = graph;
-    this.edges = graph.getEdges();
+    this.edges = edgesGroupedByFromVertex(graph);
     this.timetableRepository = timetableRepository;
     this.worldEnvelopeRepository = worldEnvelopeRepository;
     this.buildConfig = buildConfig;
@@ -105,6 +161,34 @@ public class SerializedGraphObject implements Serializable {
     this.streetLimitationParameters = streetLimitationParameters;
   }
 
+  private SerializedGraphObject(
+    Graph graph,
+    List<Edge> edges,
+    TimetableRepository timetableRepository,
+    List<SubMode> allTransitSubModes,
+    int routingTripPatternCounter,
+    WorldEnvelopeRepository worldEnvelopeRepository,
+    BuildConfig buildConfig,
+    RouterConfig routerConfig,
+    DataImportIssueSummary issueSummary,
+    EmissionsDataModel emissionsDataModel,
+    StopConsolidationRepository stopConsolidationRepository,
+    StreetLimitationParameters streetLimitationParameters
+  ) {
+    this.graph = graph;
+    this.edges = edges;
+    this.timetableRepository = timetableRepository;
+    this.allTransitSubModes = allTransitSubModes;
+    this.routingTripPatternCounter = routingTripPatternCounter;
+    this.worldEnvelopeRepository = worldEnvelopeRepository;
+    this.buildConfig = buildConfig;
+    this.routerConfig = routerConfig;
+    this.issueSummary = issueSummary;
+    this.emissionsDataModel = emissionsDataModel;
+    this.stopConsolidationRepository = stopConsolidationRepository;
+    this.streetLimitationParameters = streetLimitationParameters;
+  }
+
   public static void verifyTheOutputGraphIsWritableIfDataSourceExist(DataSource graphOutput) {
     if (graphOutput != null) {
       // Abort building a graph if the file can not be saved
@@ -122,12 +206,16 @@ public class SerializedGraphObject implements Serializable {
   }
 
   public static SerializedGraphObject load(DataSource source) {
-    return load(source.asInputStream(), source.path());
+    // Only a plain local file can be opened again for each section and read in parallel
+    Path localFile = source instanceof FileDataSource && !source.name().endsWith(".gz")
+      ? Path.of(source.path())
+      : null;
+    return load(source.asInputStream(), localFile, source.path());
   }
 
   public static SerializedGraphObject load(File file) {
     try {
-      return load(new FileInputStream(file), file.getAbsolutePath());
+      return load(new FileInputStream(file), file.toPath(), file.getAbsolutePath());
     } catch (FileNotFoundException e) {
       LOG.error("Graph file not found: " + file, e);
       throw new OtpAppException(e.getMessage());
@@ -138,16 +226,38 @@ public class SerializedGraphObject implements Serializable {
    * After deserialization, the vertices will all have null outgoing and incoming edge lists because
    * those edge lists are marked transient, to prevent excessive recursion depth while serializing.
    * This method will reconstruct all those edge lists after deserialization.
+   * <p>
+   * The edge lists are set in one go, not grown one edge at the time. The edges are saved grouped
+   * by their from-vertex, so the outgoing edges of a vertex are a range of the edge list. The
+   * incoming edges are counted first, so each list is allocated once.
    */
   public void reconstructEdgeLists() {
-    for (Vertex v : graph.getVertices()) {
-      v.initEdgeLists();
+    var outgoing = new IdentityHashMap<Vertex, Edge[]>();
+    for (int begin = 0, end; begin < edges.size(); begin = end) {
+      Vertex from = edges.get(begin).getFromVertex();
+      end = begin + 1;
+      while (end < edges.size() && edges.get(end).getFromVertex() == from) {
+        ++end;
+      }
+      var range = edges.subList(begin, end).toArray(new Edge[0]);
+      if (outgoing.put(from, range) != null) {
+        throw new IllegalStateException("The saved edges are not grouped by their from-vertex.");
+      }
     }
+
+    var remainingIncoming = new IdentityHashMap<Vertex, int[]>();
+    for (Edge e : edges) {
+      remainingIncoming.computeIfAbsent(e.getToVertex(), v -> new int[1])[0]++;
+    }
+    var incoming = new IdentityHashMap<Vertex, Edge[]>();
     for (Edge e : edges) {
-      Vertex fromVertex = e.getFromVertex();
-      Vertex toVertex = e.getToVertex();
-      fromVertex.addOutgoing(e);
-      toVertex.addIncoming(e);
+      int[] remaining = remainingIncoming.get(e.getToVertex());
+      Edge[] list = incoming.computeIfAbsent(e.getToVertex(), v -> new Edge[remaining[0]]);
+      list[list.length - remaining[0]--] = e;
+    }
+
+    for (Vertex v : graph.getVertices()) {
+      v.initEdgeLists(outgoing.getOrDefault(v, NO_EDGES), incoming.getOrDefault(v, NO_EDGES));
     }
   }
 
@@ -164,19 +274,93 @@ public class SerializedGraphObject implements Serializable {
 
   /* private methods */
 
-  private static SerializedGraphObject load(InputStream inputStream, String sourceDescription) {
-    // TODO store version information, halt load if versions mismatch
+  /**
+   * Read the header and the site repository from the given stream, then read the other sections.
+   * If the graph is read from a local file, the sections are read in parallel. Each of them opens
+   * the file again and skips the sections before it. Otherwise, the sections are read one after the
+   * other from the given stream.
+   */
+  private static SerializedGraphObject load(
+    InputStream inputStream,
+    @Nullable Path localFile,
+    String sourceDescription
+  ) {
+    ExecutorService sectionLoader = null;
+    ExecutorService inflaterPool = null;
     try (inputStream) {
       LOG.info("Reading graph from '{}'", sourceDescription);
-      Input input = new Input(inputStream);
+      var input = new DataInputStream(new BufferedInputStream(inputStream));
 
       validateGraphSerializationId(
-        input.readBytes(GraphFileHeader.headerLength()),
+        input.readNBytes(GraphFileHeader.headerLength()),
         sourceDescription
       );
+      var compression = readCompression(input, sourceDescription);
+      readSectionTable(input, sourceDescription);
+
+      if (compression.isCompressed()) {
+        inflaterPool =
+          Executors.newFixedThreadPool(
+            INFLATER_THREADS,
+            new ThreadFactoryBuilder().setNameFormat("graph-inflater-%d").setDaemon(true).build()
+          );
+      }
+      var chunkReader = new ChunkReader(compression, inflaterPool);
 
-      Kryo kryo = KryoBuilder.create();
-      SerializedGraphObject serObj = (SerializedGraphObject) kryo.readClassAndObject(input);
+      var sites = readSection(Section.SITES, input, KryoBuilder.create(), chunkReader);
+      var siteRepository = (SiteRepository) sites.get(0);
+
+      var sections = new EnumMap<Section, Future<List<Object>>>(Section.class);
+      if (localFile != null) {
+        sectionLoader =
+          Executors.newFixedThreadPool(
+            Section.values().length - 1,
+            new ThreadFactoryBuilder().setNameFormat("graph-loader-%d").setDaemon(true).build()
+          );
+        // The streets are submitted first, the transit section waits for the edges
+        for (Section section : Section.values()) {
+          if (section != Section.SITES) {
+            var kryo = sectionKryo(section, siteRepository, sections);
+            sections.put(
+              section,
+              sectionLoader.submit(() ->
+                readSection(section, localFile, kryo, chunkReader, sourceDescription)
+              )
+            );
+          }
+        }
+      } else {
+        for (Section section : Section.values()) {
+          if (section != Section.SITES) {
+            var kryo = sectionKryo(section, siteRepository, sections);
+            sections.put(
+              section,
+              CompletableFuture.completedFuture(readSection(section, input, kryo, chunkReader))
+            );
+          }
+        }
+      }
+
+      var streets = getSection(sections.get(Section.STREETS));
+      var transit = getSection(sections.get(Section.TRANSIT));
+      var other = getSection(sections.get(Section.OTHER));
+
+      //noinspection unchecked
+      var serObj = new SerializedGraphObject(
+        (Graph) streets.get(0),
+        (List<Edge>) streets.get(1),
+        (TimetableRepository) transit.get(0),
+        (List<SubMode>) transit.get(1),
+        (Integer) transit.get(2),
+        (WorldEnvelopeRepository) other.get(0),
+        (BuildConfig) other.get(1),
+        (RouterConfig) other.get(2),
+        (DataImportIssueSummary) other.get(3),
+        (EmissionsDataModel) other.get(4),
+        (StopConsolidationRepository) other.get(5),
+        (StreetLimitationParameters) other.get(6)
+      );
+      serObj.graph.setSavedStreetSpatialIndex((StreetSpatialIndex) streets.get(2));
       SubMode.deserializeSubModeCache(serObj.allTransitSubModes);
       RoutingTripPattern.initIndexCounter(serObj.routingTripPatternCounter);
       CompactElevationProfile.setDistanceBetweenSamplesM(
@@ -207,6 +391,135 @@ public class SerializedGraphObject implements Serializable {
         "Graph: " +
         sourceDescription
       );
+    } finally {
+      if (sectionLoader != null) {
+        sectionLoader.shutdownNow();
+      }
+      if (inflaterPool != null) {
+        inflaterPool.shutdownNow();
+      }
+    }
+  }
+
+  /**
+   * Create the Kryo instance used to read a section after the site repository. The transfers in
+   * the transit section get their edges from the street section, which must be read or submitted
+   * before it.
+   */
+  private static Kryo sectionKryo(
+    Section section,
+    SiteRepository siteRepository,
+    Map<Section, Future<List<Object>>> sections
+  ) {
+    Kryo kryo = KryoBuilder.create();
+    SiteRepositoryReferences.register(kryo, siteRepository);
+    if (section == Section.TRANSIT) {
+      var streets = sections.get(Section.STREETS);
+      StreetEdgeReferences.registerForReading(kryo, () -> {
+        try {
+          //noinspection unchecked
+          return (List<Edge>) getSection(streets).get(1);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    }
+    return kryo;
+  }
+
+  /**
+   * Open the local file again, skip to the given section and read it.
+   */
+  private static List<Object> readSection(
+    Section section,
+    Path localFile,
+    Kryo kryo,
+    ChunkReader chunkReader,
+    String sourceDescription
+  ) throws IOException {
+    try (
+      var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(localFile)))
+    ) {
+      input.skipNBytes(GraphFileHeader.headerLength());
+      readCompression(input, sourceDescription);
+      readSectionTable(input, sourceDescription);
+      for (int i = 0; i < section.ordinal(); ++i) {
+        ChunkedInputStream.skipSection(input);
+      }
+      return readSection(section, input, kryo, chunkReader);
+    }
+  }
+
+  private static List<Object> readSection(
+    Section section,
+    DataInputStream in,
+    Kryo kryo,
+    ChunkReader chunkReader
+  ) {
+    long startTime = System.currentTimeMillis();
+    try (var chunks = chunkReader.open(in)) {
+      Input input = new Input(chunks);
+      int size = input.readInt();
+      var content = new ArrayList<>(size);
+      for (int i = 0; i < size; ++i) {
+        content.add(kryo.readClassAndObject(input));
+      }
+      LOG.info(
+        "Graph section {} read: {} MB ({} MB {}) in {}",
+        section,
+        OtpNumberFormat.formatTwoDecimals(chunks.size() / 1_000_000.0),
+        OtpNumberFormat.formatTwoDecimals(chunks.storedSize() / 1_000_000.0),
+        chunkReader.compression(),
+        DurationUtils.msToSecondsStr(System.currentTimeMillis() - startTime)
+      );
+      return content;
+    }
+  }
+
+  /** Wait for a section read by another thread, and rethrow any exception from it. */
+  private static <T> T getSection(Future<T> section) throws IOException {
+    try {
+      return section.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException ioe) {
+        throw ioe;
+      }
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+  }
+
+  private static GraphFileCompression readCompression(DataInputStream input, String sourceName)
+    throws IOException {
+    String name = input.readUTF();
+    try {
+      return GraphFileCompression.valueOf(name);
+    } catch (IllegalArgumentException e) {
+      throw new OtpAppException("Unknown graph file compression '%s' in '%s'.", name, sourceName);
+    }
+  }
+
+  /** The sections in the file must be the same as in this version of OTP. */
+  private static void readSectionTable(DataInputStream input, String sourceName)
+    throws IOException {
+    int size = input.readInt();
+    var names = new ArrayList<String>(size);
+    for (int i = 0; i < size; ++i) {
+      names.add(input.readUTF());
+    }
+    var expected = Arrays.stream(Section.values()).map(Enum::name).toList();
+    if (!expected.equals(names)) {
+      throw new OtpAppException(
+        "The graph file sections %s do not match the expected sections %s in '%s'.",
+        names,
+        expected,
+        sourceName
+      );
     }
   }
 
@@ -244,18 +557,109 @@ public class SerializedGraphObject implements Serializable {
   }
 
   private void save(OutputStream outputStream, String graphName, long size) {
-    LOG.info("Writing graph {}  ...", graphName);
+    var compression = buildConfig.graphCompression;
+    LOG.info("Writing graph {} with compression {} ...", graphName, compression);
     outputStream = wrapOutputStreamWithProgressTracker(outputStream, size);
-    Kryo kryo = KryoBuilder.create();
-    Output output = new Output(outputStream);
-    output.write(OtpProjectInfo.projectInfo().graphFileHeaderInfo.header());
-    kryo.writeClassAndObject(output, this);
-    output.close();
+    try (var out = new DataOutputStream(new BufferedOutputStream(outputStream))) {
+      out.write(OtpProjectInfo.projectInfo().graphFileHeaderInfo.header());
+      out.writeUTF(compression.name());
+      out.writeInt(Section.values().length);
+      for (Section section : Section.values()) {
+        out.writeUTF(section.name());
+      }
+      var streetSpatialIndex = buildConfig.saveStreetIndex ? buildStreetSpatialIndex() : null;
+      for (Section section : Section.values()) {
+        Kryo kryo = KryoBuilder.create();
+        if (section != Section.SITES) {
+          SiteRepositoryReferences.register(kryo, timetableRepository.getSiteRepository());
+        }
+        if (section == Section.TRANSIT) {
+          StreetEdgeReferences.registerForWriting(
+            kryo,
+            edges,
+            timetableRepository.getAllPathTransfers()
+          );
+        }
+        long startTime = System.currentTimeMillis();
+        var chunks = new ChunkedOutputStream(out, compression);
+        Output output = new Output(chunks);
+        var content = sectionContent(section, streetSpatialIndex);
+        output.writeInt(content.size());
+        for (Object it : content) {
+          kryo.writeClassAndObject(output, it);
+        }
+        output.flush();
+        chunks.finish();
+        LOG.info(
+          "Graph section {} written: {} MB ({} MB {}) in {}",
+          section,
+          OtpNumberFormat.formatTwoDecimals(chunks.size() / 1_000_000.0),
+          OtpNumberFormat.formatTwoDecimals(chunks.storedSize() / 1_000_000.0),
+          compression,
+          DurationUtils.msToSecondsStr(System.currentTimeMillis() - startTime)
+        );
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
     LOG.info("Graph written: {}", graphName);
     // Summarize serialized classes and associated serializers to stdout:
     // ((InstanceCountingClassResolver) kryo.getClassResolver()).summarize();
   }
 
+  /**
+   * List the edges grouped by their from-vertex, see {@link #reconstructEdgeLists()}. The list is
+   * saved with the graph, so the order is kept when loaded.
+   */
+  private static List<Edge> edgesGroupedByFromVertex(Graph graph) {
+    var edges = new ArrayList<Edge>();
+    for (Vertex v : graph.getVertices()) {
+      edges.addAll(v.getOutgoing());
+    }
+    return edges;
+  }
+
+  /**
+   * Build the street spatial index to save with the graph. The index is built from the final
+   * graph, an index created while the graph was built may miss edges added after it.
+   */
+  private StreetSpatialIndex buildStreetSpatialIndex() {
+    long startTime = System.currentTimeMillis();
+    var index = StreetSpatialIndex.build(graph);
+    LOG.info(
+      "Street spatial index built for saving: {} in {}",
+      index,
+      DurationUtils.msToSecondsStr(System.currentTimeMillis() - startTime)
+    );
+    return index;
+  }
+
+  /**
+   * The objects written to each section. The graph, the edges and the street spatial index must
+   * be in the same section to share the vertices and edges.
+   */
+  private List<Object> sectionContent(
+    Section section,
+    @Nullable StreetSpatialIndex streetSpatialIndex
+  ) {
+    return switch (section) {
+      case SITES -> List.of(timetableRepository.getSiteRepository());
+      // The street spatial index is null if it is not saved
+      case STREETS -> Arrays.asList(graph, edges, streetSpatialIndex);
+      case TRANSIT -> List.of(timetableRepository, allTransitSubModes, routingTripPatternCounter);
+      // Some of these may be null
+      case OTHER -> Arrays.asList(
+        worldEnvelopeRepository,
+        buildConfig,
+        routerConfig,
+        issueSummary,
+        emissionsDataModel,
+        stopConsolidationRepository,
+        streetLimitationParameters
+      );
+    };
+  }
+
   private static void logSerializationCompleteStatus(
     Graph graph,
     TimetableRepository timetableRepository
@@ -275,4 +679,14 @@ public class SerializedGraphObject implements Serializable {
       nTransfers
     );
   }
+
+  /** Open the sections of a graph file with the compression and inflater pool of the file. */
+  private record ChunkReader(
+    GraphFileCompression compression,
+    @Nullable ExecutorService inflaterPool
+  ) {
+    ChunkedInputStream open(DataInputStream in) {
+      return new ChunkedInputStream(in, compression, inflaterPool);
+    }
+  }
 }
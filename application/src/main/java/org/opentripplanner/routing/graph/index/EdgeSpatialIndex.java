@@ -1,8 +1,10 @@
 package org.opentripplanner.routing.graph.index;
 
+import java.util.Collection;
 import java.util.stream.Stream;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.LineString;
+import org.opentripplanner.framework.geometry.CopyOnWriteSpatialIndex;
 import org.opentripplanner.framework.geometry.HashGridSpatialIndex;
 import org.opentripplanner.routing.linking.Scope;
 import org.opentripplanner.street.model.edge.Edge;
@@ -14,14 +16,15 @@ import org.opentripplanner.street.model.edge.Edge;
  * the permanent index and inserts into the realtime index REQUEST: Looks at both the permanent and
  * realtime indexes and does not insert into any index
  * <p>
- * NOTES ON CONCURRENCY: It is possible that an A Star search would find an edge in the
- * realTimeIndex which is then removed before the actual routing starts. This could result in a
- * NullPointerException on the from/to vertex of the Edge being routed on. This happens seldom
- * enough that we have not accounted for it.
+ * NOTES ON CONCURRENCY: The permanent index is only modified while the graph is built. The
+ * realtime index is modified by real-time updaters while requests are linked and routed, so it is a
+ * {@link CopyOnWriteSpatialIndex}. Each query sees one consistent version of the realtime index,
+ * without locking, and edges removed as a group by {@link #remove(Collection, Scope)} disappear
+ * from the index at the same time.
  * <p>
- * A simple way to solve this, if needed, would be to just rerun the search in case on an exception.
- * A more complete solution would have to take into account concurrency not only for the spatial
- * index, but for the entire street graph, as an edge could be removed in the middle of routing.
+ * A search could still find an edge in the realtime index which is removed from the graph before
+ * the routing is done with it. The edge keeps its from/to vertices when it is removed, so this
+ * only means that the search uses an edge which is no longer in the graph.
  * <p>
  * It is also worth noting that the entire reason we have the realTimeIndex in the first place is so
  * that the origin/destination coordinates of a search can connect directly to the edges being split
@@ -32,22 +35,71 @@ import org.opentripplanner.street.model.edge.Edge;
  */
 public class EdgeSpatialIndex {
 
-  private final HashGridSpatialIndex<Edge> permanentEdgeIndex = new HashGridSpatialIndex<>();
+  private final HashGridSpatialIndex<Edge> permanentEdgeIndex;
 
-  private final HashGridSpatialIndex<Edge> realTimeEdgeIndex = new HashGridSpatialIndex<>();
+  private final CopyOnWriteSpatialIndex<Edge> realTimeEdgeIndex = new CopyOnWriteSpatialIndex<>();
 
-  public void insert(LineString lineString, Object obj, Scope scope) {
+  /** Incremented on each change to the permanent index, which is not thread-safe itself. */
+  private volatile long permanentVersion;
+
+  public EdgeSpatialIndex() {
+    this(new HashGridSpatialIndex<>());
+  }
+
+  /** Create the index with a permanent index saved with the graph. */
+  EdgeSpatialIndex(HashGridSpatialIndex<Edge> permanentEdgeIndex) {
+    this.permanentEdgeIndex = permanentEdgeIndex;
+  }
+
+  public void insert(LineString lineString, Edge edge, Scope scope) {
+    switch (scope) {
+      case PERMANENT -> {
+        permanentEdgeIndex.insert(lineString, edge);
+        ++permanentVersion;
+      }
+      case REALTIME -> realTimeEdgeIndex.insert(lineString, edge);
+      case REQUEST -> throw new IllegalArgumentException();
+    }
+  }
+
+  /**
+   * Insert all edges by their geometry. In the realtime scope the edges are inserted as one change.
+   */
+  public void insert(Collection<Edge> edges, Scope scope) {
+    switch (scope) {
+      case PERMANENT -> {
+        edges.forEach(e -> permanentEdgeIndex.insert(e.getGeometry(), e));
+        ++permanentVersion;
+      }
+      case REALTIME -> realTimeEdgeIndex.insertAll(edges, Edge::getGeometry);
+      case REQUEST -> throw new IllegalArgumentException();
+    }
+  }
+
+  public void remove(Envelope envelope, Edge edge, Scope scope) {
     switch (scope) {
-      case PERMANENT -> permanentEdgeIndex.insert(lineString, obj);
-      case REALTIME -> realTimeEdgeIndex.insert(lineString, obj);
+      case PERMANENT -> {
+        permanentEdgeIndex.remove(envelope, edge);
+        ++permanentVersion;
+      }
+      case REALTIME -> realTimeEdgeIndex.remove(envelope, edge);
       case REQUEST -> throw new IllegalArgumentException();
     }
   }
 
-  public void remove(Envelope envelope, final Object item, Scope scope) {
+  /**
+   * Remove all edges with a geometry. In the realtime scope the edges are removed as one change.
+   */
+  public void remove(Collection<Edge> edges, Scope scope) {
+    var indexed = edges.stream().filter(e -> e.getGeometry() != null).toList();
     switch (scope) {
-      case PERMANENT -> permanentEdgeIndex.remove(envelope, item);
-      case REALTIME -> realTimeEdgeIndex.remove(envelope, item);
+      case PERMANENT -> {
+        indexed.forEach(e -> permanentEdgeIndex.remove(e.getGeometry().getEnvelopeInternal(), e));
+        ++permanentVersion;
+      }
+      case REALTIME -> realTimeEdgeIndex.removeAll(indexed, e ->
+        e.getGeometry().getEnvelopeInternal()
+      );
       case REQUEST -> throw new IllegalArgumentException();
     }
   }
@@ -62,7 +114,28 @@ public class EdgeSpatialIndex {
     };
   }
 
+  /**
+   * The version of the index. It changes each time edges are inserted or removed in the permanent
+   * or realtime scope, so it can be used to invalidate results derived from the index.
+   */
+  public long version() {
+    return permanentVersion + realTimeEdgeIndex.version();
+  }
+
+  /**
+   * Like {@link #version()}, but changes in the realtime scope only change it if they touch the
+   * given envelope.
+   */
+  public long version(Envelope envelope) {
+    return permanentVersion + realTimeEdgeIndex.version(envelope);
+  }
+
   public void compact() {
     permanentEdgeIndex.compact();
   }
+
+  /** The permanent index, used to save it with the graph. */
+  HashGridSpatialIndex<Edge> permanentIndex() {
+    return permanentEdgeIndex;
+  }
 }
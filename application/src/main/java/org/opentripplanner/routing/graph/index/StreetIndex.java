@@ -13,7 +13,7 @@ import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.LineString;
 import org.opentripplanner.framework.geometry.GeometryUtils;
-import org.opentripplanner.framework.geometry.HashGridSpatialIndex;
+import org.opentripplanner.framework.geometry.PackedHilbertRTree;
 import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
 import org.opentripplanner.framework.geometry.SplitLineString;
 import org.opentripplanner.framework.i18n.I18NString;
@@ -69,19 +69,41 @@ public class StreetIndex {
   private final Map<FeedScopedId, StationCentroidVertex> stationCentroidVertices;
 
   private final EdgeSpatialIndex edgeSpatialIndex;
-  private final HashGridSpatialIndex<Vertex> verticesTree;
+  private final PackedHilbertRTree<Vertex> verticesTree;
 
   /**
    * Should only be called by the graph.
    */
   public StreetIndex(Graph graph, SiteRepository siteRepository) {
+    this(graph, siteRepository, null);
+  }
+
+  /**
+   * Should only be called by the graph. The saved spatial indexes are used if they match the
+   * graph, otherwise the indexes are built.
+   */
+  public StreetIndex(
+    Graph graph,
+    SiteRepository siteRepository,
+    @Nullable StreetSpatialIndex savedSpatialIndex
+  ) {
     this.siteRepository = siteRepository;
-    this.edgeSpatialIndex = new EdgeSpatialIndex();
-    this.verticesTree = new HashGridSpatialIndex<>();
+    if (savedSpatialIndex != null && savedSpatialIndex.matches(graph)) {
+      LOG.info("Using the street spatial index saved with the graph: {}", savedSpatialIndex);
+      this.edgeSpatialIndex = new EdgeSpatialIndex(savedSpatialIndex.edges());
+      this.verticesTree = savedSpatialIndex.vertices();
+    } else {
+      if (savedSpatialIndex != null) {
+        LOG.info(
+          "The street spatial index saved with the graph does not match the graph, rebuilding it."
+        );
+      }
+      this.edgeSpatialIndex = new EdgeSpatialIndex();
+      this.verticesTree = indexVertices(graph.getVertices(), edgeSpatialIndex);
+    }
     this.vertexLinker = new VertexLinker(graph, siteRepository, edgeSpatialIndex);
     this.transitStopVertices = toImmutableMap(graph.getVerticesOfType(TransitStopVertex.class));
     this.stationCentroidVertices = createStationCentroidVertexMap(graph);
-    postSetup(graph.getVertices());
   }
 
   /**
@@ -156,10 +178,7 @@ public class StreetIndex {
    * Returns the vertices intersecting with the specified envelope.
    */
   public List<Vertex> getVerticesForEnvelope(Envelope envelope) {
-    List<Vertex> vertices = verticesTree.query(envelope);
-    // Here we assume vertices list modifiable
-    vertices.removeIf(v -> !envelope.contains(new Coordinate(v.getLon(), v.getLat())));
-    return vertices;
+    return verticesTree.query(envelope);
   }
 
   /**
@@ -432,17 +451,24 @@ public class StreetIndex {
     return nonTransitMode;
   }
 
-  private void postSetup(Collection<Vertex> vertices) {
+  /**
+   * Insert the outgoing edges of the vertices into the edge index and return a tree of the
+   * vertices.
+   */
+  static PackedHilbertRTree<Vertex> indexVertices(
+    Collection<Vertex> vertices,
+    EdgeSpatialIndex edgeSpatialIndex
+  ) {
     var progress = ProgressTracker.track("Index street vertex", 1000, vertices.size());
     LOG.info(progress.startMessage());
 
+    var verticesTreeBuilder = PackedHilbertRTree.<Vertex>of();
     for (Vertex gv : vertices) {
       for (Edge e : gv.getOutgoing()) {
         LineString geometry = edgeGeometryOrStraightLine(e);
         edgeSpatialIndex.insert(geometry, e, Scope.PERMANENT);
       }
-      Envelope env = new Envelope(gv.getCoordinate());
-      verticesTree.insert(env, gv);
+      verticesTreeBuilder.add(gv.getCoordinate(), gv);
 
       //noinspection Convert2MethodRef
       progress.step(m -> LOG.info(m));
@@ -450,8 +476,9 @@ public class StreetIndex {
 
     // Trim the sizes of the indices
     edgeSpatialIndex.compact();
-    verticesTree.compact();
+    var verticesTree = verticesTreeBuilder.build();
     LOG.info(progress.completeMessage());
+    return verticesTree;
   }
 
   private static Map<FeedScopedId, TransitStopVertex> toImmutableMap(
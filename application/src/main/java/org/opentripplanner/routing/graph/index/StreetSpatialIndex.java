@@ -0,0 +1,41 @@
+package org.opentripplanner.routing.graph.index;
+
+import org.opentripplanner.framework.geometry.HashGridSpatialIndex;
+import org.opentripplanner.framework.geometry.PackedHilbertRTree;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * The spatial indexes of the {@link StreetIndex}, built when the graph is saved so they do not
+ * have to be rebuilt when the graph is loaded. The number of vertices and edges of the graph is
+ * kept with the indexes. If the graph is changed after it is loaded, for example when transit is
+ * added to a street graph, the indexes are rebuilt.
+ */
+public record StreetSpatialIndex(
+  HashGridSpatialIndex<Edge> edges,
+  PackedHilbertRTree<Vertex> vertices,
+  int vertexCount,
+  int edgeCount
+) {
+  public static StreetSpatialIndex build(Graph graph) {
+    var edgeSpatialIndex = new EdgeSpatialIndex();
+    var vertices = StreetIndex.indexVertices(graph.getVertices(), edgeSpatialIndex);
+    return new StreetSpatialIndex(
+      edgeSpatialIndex.permanentIndex(),
+      vertices,
+      graph.countVertices(),
+      graph.countEdges()
+    );
+  }
+
+  /** Return {@code true} if the graph has the same vertices and edges as when it was saved. */
+  boolean matches(Graph graph) {
+    return graph.countVertices() == vertexCount && graph.countEdges() == edgeCount;
+  }
+
+  @Override
+  public String toString() {
+    return "StreetSpatialIndex{vertices: " + vertexCount + ", edges: " + edgeCount + "}";
+  }
+}
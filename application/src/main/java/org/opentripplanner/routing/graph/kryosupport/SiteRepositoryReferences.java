@@ -0,0 +1,139 @@
+package org.opentripplanner.routing.graph.kryosupport;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.serializers.FieldSerializer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import org.opentripplanner.transit.model.framework.AbstractTransitEntity;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.site.AreaStop;
+import org.opentripplanner.transit.model.site.BoardingArea;
+import org.opentripplanner.transit.model.site.GroupOfStations;
+import org.opentripplanner.transit.model.site.GroupStop;
+import org.opentripplanner.transit.model.site.MultiModalStation;
+import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.transit.model.site.Station;
+import org.opentripplanner.transit.service.SiteRepository;
+
+/**
+ * Serializers for the parts of the graph file which are written in a separate Kryo stream from the
+ * {@link SiteRepository}. The stops, stations and other entities of the site repository are
+ * written as references, using their ids, and resolved against the site repository when read. This
+ * keeps the identity of the entities shared between the sections.
+ * <p>
+ * An entity which is not part of the site repository is written in full.
+ */
+public final class SiteRepositoryReferences {
+
+  private SiteRepositoryReferences() {}
+
+  /**
+   * Register the reference serializers. The same site repository must be used when writing and
+   * reading, the site repository saved in the graph file or the one loaded from it.
+   */
+  public static void register(Kryo kryo, SiteRepository siteRepository) {
+    kryo.register(SiteRepository.class, new SiteRepositorySerializer(siteRepository));
+    register(kryo, RegularStop.class, siteRepository.listRegularStops());
+    register(kryo, AreaStop.class, siteRepository.listAreaStops());
+    register(kryo, GroupStop.class, siteRepository.listGroupStops());
+    register(kryo, Station.class, siteRepository.listStations());
+    register(kryo, MultiModalStation.class, siteRepository.listMultiModalStations());
+    register(kryo, GroupOfStations.class, siteRepository.listGroupOfStations());
+    register(
+      kryo,
+      BoardingArea.class,
+      siteRepository
+        .listRegularStops()
+        .stream()
+        .flatMap(it -> it.getBoardingAreas().stream())
+        .toList()
+    );
+  }
+
+  private static <T extends AbstractTransitEntity<?, ?>> void register(
+    Kryo kryo,
+    Class<T> type,
+    Collection<T> entities
+  ) {
+    var entitiesById = new HashMap<FeedScopedId, T>();
+    for (T it : entities) {
+      entitiesById.put(it.getId(), it);
+    }
+    kryo.register(type, new EntityReferenceSerializer<>(kryo, type, entitiesById));
+  }
+
+  /**
+   * Write a flag telling if the entity is a reference, followed by the id or the entity itself.
+   */
+  private static class EntityReferenceSerializer<T extends AbstractTransitEntity<?, ?>>
+    extends Serializer<T> {
+
+    private final Map<FeedScopedId, T> entitiesById;
+    private final FieldSerializer<T> fieldSerializer;
+
+    private EntityReferenceSerializer(Kryo kryo, Class<T> type, Map<FeedScopedId, T> entitiesById) {
+      this.entitiesById = entitiesById;
+      this.fieldSerializer = new FieldSerializer<>(kryo, type);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, T entity) {
+      var id = entity.getId();
+      boolean isReference = entitiesById.get(id) == entity;
+      output.writeBoolean(isReference);
+      if (isReference) {
+        output.writeString(id.getFeedId());
+        output.writeString(id.getId());
+      } else {
+        fieldSerializer.write(kryo, output, entity);
+      }
+    }
+
+    @Override
+    public T read(Kryo kryo, Input input, Class<? extends T> type) {
+      if (!input.readBoolean()) {
+        return fieldSerializer.read(kryo, input, type);
+      }
+      String feedId = input.readString();
+      String id = input.readString();
+      T entity = entitiesById.get(new FeedScopedId(feedId, id));
+      if (entity == null) {
+        throw new KryoException(
+          "The %s %s:%s is not found in the site repository.".formatted(
+              type.getSimpleName(),
+              feedId,
+              id
+            )
+        );
+      }
+      return entity;
+    }
+  }
+
+  /** The site repository itself is written as a reference, no data is written. */
+  private static class SiteRepositorySerializer extends Serializer<SiteRepository> {
+
+    private final SiteRepository siteRepository;
+
+    private SiteRepositorySerializer(SiteRepository siteRepository) {
+      this.siteRepository = siteRepository;
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, SiteRepository object) {
+      if (object != siteRepository) {
+        throw new KryoException("Only the site repository saved in the graph can be referenced.");
+      }
+    }
+
+    @Override
+    public SiteRepository read(Kryo kryo, Input input, Class<? extends SiteRepository> type) {
+      return siteRepository;
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package org.opentripplanner.routing.graph.kryosupport;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.opentripplanner.model.PathTransfer;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.transit.model.site.StopLocation;
+
+/**
+ * A serializer for the {@link PathTransfer}s, which are written in a separate Kryo stream from the
+ * street graph. The edges of a transfer are written as indexes into the list of edges saved with
+ * the street graph, and resolved against that list when read. Without this, each transfer would
+ * get its own copy of the edges and vertices of its path when loaded, not the edges of the graph.
+ * <p>
+ * The edges of a transfer which are not all in the list of edges are written in full.
+ */
+public final class StreetEdgeReferences {
+
+  private static final int NO_EDGES = 0;
+  private static final int EDGE_REFERENCES = 1;
+  private static final int EDGES_IN_FULL = 2;
+
+  private StreetEdgeReferences() {}
+
+  /**
+   * Register the serializer used to write the given transfers. Only the edges of the transfers are
+   * indexed, not all edges of the graph.
+   *
+   * @param edges the edges, in the order they are saved with the street graph
+   */
+  public static void registerForWriting(
+    Kryo kryo,
+    List<Edge> edges,
+    Collection<PathTransfer> transfers
+  ) {
+    Set<Edge> transferEdges = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (PathTransfer transfer : transfers) {
+      if (transfer.getEdges() != null) {
+        transferEdges.addAll(transfer.getEdges());
+      }
+    }
+    Map<Edge, Integer> indexes = new IdentityHashMap<>();
+    for (int i = 0; i < edges.size(); ++i) {
+      if (transferEdges.contains(edges.get(i))) {
+        indexes.put(edges.get(i), i);
+      }
+    }
+    kryo.register(PathTransfer.class, new PathTransferSerializer(indexes, null));
+  }
+
+  /**
+   * Register the serializer used to read the transfers. The edges are only requested when the
+   * first transfer with edges is read, so the street graph can be read in parallel until then.
+   *
+   * @param edges the edges, in the order they are saved with the street graph
+   */
+  public static void registerForReading(Kryo kryo, Supplier<List<Edge>> edges) {
+    kryo.register(PathTransfer.class, new PathTransferSerializer(null, edges));
+  }
+
+  private static class PathTransferSerializer extends Serializer<PathTransfer> {
+
+    @Nullable
+    private final Map<Edge, Integer> indexes;
+
+    @Nullable
+    private final Supplier<List<Edge>> edgeSupplier;
+
+    @Nullable
+    private List<Edge> edges;
+
+    private PathTransferSerializer(
+      @Nullable Map<Edge, Integer> indexes,
+      @Nullable Supplier<List<Edge>> edgeSupplier
+    ) {
+      this.indexes = indexes;
+      this.edgeSupplier = edgeSupplier;
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, PathTransfer transfer) {
+      kryo.writeClassAndObject(output, transfer.from);
+      kryo.writeClassAndObject(output, transfer.to);
+      output.writeDouble(transfer.getDistanceMeters());
+      var transferEdges = transfer.getEdges();
+      if (transferEdges == null) {
+        output.writeVarInt(NO_EDGES, true);
+        return;
+      }
+      var edgeIndexes = indexesOf(transferEdges);
+      if (edgeIndexes == null) {
+        output.writeVarInt(EDGES_IN_FULL, true);
+        kryo.writeObject(output, new ArrayList<>(transferEdges));
+        return;
+      }
+      output.writeVarInt(EDGE_REFERENCES, true);
+      output.writeVarInt(edgeIndexes.length, true);
+      for (int it : edgeIndexes) {
+        output.writeVarInt(it, true);
+      }
+    }
+
+    @Override
+    public PathTransfer read(Kryo kryo, Input input, Class<? extends PathTransfer> type) {
+      var from = (StopLocation) kryo.readClassAndObject(input);
+      var to = (StopLocation) kryo.readClassAndObject(input);
+      double distanceMeters = input.readDouble();
+      int edgesType = input.readVarInt(true);
+      List<Edge> transferEdges = switch (edgesType) {
+        case NO_EDGES -> null;
+        case EDGES_IN_FULL -> {
+          //noinspection unchecked
+          yield kryo.readObject(input, ArrayList.class);
+        }
+        case EDGE_REFERENCES -> {
+          var edges = edges();
+          int size = input.readVarInt(true);
+          var result = new ArrayList<Edge>(size);
+          for (int i = 0; i < size; ++i) {
+            result.add(edges.get(input.readVarInt(true)));
+          }
+          yield result;
+        }
+        default -> throw new KryoException("Unknown transfer edges type: " + edgesType);
+      };
+      return new PathTransfer(from, to, distanceMeters, transferEdges);
+    }
+
+    /** Return the indexes of all the edges, or {@code null} if one of them is not indexed. */
+    @Nullable
+    private int[] indexesOf(List<Edge> transferEdges) {
+      var result = new int[transferEdges.size()];
+      for (int i = 0; i < result.length; ++i) {
+        var index = indexes.get(transferEdges.get(i));
+        if (index == null) {
+          return null;
+        }
+        result[i] = index;
+      }
+      return result;
+    }
+
+    private List<Edge> edges() {
+      if (edges == null) {
+        edges = edgeSupplier.get();
+      }
+      return edges;
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package org.opentripplanner.routing.linking;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.List;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.search.TraverseModeSet;
+
+/**
+ * A bounded cache of the street edges a request location is linked to. Clients send many requests
+ * from and to the same places, and without the cache each of them repeats the spatial index query
+ * and the distance calculation to all candidate edges.
+ * <p>
+ * The cache is keyed on the coordinate, rounded to about one centimeter, and the traverse modes.
+ * Each entry holds the version of the edge index around the location when it was computed, and the
+ * entry is ignored when the edges in that area change. Changes elsewhere in the graph do not
+ * affect the entry. Only the selection of edges is cached: the edges are still split at the exact
+ * position of each location, and new temporary vertices are created for each request.
+ */
+public final class SnappedLocationCache {
+
+  /** Coordinates are rounded to 7 decimals, approximately 1 centimeter. */
+  private static final double COORDINATE_FACTOR = 10_000_000.0;
+
+  public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+  @Nullable
+  private final Cache<Key, Entry> cache;
+
+  public SnappedLocationCache() {
+    this(DEFAULT_MAXIMUM_SIZE);
+  }
+
+  /**
+   * @param maximumSize the maximum number of locations to cache, the cache is disabled if this is
+   *                    zero.
+   */
+  public SnappedLocationCache(int maximumSize) {
+    this.cache =
+      maximumSize > 0
+        ? CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build()
+        : null;
+  }
+
+  /**
+   * The underlying cache, used to bind cache metrics. Returns {@code null} if the cache is
+   * disabled.
+   */
+  @Nullable
+  public Cache<?, ?> getCache() {
+    return cache;
+  }
+
+  public boolean isEnabled() {
+    return cache != null;
+  }
+
+  /**
+   * Return the cached edges for the given location, or find them using the given {@code search}
+   * and cache the result. Cached edges which no longer are traversable or part of the graph make
+   * the entry invalid.
+   *
+   * @param indexVersion the version of the edge index in the area searched around the location
+   */
+  List<StreetEdge> getOrFind(
+    Coordinate coordinate,
+    TraverseModeSet traverseModes,
+    long indexVersion,
+    Supplier<List<StreetEdge>> search
+  ) {
+    if (cache == null) {
+      return search.get();
+    }
+    var key = new Key(
+      Math.round(coordinate.x * COORDINATE_FACTOR),
+      Math.round(coordinate.y * COORDINATE_FACTOR),
+      // The mode set is mutable, so the key keeps its own copy
+      traverseModes.clone()
+    );
+    var entry = cache.getIfPresent(key);
+    if (entry != null && entry.isValid(traverseModes, indexVersion)) {
+      return entry.edges;
+    }
+    var edges = List.copyOf(search.get());
+    cache.put(key, new Entry(indexVersion, edges));
+    return edges;
+  }
+
+  long size() {
+    return cache == null ? 0 : cache.size();
+  }
+
+  private record Key(long x, long y, TraverseModeSet traverseModes) {}
+
+  private record Entry(long indexVersion, List<StreetEdge> edges) {
+    boolean isValid(TraverseModeSet traverseModes, long currentIndexVersion) {
+      if (indexVersion != currentIndexVersion) {
+        return false;
+      }
+      for (StreetEdge edge : edges) {
+        // A removed edge is expected here, so the silent check is used, not isReachableFromGraph
+        if (!edge.canTraverse(traverseModes) || !VertexLinker.isConnectedToGraph(edge)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -7,6 +7,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
@@ -74,6 +75,9 @@ public class VertexLinker {
   private final SiteRepository siteRepository;
   private final VertexFactory vertexFactory;
 
+  /** The edges request locations are linked to, see {@link SnappedLocationCache}. */
+  private volatile SnappedLocationCache snappedLocationCache = new SnappedLocationCache();
+
   // TODO Temporary code until we refactor WalkableAreaBuilder  (#3152)
   private boolean addExtraEdgesToAreas = true;
 
@@ -101,6 +105,42 @@ public class VertexLinker {
     link(vertex, traverseModes, direction, Scope.PERMANENT, edgeFunction);
   }
 
+  /**
+   * Link each of the vertices permanently, with the same result as calling
+   * {@link #linkVertexPermanently} for each vertex in the given order.
+   * <p>
+   * Searching for the closest edges is the expensive part of linking, so it is done in parallel
+   * for all vertices before the graph is modified. The vertices are then linked one by one, in
+   * order. If one of the edges found for a vertex has been split while linking a previous vertex,
+   * the search is repeated for that vertex. The edges created by a split are never closer to a
+   * vertex than the edge they replace, so no other search result can change.
+   *
+   * @param onVertexLinked called after each vertex is linked, for progress reporting
+   */
+  public void linkVerticesPermanently(
+    List<? extends Vertex> vertices,
+    TraverseModeSet traverseModes,
+    LinkingDirection direction,
+    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction,
+    Runnable onVertexLinked
+  ) {
+    // The graph is not modified while searching, so the searches are independent of each other
+    List<List<StreetEdge>> closestEdges = vertices
+      .parallelStream()
+      .map(v -> findClosestEdgesWithinMaxRadius(v, traverseModes, Scope.PERMANENT))
+      .toList();
+
+    for (int i = 0; i < vertices.size(); i++) {
+      Vertex vertex = vertices.get(i);
+      List<StreetEdge> edges = closestEdges.get(i);
+      if (!edges.stream().allMatch(VertexLinker::isConnectedToGraph)) {
+        edges = findClosestEdgesWithinMaxRadius(vertex, traverseModes, Scope.PERMANENT);
+      }
+      link(vertex, edges, direction, Scope.PERMANENT, edgeFunction);
+      onVertexLinked.run();
+    }
+  }
+
   public DisposableEdgeCollection linkVertexForRealTime(
     Vertex vertex,
     TraverseModeSet traverseModes,
@@ -126,10 +166,26 @@ public class VertexLinker {
     }
   }
 
+  /**
+   * Remove the edges from the index. In the realtime scope, all edges are removed in one change,
+   * so concurrent requests see either all or none of them.
+   */
+  public void removeEdgesFromIndex(Collection<Edge> edges, Scope scope) {
+    edgeSpatialIndex.remove(edges, scope);
+  }
+
   public void removePermanentEdgeFromIndex(Edge edge) {
     removeEdgeFromIndex(edge, Scope.PERMANENT);
   }
 
+  /**
+   * Replace the default cache of the edges request locations are linked to, with one configured
+   * for the server.
+   */
+  public void setSnappedLocationCache(SnappedLocationCache snappedLocationCache) {
+    this.snappedLocationCache = snappedLocationCache;
+  }
+
   // TODO Temporary code until we refactor WalkableAreaBuilder (#3152)
   public void setAddExtraEdgesToAreas(Boolean addExtraEdgesToAreas) {
     this.addExtraEdgesToAreas = addExtraEdgesToAreas;
@@ -182,6 +238,22 @@ public class VertexLinker {
     LinkingDirection direction,
     Scope scope,
     BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction
+  ) {
+    return link(
+      vertex,
+      findClosestEdges(vertex, traverseModes, scope),
+      direction,
+      scope,
+      edgeFunction
+    );
+  }
+
+  private DisposableEdgeCollection link(
+    Vertex vertex,
+    List<StreetEdge> closestEdges,
+    LinkingDirection direction,
+    Scope scope,
+    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction
   ) {
     DisposableEdgeCollection tempEdges = (scope != Scope.PERMANENT)
       ? new DisposableEdgeCollection(graph, scope)
@@ -190,23 +262,11 @@ public class VertexLinker {
     try {
       Set<StreetVertex> streetVertices = linkToStreetEdges(
         vertex,
-        traverseModes,
+        closestEdges,
         direction,
         scope,
-        INITIAL_SEARCH_RADIUS_METERS,
         tempEdges
       );
-      if (streetVertices.isEmpty()) {
-        streetVertices =
-          linkToStreetEdges(
-            vertex,
-            traverseModes,
-            direction,
-            scope,
-            MAX_SEARCH_RADIUS_METERS,
-            tempEdges
-          );
-      }
 
       for (StreetVertex streetVertex : streetVertices) {
         List<Edge> edges = edgeFunction.apply(vertex, streetVertex);
@@ -226,23 +286,57 @@ public class VertexLinker {
     return tempEdges;
   }
 
-  private Set<StreetVertex> linkToStreetEdges(
+  /**
+   * Find the closest edges, first within {@link #INITIAL_SEARCH_RADIUS_METERS} and then within
+   * {@link #MAX_SEARCH_RADIUS_METERS}. In the request scope the result is cached, since the same
+   * locations are linked again and again.
+   */
+  private List<StreetEdge> findClosestEdges(
+    Vertex vertex,
+    TraverseModeSet traverseModes,
+    Scope scope
+  ) {
+    if (scope != Scope.REQUEST) {
+      return findClosestEdgesWithinMaxRadius(vertex, traverseModes, scope);
+    }
+    return snappedLocationCache.getOrFind(
+      vertex.getCoordinate(),
+      traverseModes,
+      // The result depends only on the edges within the largest search radius
+      edgeSpatialIndex.version(searchEnvelope(vertex, MAX_SEARCH_RADIUS_METERS)),
+      () -> findClosestEdgesWithinMaxRadius(vertex, traverseModes, scope)
+    );
+  }
+
+  private List<StreetEdge> findClosestEdgesWithinMaxRadius(
+    Vertex vertex,
+    TraverseModeSet traverseModes,
+    Scope scope
+  ) {
+    var edges = findClosestEdgesWithinRadius(
+      vertex,
+      traverseModes,
+      scope,
+      INITIAL_SEARCH_RADIUS_METERS
+    );
+    if (edges.isEmpty()) {
+      edges = findClosestEdgesWithinRadius(vertex, traverseModes, scope, MAX_SEARCH_RADIUS_METERS);
+    }
+    return edges;
+  }
+
+  private List<StreetEdge> findClosestEdgesWithinRadius(
     Vertex vertex,
     TraverseModeSet traverseModes,
-    LinkingDirection direction,
     Scope scope,
-    int radiusMeters,
-    DisposableEdgeCollection tempEdges
+    int radiusMeters
   ) {
     final double radiusDeg = SphericalDistanceLibrary.metersToDegrees(radiusMeters);
 
-    Envelope env = new Envelope(vertex.getCoordinate());
+    Envelope env = searchEnvelope(vertex, radiusMeters);
 
     // Perform a simple local equirectangular projection, so distances are expressed in degrees latitude.
-    final double xscale = Math.cos(vertex.getLat() * Math.PI / 180);
-
-    // Expand more in the longitude direction than the latitude direction to account for converging meridians.
-    env.expandBy(radiusDeg / xscale, radiusDeg);
+    final double xscale = xScale(vertex);
 
     // Perform several transformations at once on the edges returned by the index. Only consider
     // street edges traversable by at least one of the given modes and are still present in the
@@ -258,21 +352,51 @@ public class VertexLinker {
       .toList();
 
     if (candidateEdges.isEmpty()) {
-      return Set.of();
+      return List.of();
     }
 
-    Set<DistanceTo<StreetEdge>> closestEdges = getClosestEdgesPerMode(
-      traverseModes,
-      candidateEdges
-    );
+    return getClosestEdgesPerMode(traverseModes, candidateEdges)
+      .stream()
+      .map(ce -> ce.item)
+      .toList();
+  }
+
+  private Set<StreetVertex> linkToStreetEdges(
+    Vertex vertex,
+    List<StreetEdge> closestEdges,
+    LinkingDirection direction,
+    Scope scope,
+    DisposableEdgeCollection tempEdges
+  ) {
+    final double xscale = xScale(vertex);
     Set<AreaEdgeList> linkedAreas = new HashSet<>();
     return closestEdges
       .stream()
-      .map(ce -> link(vertex, ce.item, xscale, scope, direction, tempEdges, linkedAreas))
+      .map(edge -> link(vertex, edge, xscale, scope, direction, tempEdges, linkedAreas))
       .filter(v -> v != null)
       .collect(Collectors.toSet());
   }
 
+  /**
+   * Same as {@link Edge#isReachableFromGraph()}, but without logging, since it is expected that
+   * edges are split and removed while linking.
+   */
+  static boolean isConnectedToGraph(Edge edge) {
+    return edge.getToVertex().getIncoming().contains(edge);
+  }
+
+  private static Envelope searchEnvelope(Vertex vertex, int radiusMeters) {
+    final double radiusDeg = SphericalDistanceLibrary.metersToDegrees(radiusMeters);
+    Envelope env = new Envelope(vertex.getCoordinate());
+    // Expand more in the longitude direction than the latitude direction to account for converging meridians.
+    env.expandBy(radiusDeg / xScale(vertex), radiusDeg);
+    return env;
+  }
+
+  private static double xScale(Vertex vertex) {
+    return Math.cos(vertex.getLat() * Math.PI / 180);
+  }
+
   /**
    * We need to get the closest edges per mode to be sure that we are linking to edges traversable
    * by all the specified modes. We use a set here to avoid duplicates in the case that edges are
@@ -438,13 +562,11 @@ public class VertexLinker {
       : originalEdge.splitNonDestructively(v, tempEdges, direction);
 
     if (scope == Scope.REALTIME || scope == Scope.PERMANENT) {
-      // update indices of new edges
-      if (newEdges.head() != null) {
-        edgeSpatialIndex.insert(newEdges.head().getGeometry(), newEdges.head(), scope);
-      }
-      if (newEdges.tail() != null) {
-        edgeSpatialIndex.insert(newEdges.tail().getGeometry(), newEdges.tail(), scope);
-      }
+      // update indices of new edges, both halves are published in the same version
+      List<Edge> indexed = Stream.of(newEdges.head(), newEdges.tail())
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
+      edgeSpatialIndex.insert(indexed, scope);
 
       if (scope == Scope.PERMANENT) {
         // remove original edges from the spatial index
@@ -476,7 +598,8 @@ public class VertexLinker {
         x,
         y,
         originalEdge,
-        direction == LinkingDirection.OUTGOING
+        direction == LinkingDirection.OUTGOING,
+        scope == Scope.REQUEST
       );
       tsv.setWheelchairAccessible(originalEdge.isWheelchairAccessible());
       v = tsv;
@@ -186,18 +186,12 @@ public class OTPMain {
   }
 
   private static void startOtpWebServer(CommandLineParameters params, ConstructApplication app) {
-    // Index graph for travel search
-    app.timetableRepository().index();
-    app.graph().index(app.timetableRepository().getSiteRepository());
+    // The graph is indexed for travel search when the server is created, see
+    // ConstructApplication#createGrizzlyServer()
 
     // publishing the config version info make it available to the APIs
     setOtpConfigVersionsOnServerInfo(app);
 
-    /* Start visualizer if requested. */
-    if (params.visualize) {
-      app.graphVisualizer().run();
-    }
-
     /* Start web server if requested. */
     // We could start the server first so it can report build/load progress to a load balancer.
     // This would also avoid the awkward call to set the router on the appConstruction after it's constructed.
@@ -205,6 +199,11 @@ public class OTPMain {
     if (params.doServe()) {
       GrizzlyServer grizzlyServer = app.createGrizzlyServer();
 
+      /* Start visualizer if requested, the graph is indexed when the server is created. */
+      if (params.visualize) {
+        app.graphVisualizer().run();
+      }
+
       registerShutdownHookToGracefullyShutDownServer(app.timetableRepository(), app.raptorConfig());
 
       // Loop to restart server on uncaught fatal exceptions.
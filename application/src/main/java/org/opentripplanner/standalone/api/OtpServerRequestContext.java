@@ -15,6 +15,7 @@ import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.inspector.raster.TileRendererManager;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.api.RoutingService;
@@ -97,6 +98,11 @@ public interface OtpServerRequestContext {
 
   TransitTuningParameters transitTuningParameters();
 
+  /**
+   * Cache of access/egress street search results, shared across requests.
+   */
+  AccessEgressCache accessEgressCache();
+
   RaptorTuningParameters raptorTuningParameters();
 
   List<RideHailingService> rideHailingServices();
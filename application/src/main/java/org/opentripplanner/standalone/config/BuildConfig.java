@@ -34,6 +34,7 @@ import org.opentripplanner.model.calendar.ServiceDateInterval;
 import org.opentripplanner.netex.config.NetexFeedParameters;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.fares.FareServiceFactory;
+import org.opentripplanner.routing.graph.GraphFileCompression;
 import org.opentripplanner.standalone.config.buildconfig.DemConfig;
 import org.opentripplanner.standalone.config.buildconfig.GtfsConfig;
 import org.opentripplanner.standalone.config.buildconfig.IslandPruningConfig;
@@ -112,6 +113,10 @@ public class BuildConfig implements OtpDataStoreConfig {
 
   public final boolean embedRouterConfig;
 
+  public final GraphFileCompression graphCompression;
+
+  public final boolean saveStreetIndex;
+
   public final boolean areaVisibility;
 
   public final boolean platformEntriesLinking;
@@ -158,6 +163,7 @@ public class BuildConfig implements OtpDataStoreConfig {
   public final OsmExtractParameters osmDefaults;
 
   public final List<RouteRequest> transferRequests;
+  public final boolean shareTransferSearches;
 
   public final int maxAreaNodes;
 
@@ -244,6 +250,31 @@ public class BuildConfig implements OtpDataStoreConfig {
           "configured over the wire."
         )
         .asBoolean(true);
+    graphCompression =
+      root
+        .of("graphCompression")
+        .since(V2_7)
+        .summary("The compression of the graph file.")
+        .description(
+          "The graph is written in chunks of 1 MB, which are compressed one by one. When the " +
+          "graph is loaded the chunks are decompressed in parallel, so the time to load a " +
+          "compressed graph is mostly limited by the time to read the file. Use " +
+          "`deflate-fast` if the graph is stored in the cloud or on a slow disk, and `none` " +
+          "if the graph is loaded from a fast local disk."
+        )
+        .asEnum(GraphFileCompression.NONE);
+    saveStreetIndex =
+      root
+        .of("saveStreetIndex")
+        .since(V2_7)
+        .summary("Save the spatial index of the streets with the graph.")
+        .description(
+          "The spatial index of the street edges and vertices is built when the graph is saved, " +
+          "and used when the graph is loaded instead of building it at startup. This makes the " +
+          "graph file larger. The index is rebuilt if the graph is changed after it is loaded, " +
+          "for example when transit is added to a saved street graph."
+        )
+        .asBoolean(false);
     includeEllipsoidToGeoidDifference =
       root
         .of("includeEllipsoidToGeoidDifference")
@@ -287,6 +318,21 @@ all of the elevation values in the street edges.
           "Transfers up to this duration with the default walk speed value will be pre-calculated and included in the Graph."
         )
         .asDuration(Duration.ofMinutes(30));
+    shareTransferSearches =
+      root
+        .of("shareTransferSearches")
+        .since(V2_7)
+        .summary("Search transfers once for all transfer requests with the same mode.")
+        .description(
+          "By default the transfers are searched once for each of the `transferRequests`. When " +
+          "this is enabled, the requests with the same transfer mode and wheelchair setting " +
+          "share one street search from each stop, with the preferences of the first of them. " +
+          "The paths found are kept for each request which can traverse them within " +
+          "`maxTransferDuration`. This makes the transfer generation faster when several " +
+          "requests use the same mode, but the paths are not always the best paths for the " +
+          "other requests."
+        )
+        .asBoolean(false);
     maxStopToShapeSnapDistance =
       root
         .of("maxStopToShapeSnapDistance")
@@ -1,18 +1,24 @@
 package org.opentripplanner.standalone.config.routerconfig;
 
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
 
+import java.io.File;
 import java.time.Duration;
 import java.util.List;
 import org.opentripplanner.framework.application.OtpAppException;
+import org.opentripplanner.routing.linking.SnappedLocationCache;
 import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
 import org.opentripplanner.standalone.server.OTPWebApplicationParameters;
 import org.opentripplanner.standalone.server.RequestTraceParameter;
+import org.opentripplanner.standalone.server.WarmupParameters;
 
 public class ServerConfig implements OTPWebApplicationParameters {
 
   private final Duration apiProcessingTimeout;
+  private final int snappedLocationCacheMaxSize;
   private final List<RequestTraceParameter> traceParameters;
+  private final WarmupParameters warmup;
 
   public ServerConfig(String parameterName, NodeAdapter root) {
     NodeAdapter c = root
@@ -42,6 +48,21 @@ The timeout is not enforced when the parallel routing OTP feature is in use.
         )
         .asDuration(Duration.ofSeconds(-1));
 
+    this.snappedLocationCacheMaxSize =
+      c
+        .of("snappedLocationCacheMaxSize")
+        .since(V2_7)
+        .summary("The maximum number of request locations to cache the closest street edges for.")
+        .description(
+          """
+Requests from and to the same location are linked to the same street edges. The edges found for
+a location are cached, and the cached edges are used until the streets around the location are
+changed by a real-time update. Coordinates are rounded to about one centimeter. The cache is
+disabled if this is `0`.
+"""
+        )
+        .asInt(SnappedLocationCache.DEFAULT_MAXIMUM_SIZE);
+
     this.traceParameters =
       c
         .of("traceParameters")
@@ -99,12 +120,67 @@ Only log4j and logback support this.
               .asBoolean(false)
           )
         );
+
+    this.warmup =
+      mapWarmup(
+        c
+          .of("warmup")
+          .since(V2_7)
+          .summary("Replay recorded requests when the server starts, before it is reported ready.")
+          .description(
+            """
+The first requests after startup run slowly, because the routing code is not yet compiled by
+the JIT. The warmup replays a sample of recorded GTFS GraphQL requests against the server, in
+parallel, until the time or request budget is used up. The actuator health endpoint reports the
+server as ready only when the warmup is complete. This requires the `GtfsGraphQlApi` feature.
+"""
+          )
+          .asObject()
+      );
+  }
+
+  private static WarmupParameters mapWarmup(NodeAdapter c) {
+    var dft = WarmupParameters.DEFAULT;
+    String requestsFile = c
+      .of("requestsFile")
+      .since(V2_7)
+      .summary("The file with the requests to replay.")
+      .description(
+        """
+The file must contain one GraphQL request body on each line, with the `query` and optionally
+the `variables` and the `operationName`, the same as the body of a POST request to the GTFS
+GraphQL API. The warmup is disabled if this is not set.
+"""
+      )
+      .asString(null);
+    return new WarmupParameters(
+      requestsFile == null ? null : new File(requestsFile),
+      c
+        .of("maxDuration")
+        .since(V2_7)
+        .summary("The maximum time to spend on the warmup.")
+        .asDuration(dft.maxDuration()),
+      c
+        .of("maxRequests")
+        .since(V2_7)
+        .summary("The maximum number of requests to replay, the requests are repeated if needed.")
+        .asInt(dft.maxRequests()),
+      c
+        .of("threads")
+        .since(V2_7)
+        .summary("The number of requests to replay in parallel.")
+        .asInt(dft.threads())
+    );
   }
 
   public Duration apiProcessingTimeout() {
     return apiProcessingTimeout;
   }
 
+  public int snappedLocationCacheMaxSize() {
+    return snappedLocationCacheMaxSize;
+  }
+
   public void validate(Duration streetRoutingTimeout) {
     if (
       !apiProcessingTimeout.isNegative() &&
@@ -124,4 +200,8 @@ Only log4j and logback support this.
   public List<RequestTraceParameter> traceParameters() {
     return traceParameters;
   }
+
+  public WarmupParameters warmup() {
+    return warmup;
+  }
 }
@@ -6,6 +6,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
 
 import java.time.Duration;
 import java.util.List;
@@ -29,6 +30,8 @@ public final class TransitRoutingConfig implements RaptorTuningParameters, Trans
   private final int searchThreadPoolSize;
   private final int transferCacheMaxSize;
   private final List<RouteRequest> transferCacheRequests;
+  private final int accessEgressCacheMaxSize;
+  private final Duration accessEgressCacheTimeToLive;
   private final List<Duration> pagingSearchWindowAdjustments;
 
   private final Map<StopTransferPriority, Integer> stopBoardAlightDuringTransferCost;
@@ -208,6 +211,34 @@ for more info."
         )
         .asDurations(PAGING_SEARCH_WINDOW_ADJUSTMENTS);
 
+    this.accessEgressCacheMaxSize =
+      c
+        .of("accessEgressCacheMaxSize")
+        .since(V2_7)
+        .summary("The maximum number of access/egress street search results to cache.")
+        .description(
+          """
+Access and egress street searches are cached and reused across requests. The searches are cached
+for each street vertex a location is linked to, so all locations along the same street, with the
+same mode and street preferences, share them. The cached paths are traversed again for each
+request. Searches renting or parking a vehicle are never cached, since they depend on real-time
+data. The cache is disabled if this is `0`.
+"""
+        )
+        .asInt(0);
+
+    this.accessEgressCacheTimeToLive =
+      c
+        .of("accessEgressCacheTimeToLive")
+        .since(V2_7)
+        .summary("How long a cached access/egress street search result is kept.")
+        .description(
+          "The cached paths are traversed again for each request, but changes to the street " +
+          "graph which give other paths, like time-dependent turn restrictions, are not visible " +
+          "before they expire."
+        )
+        .asDuration(Duration.ofMinutes(1));
+
     this.maxSearchWindow =
       c
         .of("maxSearchWindow")
@@ -273,6 +304,16 @@ for more info."
     return transferCacheRequests;
   }
 
+  @Override
+  public int accessEgressCacheMaxSize() {
+    return accessEgressCacheMaxSize;
+  }
+
+  @Override
+  public Duration accessEgressCacheTimeToLive() {
+    return accessEgressCacheTimeToLive;
+  }
+
   @Override
   public Duration maxSearchWindow() {
     return maxSearchWindow;
@@ -8,7 +8,10 @@ import org.opentripplanner.ext.emissions.EmissionsDataModel;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationRepository;
 import org.opentripplanner.framework.application.LogMDCSupport;
 import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.application.StartupTaskScheduler;
+import org.opentripplanner.framework.application.StartupTimeline;
 import org.opentripplanner.framework.logging.ProgressTracker;
+import org.opentripplanner.framework.time.DurationUtils;
 import org.opentripplanner.graph_builder.GraphBuilder;
 import org.opentripplanner.graph_builder.GraphBuilderDataSources;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
@@ -30,6 +33,7 @@ import org.opentripplanner.standalone.config.OtpConfig;
 import org.opentripplanner.standalone.config.RouterConfig;
 import org.opentripplanner.standalone.server.GrizzlyServer;
 import org.opentripplanner.standalone.server.OTPWebApplication;
+import org.opentripplanner.standalone.server.ServerWarmup;
 import org.opentripplanner.street.model.StreetLimitationParameters;
 import org.opentripplanner.street.model.elevation.ElevationUtils;
 import org.opentripplanner.transit.service.DefaultTransitService;
@@ -62,6 +66,7 @@ public class ConstructApplication {
   private final CommandLineParameters cli;
   private final GraphBuilderDataSources graphBuilderDataSources;
   private final ConstructApplicationFactory factory;
+  private StartupTimeline startupTimeline = StartupTimeline.EMPTY;
 
   /**
    * Create a new OTP configuration instance for a given directory.
@@ -149,41 +154,90 @@ public class ConstructApplication {
   private Application createApplication() {
     LOG.info("Wiring up and configuring server.");
     setupTransitRoutingServer();
-    return new OTPWebApplication(routerConfig().server(), this::createServerContext);
+    var warmup = new ServerWarmup(routerConfig().server().warmup(), this::createServerContext);
+    warmup.start();
+    return new OTPWebApplication(
+      routerConfig().server(),
+      this::createServerContext,
+      warmup,
+      startupTimeline
+    );
   }
 
+  /**
+   * Build the indexes and set up the services needed to route. The tasks run in parallel where
+   * they do not depend on each other, see {@link StartupTaskScheduler}.
+   */
   private void setupTransitRoutingServer() {
     enableRequestTraceLogging();
     createMetricsLogging();
 
-    creatTransitLayerForRaptor(timetableRepository(), routerConfig().transitTuningConfig());
-
-    /* Create updater modules from JSON config. */
-    UpdaterConfigurator.configure(
-      graph(),
-      realtimeVehicleRepository(),
-      vehicleRentalRepository(),
-      timetableRepository(),
-      routerConfig().updaterConfig()
-    );
-
-    initEllipsoidToGeoidDifference();
-
-    initializeTransferCache(routerConfig().transitTuningConfig(), timetableRepository());
+    var tasks = new StartupTaskScheduler()
+      .add("timetable-index", () -> timetableRepository().index())
+      .add("street-index", this::indexStreets)
+      .add(
+        "transit-layer",
+        () ->
+          creatTransitLayerForRaptor(timetableRepository(), routerConfig().transitTuningConfig()),
+        "timetable-index"
+      )
+      .add("ellipsoid-to-geoid-difference", this::initEllipsoidToGeoidDifference)
+      // Create updater modules from JSON config
+      .add(
+        "updaters",
+        () ->
+          UpdaterConfigurator.configure(
+            graph(),
+            realtimeVehicleRepository(),
+            vehicleRentalRepository(),
+            timetableRepository(),
+            routerConfig().updaterConfig()
+          ),
+        "street-index",
+        "transit-layer"
+      )
+      .add(
+        "transfer-cache",
+        () -> initializeTransferCache(routerConfig().transitTuningConfig(), timetableRepository()),
+        "transit-layer"
+      );
 
     if (OTPFeature.TransmodelGraphQlApi.isOn()) {
-      TransmodelAPI.setUp(
-        routerConfig().transmodelApi(),
-        timetableRepository(),
-        routerConfig().routingRequestDefaults()
+      tasks.add(
+        "transmodel-api",
+        () ->
+          TransmodelAPI.setUp(
+            routerConfig().transmodelApi(),
+            timetableRepository(),
+            routerConfig().routingRequestDefaults()
+          ),
+        "timetable-index"
       );
     }
 
     if (OTPFeature.SandboxAPIGeocoder.isOn()) {
-      LOG.info("Initializing geocoder");
-      // eagerly initialize the geocoder
-      this.factory.luceneIndex();
+      tasks.add(
+        "geocoder",
+        () -> {
+          LOG.info("Initializing geocoder...");
+          long startTime = System.currentTimeMillis();
+          // eagerly initialize the geocoder
+          this.factory.luceneIndex();
+          LOG.info(
+            "Initializing geocoder complete in {}.",
+            DurationUtils.msToSecondsStr(System.currentTimeMillis() - startTime)
+          );
+        },
+        "timetable-index"
+      );
     }
+
+    startupTimeline = tasks.run();
+  }
+
+  private void indexStreets() {
+    graph().index(timetableRepository().getSiteRepository());
+    graph().getLinker().setSnappedLocationCache(factory.snappedLocationCache());
   }
 
   private void initEllipsoidToGeoidDifference() {
@@ -209,6 +263,7 @@ public class ConstructApplication {
       );
     }
     LOG.info("Creating transit layer for Raptor routing.");
+    long startTime = System.currentTimeMillis();
     timetableRepository.setTransitLayer(
       TransitLayerMapper.map(tuningParameters, timetableRepository)
     );
@@ -218,6 +273,10 @@ public class ConstructApplication {
     timetableRepository.setTransitLayerUpdater(
       new TransitLayerUpdater(new DefaultTransitService(timetableRepository))
     );
+    LOG.info(
+      "Creating transit layer for Raptor routing complete in {}.",
+      DurationUtils.msToSecondsStr(System.currentTimeMillis() - startTime)
+    );
   }
 
   public static void initializeTransferCache(
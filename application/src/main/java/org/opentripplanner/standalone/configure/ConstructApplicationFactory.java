@@ -16,6 +16,7 @@ import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.linking.SnappedLocationCache;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleRepository;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleService;
 import org.opentripplanner.service.realtimevehicles.configure.RealtimeVehicleRepositoryModule;
@@ -85,6 +86,8 @@ public interface ConstructApplicationFactory {
 
   MetricsLogging metricsLogging();
 
+  SnappedLocationCache snappedLocationCache();
+
   @Nullable
   StopConsolidationRepository stopConsolidationRepository();
 
@@ -3,6 +3,7 @@ package org.opentripplanner.standalone.configure;
 import dagger.Module;
 import dagger.Provides;
 import io.micrometer.core.instrument.Metrics;
+import jakarta.inject.Singleton;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.opentripplanner.astar.spi.TraverseVisitor;
@@ -12,8 +13,10 @@ import org.opentripplanner.ext.interactivelauncher.api.LauncherRequestDecorator;
 import org.opentripplanner.ext.ridehailing.RideHailingService;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationService;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.linking.SnappedLocationCache;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleService;
 import org.opentripplanner.service.vehiclerental.VehicleRentalService;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeService;
@@ -31,6 +34,7 @@ public class ConstructApplicationModule {
   OtpServerRequestContext providesServerContext(
     RouterConfig routerConfig,
     RaptorConfig<TripSchedule> raptorConfig,
+    AccessEgressCache accessEgressCache,
     Graph graph,
     TransitService transitService,
     WorldEnvelopeService worldEnvelopeService,
@@ -50,6 +54,7 @@ public class ConstructApplicationModule {
       routerConfig.transitTuningConfig(),
       defaultRequest,
       raptorConfig,
+      accessEgressCache,
       graph,
       transitService,
       Metrics.globalRegistry,
@@ -67,6 +72,22 @@ public class ConstructApplicationModule {
     );
   }
 
+  @Provides
+  @Singleton
+  AccessEgressCache providesAccessEgressCache(RouterConfig routerConfig) {
+    var tuningConfig = routerConfig.transitTuningConfig();
+    return new AccessEgressCache(
+      tuningConfig.accessEgressCacheMaxSize(),
+      tuningConfig.accessEgressCacheTimeToLive()
+    );
+  }
+
+  @Provides
+  @Singleton
+  SnappedLocationCache providesSnappedLocationCache(RouterConfig routerConfig) {
+    return new SnappedLocationCache(routerConfig.server().snappedLocationCacheMaxSize());
+  }
+
   @Provides
   @Nullable
   TraverseVisitor<?, ?> traverseVisitor(@Nullable GraphVisualizer graphVisualizer) {
@@ -13,6 +13,7 @@ import org.opentripplanner.ext.stopconsolidation.StopConsolidationService;
 import org.opentripplanner.inspector.raster.TileRendererManager;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.api.RoutingService;
@@ -40,6 +41,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
   private final RouteRequest routeRequestDefaults;
   private final MeterRegistry meterRegistry;
   private final RaptorConfig<TripSchedule> raptorConfig;
+  private final AccessEgressCache accessEgressCache;
   private final TileRendererManager tileRendererManager;
   private final VectorTileConfig vectorTileConfig;
   private final FlexParameters flexParameters;
@@ -62,6 +64,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     RouteRequest routeRequestDefaults,
     MeterRegistry meterRegistry,
     RaptorConfig<TripSchedule> raptorConfig,
+    AccessEgressCache accessEgressCache,
     TileRendererManager tileRendererManager,
     VectorTileConfig vectorTileConfig,
     WorldEnvelopeService worldEnvelopeService,
@@ -80,6 +83,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     this.transitRoutingConfig = transitRoutingConfig;
     this.meterRegistry = meterRegistry;
     this.raptorConfig = raptorConfig;
+    this.accessEgressCache = accessEgressCache;
     this.tileRendererManager = tileRendererManager;
     this.vectorTileConfig = vectorTileConfig;
     this.vehicleRentalService = vehicleRentalService;
@@ -102,6 +106,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     TransitRoutingConfig transitRoutingConfig,
     RouteRequest routeRequestDefaults,
     RaptorConfig<TripSchedule> raptorConfig,
+    AccessEgressCache accessEgressCache,
     Graph graph,
     TransitService transitService,
     MeterRegistry meterRegistry,
@@ -124,6 +129,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
       routeRequestDefaults,
       meterRegistry,
       raptorConfig,
+      accessEgressCache,
       new TileRendererManager(graph, routeRequestDefaults.preferences()),
       vectorTileConfig,
       worldEnvelopeService,
@@ -196,6 +202,11 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     return transitRoutingConfig;
   }
 
+  @Override
+  public AccessEgressCache accessEgressCache() {
+    return accessEgressCache;
+  }
+
   @Override
   public RaptorTuningParameters raptorTuningParameters() {
     return transitRoutingConfig;
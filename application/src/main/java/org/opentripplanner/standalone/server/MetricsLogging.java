@@ -21,7 +21,9 @@ import java.util.Map;
 import java.util.concurrent.ForkJoinPool;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
+import org.opentripplanner.routing.linking.SnappedLocationCache;
 import org.opentripplanner.transit.service.TimetableRepository;
 
 /**
@@ -34,6 +36,8 @@ public class MetricsLogging {
   public MetricsLogging(
     TimetableRepository timetableRepository,
     RaptorConfig<TripSchedule> raptorConfig,
+    AccessEgressCache accessEgressCache,
+    SnappedLocationCache snappedLocationCache,
     DataImportIssueSummary issueSummary
   ) {
     new ClassLoaderMetrics().bindTo(Metrics.globalRegistry);
@@ -56,6 +60,22 @@ public class MetricsLogging {
       )
         .bindTo(Metrics.globalRegistry);
     }
+    if (accessEgressCache.isEnabled()) {
+      new GuavaCacheMetrics(
+        accessEgressCache.getCache(),
+        "accessEgressCache",
+        List.of(Tag.of("cache", "accessEgress"))
+      )
+        .bindTo(Metrics.globalRegistry);
+    }
+    if (snappedLocationCache.isEnabled()) {
+      new GuavaCacheMetrics(
+        snappedLocationCache.getCache(),
+        "snappedLocationCache",
+        List.of(Tag.of("cache", "snappedLocation"))
+      )
+        .bindTo(Metrics.globalRegistry);
+    }
     new ExecutorServiceMetrics(
       ForkJoinPool.commonPool(),
       "commonPool",
@@ -20,6 +20,7 @@ import org.opentripplanner.api.common.OTPExceptionMapper;
 import org.opentripplanner.apis.APIEndpoints;
 import org.opentripplanner.ext.restapi.serialization.JSONObjectMapperProvider;
 import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.application.StartupTimeline;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.slf4j.bridge.SLF4JBridgeHandler;
 
@@ -36,6 +37,10 @@ public class OTPWebApplication extends Application {
   /* This object groups together all the modules for a single running OTP server. */
   private final Supplier<OtpServerRequestContext> contextProvider;
 
+  private final ServerWarmup warmup;
+
+  private final StartupTimeline startupTimeline;
+
   private final List<Class<? extends ContainerResponseFilter>> customFilters;
 
   static {
@@ -48,9 +53,13 @@ public class OTPWebApplication extends Application {
 
   public OTPWebApplication(
     OTPWebApplicationParameters parameters,
-    Supplier<OtpServerRequestContext> contextProvider
+    Supplier<OtpServerRequestContext> contextProvider,
+    ServerWarmup warmup,
+    StartupTimeline startupTimeline
   ) {
     this.contextProvider = contextProvider;
+    this.warmup = warmup;
+    this.startupTimeline = startupTimeline;
     this.customFilters = createCustomFilters(parameters.traceParameters());
   }
 
@@ -103,7 +112,7 @@ public class OTPWebApplication extends Application {
         // Serialize POJOs (unannotated) JSON using Jackson
         new JSONObjectMapperProvider(),
         // Allow injecting the OTP server object into Jersey resource classes
-        makeBinder(contextProvider),
+        makeBinder(contextProvider, warmup, startupTimeline),
         // Add performance instrumentation of Jersey requests to micrometer
         getMetricsApplicationEventListener()
       )
@@ -130,16 +139,23 @@ public class OTPWebApplication extends Application {
    * resources. This should be registered in the ResourceConfig (Jersey) or Application (JAX-RS) as
    * a singleton. Jersey forces us to use injection to get application context into HTTP method
    * handlers, but in OTP we always just inject this OTP server context and grab anything else we
-   * need (graph and other application components) from this single object.
+   * need (graph and other application components) from this single object. The server warmup and
+   * the startup timeline are also injected, so the actuator API can report them.
    * <p>
    * More on custom injection in Jersey 2:
    * http://jersey.576304.n2.nabble.com/Custom-providers-in-Jersey-2-tp7580699p7580715.html
    */
-  private Binder makeBinder(Supplier<OtpServerRequestContext> contextProvider) {
+  private Binder makeBinder(
+    Supplier<OtpServerRequestContext> contextProvider,
+    ServerWarmup warmup,
+    StartupTimeline startupTimeline
+  ) {
     return new AbstractBinder() {
       @Override
       protected void configure() {
         bindFactory(contextProvider).to(OtpServerRequestContext.class);
+        bind(warmup).to(ServerWarmup.class);
+        bind(startupTimeline).to(StartupTimeline.class);
       }
     };
   }
@@ -0,0 +1,199 @@
+package org.opentripplanner.standalone.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.opentripplanner.apis.gtfs.GtfsGraphQLAPI;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.time.DurationUtils;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replay a sample of recorded GTFS GraphQL requests against the in-process API when the server
+ * starts. This lets the JIT compile the routing code before real traffic arrives. The requests
+ * are run on a few threads until the time or request budget is used up.
+ * <p>
+ * The health endpoint of the actuator API does not report the server as ready before the warmup
+ * is complete.
+ */
+public class ServerWarmup {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ServerWarmup.class);
+
+  /** The same limits as the defaults of the GTFS GraphQL API */
+  private static final int MAX_RESOLVES = 1_000_000;
+  private static final int TIMEOUT_MS = 30_000;
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final WarmupParameters parameters;
+  private final Supplier<OtpServerRequestContext> contextProvider;
+  private volatile boolean complete = false;
+
+  public ServerWarmup(
+    WarmupParameters parameters,
+    Supplier<OtpServerRequestContext> contextProvider
+  ) {
+    this.parameters = parameters;
+    this.contextProvider = contextProvider;
+  }
+
+  /**
+   * Start the warmup in a background thread. If the warmup is not enabled it is complete
+   * immediately.
+   */
+  public void start() {
+    if (!parameters.isEnabled()) {
+      complete = true;
+      return;
+    }
+    if (OTPFeature.GtfsGraphQlApi.isOff()) {
+      LOG.warn("Server warmup skipped, it requires the GtfsGraphQlApi feature.");
+      complete = true;
+      return;
+    }
+    List<WarmupRequest> requests;
+    try {
+      requests = readRequests(parameters.requestsFile());
+    } catch (IOException e) {
+      LOG.error("Server warmup skipped, unable to read {}", parameters.requestsFile(), e);
+      complete = true;
+      return;
+    }
+    if (requests.isEmpty()) {
+      LOG.warn("Server warmup skipped, no requests in {}", parameters.requestsFile());
+      complete = true;
+      return;
+    }
+    var thread = new Thread(() -> run(requests), "server-warmup");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /** Return {@code true} when the warmup is complete, or if it is not enabled. */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * Run the requests until the time or request budget is used up. The requests are repeated if
+   * there are fewer requests than the budget allows.
+   */
+  void run(List<WarmupRequest> requests) {
+    LOG.info(
+      "Server warmup started: {} requests on {} threads, for at most {}.",
+      parameters.maxRequests(),
+      parameters.threads(),
+      DurationUtils.durationToStr(parameters.maxDuration())
+    );
+    long startTime = System.currentTimeMillis();
+    long endTime = startTime + parameters.maxDuration().toMillis();
+    var next = new AtomicInteger();
+    var failed = new AtomicInteger();
+    var executor = Executors.newFixedThreadPool(
+      parameters.threads(),
+      new ThreadFactoryBuilder().setNameFormat("server-warmup-%d").setDaemon(true).build()
+    );
+    try {
+      var workers = new ArrayList<Future<?>>();
+      for (int i = 0; i < parameters.threads(); ++i) {
+        workers.add(
+          executor.submit(() -> {
+            int n;
+            while (
+              System.currentTimeMillis() < endTime &&
+              (n = next.getAndIncrement()) < parameters.maxRequests()
+            ) {
+              if (!execute(requests.get(n % requests.size()))) {
+                failed.incrementAndGet();
+              }
+            }
+          })
+        );
+      }
+      for (var worker : workers) {
+        worker.get();
+      }
+    } catch (ExecutionException e) {
+      LOG.error("Server warmup failed: {}", e.getCause().getMessage(), e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      executor.shutdownNow();
+      complete = true;
+    }
+    LOG.info(
+      "Server warmup complete: {} requests ({} failed) in {}.",
+      Math.min(next.get(), parameters.maxRequests()),
+      failed.get(),
+      DurationUtils.msToSecondsStr(System.currentTimeMillis() - startTime)
+    );
+  }
+
+  /**
+   * Parse the requests, one GraphQL request body with a {@code query} and optional
+   * {@code variables} and {@code operationName} on each line. Blank lines are ignored.
+   */
+  static List<WarmupRequest> parseRequests(List<String> lines) throws IOException {
+    var requests = new ArrayList<WarmupRequest>();
+    for (String line : lines) {
+      if (line.isBlank()) {
+        continue;
+      }
+      JsonNode node = MAPPER.readTree(line);
+      if (!node.path("query").isTextual()) {
+        throw new IOException("The warmup request has no query: " + line);
+      }
+      Map<String, Object> variables = node.path("variables").isObject()
+        ? MAPPER.convertValue(node.get("variables"), Map.class)
+        : Map.of();
+      String operationName = node.path("operationName").isTextual()
+        ? node.get("operationName").asText()
+        : null;
+      requests.add(new WarmupRequest(node.get("query").asText(), variables, operationName));
+    }
+    return requests;
+  }
+
+  private static List<WarmupRequest> readRequests(File file) throws IOException {
+    return parseRequests(Files.readAllLines(file.toPath()));
+  }
+
+  /** Return {@code true} if the request succeeded without errors. */
+  private boolean execute(WarmupRequest request) {
+    try {
+      var result = GtfsGraphQLAPI.execute(
+        contextProvider.get(),
+        request.query(),
+        request.variables(),
+        request.operationName(),
+        MAX_RESOLVES,
+        TIMEOUT_MS
+      );
+      return result.getErrors().isEmpty();
+    } catch (RuntimeException e) {
+      LOG.debug("Server warmup request failed: {}", e.getMessage(), e);
+      return false;
+    }
+  }
+
+  record WarmupRequest(
+    String query,
+    Map<String, Object> variables,
+    @Nullable String operationName
+  ) {}
+}
@@ -0,0 +1,45 @@
+package org.opentripplanner.standalone.server;
+
+import java.io.File;
+import java.time.Duration;
+import javax.annotation.Nullable;
+
+/**
+ * Parameters for replaying recorded requests when the server starts, see {@link ServerWarmup}.
+ *
+ * @param requestsFile A file with one GTFS GraphQL request body per line. The warmup is disabled
+ *                     if not set.
+ * @param maxDuration  The maximum time to spend on the warmup.
+ * @param maxRequests  The maximum number of requests to run, the requests in the file are
+ *                     repeated until this number is reached.
+ * @param threads      The number of requests to run in parallel.
+ */
+public record WarmupParameters(
+  @Nullable File requestsFile,
+  Duration maxDuration,
+  int maxRequests,
+  int threads
+) {
+  public static final WarmupParameters DEFAULT = new WarmupParameters(
+    null,
+    Duration.ofMinutes(2),
+    10_000,
+    2
+  );
+
+  public WarmupParameters {
+    if (maxDuration.isNegative()) {
+      throw new IllegalArgumentException("The warmup maxDuration can not be negative.");
+    }
+    if (maxRequests < 0) {
+      throw new IllegalArgumentException("The warmup maxRequests can not be negative.");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("The warmup must run on at least one thread.");
+    }
+  }
+
+  public boolean isEnabled() {
+    return requestsFile != null && maxRequests > 0 && maxDuration.isPositive();
+  }
+}
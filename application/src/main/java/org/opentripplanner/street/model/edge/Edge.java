@@ -10,6 +10,7 @@ import javax.annotation.Nullable;
 import org.locationtech.jts.geom.LineString;
 import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.framework.i18n.I18NString;
+import org.opentripplanner.street.model.vertex.TemporaryVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.state.State;
 import org.slf4j.Logger;
@@ -189,8 +190,12 @@ public abstract class Edge implements AStarEdge<State, Edge, Vertex>, Serializab
     for (Edge edge : this.fromv.getIncoming()) {
       edge.removeTurnRestrictionsTo(this);
     }
-    this.fromv.removeOutgoing(this);
-    this.tov.removeIncoming(this);
+    if (!isRequestScopedAt(fromv)) {
+      this.fromv.removeOutgoing(this);
+    }
+    if (!isRequestScopedAt(tov)) {
+      this.tov.removeIncoming(this);
+    }
   }
 
   public void removeTurnRestrictionsTo(Edge origin) {}
@@ -202,8 +207,25 @@ public abstract class Edge implements AStarEdge<State, Edge, Vertex>, Serializab
    * might become reachable before being fully constructed.
    */
   protected void connectToGraph() {
-    fromv.addOutgoing(this);
-    tov.addIncoming(this);
+    if (!isRequestScopedAt(fromv)) {
+      fromv.addOutgoing(this);
+    }
+    if (!isRequestScopedAt(tov)) {
+      tov.addIncoming(this);
+    }
+  }
+
+  /**
+   * Return {@code true} if this is a temporary edge between a request-scoped temporary vertex and
+   * the given vertex, which is shared with other requests. The edge is not added to the edge lists
+   * of the shared vertex, so concurrent requests never see or modify each other's temporary edges.
+   * The search finds the edge in a {@link org.opentripplanner.street.search.TemporaryEdgeOverlay}.
+   */
+  public final boolean isRequestScopedAt(Vertex vertex) {
+    if (!(this instanceof TemporaryEdge) || TemporaryVertex.isRequestScoped(vertex)) {
+      return false;
+    }
+    return TemporaryVertex.isRequestScoped(vertex == fromv ? tov : fromv);
   }
 
   protected static <T extends Edge> T connectToGraph(T edge) {
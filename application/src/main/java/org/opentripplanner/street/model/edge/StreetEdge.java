@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
+import javax.annotation.Nullable;
 import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
 import org.opentripplanner.framework.geometry.CompactLineStringUtils;
@@ -91,8 +92,16 @@ public class StreetEdge
    */
   private float walkSafetyFactor;
 
+  /**
+   * The packed intermediate points of the geometry. After the graph is built this is a buffer
+   * shared with other edges, starting at {@link #compactGeometryOffset}. See
+   * {@link StreetEdgeGeometryPacker}.
+   */
   private byte[] compactGeometry;
 
+  /** The start of this edge's geometry in a shared buffer, or {@code -1} if not shared. */
+  private int compactGeometryOffset = -1;
+
   private I18NString name;
 
   private StreetTraversalPermission permission;
@@ -467,6 +476,17 @@ public class StreetEdge
   }
 
   public LineString getGeometry() {
+    if (compactGeometryOffset >= 0) {
+      return CompactLineStringUtils.uncompactLineString(
+        fromv.getLon(),
+        fromv.getLat(),
+        tov.getLon(),
+        tov.getLat(),
+        compactGeometry,
+        compactGeometryOffset,
+        isBack()
+      );
+    }
     return CompactLineStringUtils.uncompactLineString(
       fromv.getLon(),
       fromv.getLat(),
@@ -535,7 +555,10 @@ public class StreetEdge
   }
 
   public void shareData(StreetEdge reversedEdge) {
-    if (Arrays.equals(compactGeometry, reversedEdge.compactGeometry)) {
+    if (
+      compactGeometryOffset == reversedEdge.compactGeometryOffset &&
+      Arrays.equals(compactGeometry, reversedEdge.compactGeometry)
+    ) {
       compactGeometry = reversedEdge.compactGeometry;
     } else {
       LOG.warn("Can't share geometry between {} and {}", this, reversedEdge);
@@ -614,12 +637,35 @@ public class StreetEdge
    * TODO change everything to clockwise from North
    */
   public int getInAngle() {
-    return IntUtils.round(this.inAngle * 180 / 128.0);
+    return angleIndexToDegrees(this.inAngle);
   }
 
   /** Return the azimuth of the last segment in this edge in integer degrees clockwise from South. */
   public int getOutAngle() {
-    return IntUtils.round(this.outAngle * 180 / 128.0);
+    return angleIndexToDegrees(this.outAngle);
+  }
+
+  /**
+   * Return the in-angle as an index in the range [0, 255]. There are only 256 distinct angles, so
+   * values derived from a pair of angles can be precomputed in a table of 65536 entries.
+   *
+   * @see #angleIndexToDegrees(int)
+   */
+  public int getInAngleIndex() {
+    return Byte.toUnsignedInt(this.inAngle);
+  }
+
+  /** Return the out-angle as an index in the range [0, 255], see {@link #getInAngleIndex()}. */
+  public int getOutAngleIndex() {
+    return Byte.toUnsignedInt(this.outAngle);
+  }
+
+  /**
+   * Convert an angle index, as returned by {@link #getInAngleIndex()}, to integer degrees clockwise
+   * from South.
+   */
+  public static int angleIndexToDegrees(int angleIndex) {
+    return IntUtils.round(((byte) angleIndex) * 180 / 128.0);
   }
 
   public void setCostExtension(StreetEdgeCostExtension costExtension) {
@@ -1050,7 +1096,25 @@ public class StreetEdge
     );
   }
 
+  /**
+   * The packed geometry of this edge if it is stored in its own array, otherwise {@code null}.
+   */
+  @Nullable
+  byte[] unsharedCompactGeometry() {
+    return compactGeometryOffset < 0 ? compactGeometry : null;
+  }
+
+  /**
+   * Store the geometry of this edge in a buffer shared with other edges. The buffer must contain
+   * the length-prefixed packed geometry of this edge at the given offset.
+   */
+  void shareCompactGeometry(byte[] buffer, int offset) {
+    this.compactGeometry = buffer;
+    this.compactGeometryOffset = offset;
+  }
+
   private void setGeometry(LineString geometry) {
+    this.compactGeometryOffset = -1;
     this.compactGeometry =
       CompactLineStringUtils.compactLineString(
         fromv.getLon(),
@@ -0,0 +1,87 @@
+package org.opentripplanner.street.model.edge;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.opentripplanner.framework.geometry.CompactLineStringUtils;
+import org.opentripplanner.framework.logging.ProgressTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Moves the compact geometries of street edges into a few large buffers shared by all edges. Each
+ * edge then references a buffer and an offset instead of owning a small array. On a large graph
+ * this removes millions of small objects, and with them the object-header overhead and the work
+ * for the garbage collector. The buffers are serialized with the graph.
+ * <p>
+ * Edges created after packing, like split and temporary edges, keep their own array.
+ * <p>
+ * THIS CLASS IS NOT THREAD-SAFE, run it when the graph is not modified by other threads.
+ */
+public class StreetEdgeGeometryPacker {
+
+  private static final Logger LOG = LoggerFactory.getLogger(StreetEdgeGeometryPacker.class);
+
+  /** Buffers are kept well below the maximum array size. */
+  static final int MAX_BUFFER_SIZE = 64 * 1024 * 1024;
+
+  private StreetEdgeGeometryPacker() {}
+
+  public static void pack(Collection<StreetEdge> edges) {
+    var progress = ProgressTracker.track("Pack street edge geometries", 100_000, edges.size());
+
+    // Edges in opposite directions share the same array, so the slots are found by identity
+    Map<byte[], Slot> slots = new IdentityHashMap<>();
+    List<Integer> bufferSizes = new ArrayList<>();
+    int bufferSize = 0;
+
+    for (StreetEdge edge : edges) {
+      byte[] geometry = edge.unsharedCompactGeometry();
+      if (geometry == null || geometry.length == 0 || slots.containsKey(geometry)) {
+        continue;
+      }
+      int size = CompactLineStringUtils.lengthPrefixedSize(geometry);
+      if (bufferSize + size > MAX_BUFFER_SIZE) {
+        bufferSizes.add(bufferSize);
+        bufferSize = 0;
+      }
+      slots.put(geometry, new Slot(bufferSizes.size(), bufferSize));
+      bufferSize += size;
+    }
+    bufferSizes.add(bufferSize);
+
+    byte[][] buffers = new byte[bufferSizes.size()][];
+    long totalSize = 0;
+    for (int i = 0; i < buffers.length; i++) {
+      buffers[i] = new byte[bufferSizes.get(i)];
+      totalSize += buffers[i].length;
+    }
+
+    for (var it : slots.entrySet()) {
+      var slot = it.getValue();
+      CompactLineStringUtils.writeLengthPrefixed(it.getKey(), buffers[slot.buffer], slot.offset);
+    }
+
+    for (StreetEdge edge : edges) {
+      byte[] geometry = edge.unsharedCompactGeometry();
+      var slot = geometry == null ? null : slots.get(geometry);
+      if (slot != null) {
+        edge.shareCompactGeometry(buffers[slot.buffer], slot.offset);
+      }
+      //noinspection Convert2MethodRef
+      progress.step(m -> LOG.info(m));
+    }
+
+    LOG.info(progress.completeMessage());
+    LOG.info(
+      "Packed {} street edge geometries into {} shared buffer(s) of {} bytes in total.",
+      slots.size(),
+      buffers.length,
+      totalSize
+    );
+  }
+
+  private record Slot(int buffer, int offset) {}
+}
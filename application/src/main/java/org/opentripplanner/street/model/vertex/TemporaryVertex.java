@@ -23,4 +23,21 @@ public interface TemporaryVertex {
   }
 
   boolean isEndVertex();
+
+  /**
+   * A request-scoped vertex is only used by the request which created it. Temporary edges between
+   * a request-scoped vertex and a vertex shared with other requests are not added to the edge
+   * lists of the shared vertex. The search finds them in a
+   * {@link org.opentripplanner.street.search.TemporaryEdgeOverlay} instead.
+   */
+  default boolean isRequestScoped() {
+    return true;
+  }
+
+  /**
+   * Return {@code true} if the vertex is a request-scoped temporary vertex.
+   */
+  static boolean isRequestScoped(Vertex vertex) {
+    return vertex instanceof TemporaryVertex it && it.isRequestScoped();
+  }
 }
@@ -91,6 +91,10 @@ class TemporaryVertexDispose {
    * @param incoming      true if the edge is an incoming edge, false if it is an outgoing edge
    */
   private void removeEdgeFromMainGraphVertex(Vertex v, Edge connectedEdge, boolean incoming) {
+    if (connectedEdge.isRequestScopedAt(v)) {
+      // The edge was never added to the main graph vertex
+      return;
+    }
     if (incoming) {
       v.removeIncoming(connectedEdge);
     } else {
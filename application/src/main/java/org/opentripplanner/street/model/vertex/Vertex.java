@@ -65,6 +65,15 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
     this.incoming = new Edge[0];
   }
 
+  /**
+   * Set the edge lists in one go, used when the edge lists are restored after deserialization.
+   * The arrays are not copied.
+   */
+  public void initEdgeLists(Edge[] outgoing, Edge[] incoming) {
+    this.outgoing = outgoing;
+    this.incoming = incoming;
+  }
+
   /* EDGE UTILITY METHODS (use arrays to eliminate copy-on-write set objects) */
 
   public void addOutgoing(Edge edge) {
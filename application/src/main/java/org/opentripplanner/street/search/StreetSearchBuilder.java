@@ -1,10 +1,13 @@
 package org.opentripplanner.street.search;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.opentripplanner.astar.AStarBuilder;
 import org.opentripplanner.astar.spi.DominanceFunction;
+import org.opentripplanner.astar.spi.EdgeOverlay;
 import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
 import org.opentripplanner.routing.api.request.RouteRequest;
@@ -122,4 +125,20 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
   protected DominanceFunction<State> createDefaultDominanceFunction() {
     return new DominanceFunctions.Pareto();
   }
+
+  @Override
+  @Nullable
+  protected EdgeOverlay<Edge, Vertex> createEdgeOverlay(
+    Collection<State> initialStates,
+    @Nullable Set<Vertex> destination
+  ) {
+    var vertices = new ArrayList<Vertex>();
+    for (var state : initialStates) {
+      vertices.add(state.getVertex());
+    }
+    if (destination != null) {
+      vertices.addAll(destination);
+    }
+    return TemporaryEdgeOverlay.of(vertices);
+  }
 }
@@ -0,0 +1,85 @@
+package org.opentripplanner.street.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.spi.EdgeOverlay;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.TemporaryVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * The temporary edges of a request which connect its request-scoped temporary vertices to the
+ * shared graph. These edges are only added to the edge lists of the temporary vertices, so the
+ * permanent and real-time vertices are never modified by a request. This overlay makes the edges
+ * visible to the search from the shared side.
+ * <p>
+ * The overlay is created by walking the temporary subgraph reachable from the origin and
+ * destination vertices of the search. It is only used by a single search and is not thread-safe.
+ */
+public class TemporaryEdgeOverlay implements EdgeOverlay<Edge, Vertex> {
+
+  private final Map<Vertex, List<Edge>> outgoing = new HashMap<>();
+  private final Map<Vertex, List<Edge>> incoming = new HashMap<>();
+
+  private TemporaryEdgeOverlay() {}
+
+  /**
+   * Create an overlay for the temporary subgraphs connected to the given vertices.
+   *
+   * @return {@code null} if there are no request-scoped edges to add
+   */
+  @Nullable
+  public static TemporaryEdgeOverlay of(Collection<Vertex> vertices) {
+    var overlay = new TemporaryEdgeOverlay();
+    var todo = new ArrayDeque<Vertex>();
+    Set<Vertex> done = new HashSet<>();
+
+    for (Vertex it : vertices) {
+      if (TemporaryVertex.isRequestScoped(it)) {
+        todo.add(it);
+      }
+    }
+
+    // Use a loop and not recursion to avoid stack overflow in deep temporary graphs
+    while (!todo.isEmpty()) {
+      Vertex current = todo.poll();
+      if (!done.add(current)) {
+        continue;
+      }
+      for (Edge edge : current.getIncoming()) {
+        Vertex from = edge.getFromVertex();
+        if (edge.isRequestScopedAt(from)) {
+          overlay.outgoing.computeIfAbsent(from, v -> new ArrayList<>()).add(edge);
+        } else if (TemporaryVertex.isRequestScoped(from)) {
+          todo.add(from);
+        }
+      }
+      for (Edge edge : current.getOutgoing()) {
+        Vertex to = edge.getToVertex();
+        if (edge.isRequestScopedAt(to)) {
+          overlay.incoming.computeIfAbsent(to, v -> new ArrayList<>()).add(edge);
+        } else if (TemporaryVertex.isRequestScoped(to)) {
+          todo.add(to);
+        }
+      }
+    }
+    return overlay.outgoing.isEmpty() && overlay.incoming.isEmpty() ? null : overlay;
+  }
+
+  @Override
+  public Collection<Edge> getOutgoing(Vertex vertex) {
+    return outgoing.getOrDefault(vertex, List.of());
+  }
+
+  @Override
+  public Collection<Edge> getIncoming(Vertex vertex) {
+    return incoming.getOrDefault(vertex, List.of());
+  }
+}
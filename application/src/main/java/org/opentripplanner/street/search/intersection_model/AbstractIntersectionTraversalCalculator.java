@@ -6,12 +6,25 @@ import org.opentripplanner.street.search.TraverseMode;
 
 /**
  * Abstract turn calculator model provides various methods most implementations will use.
+ * <p>
+ * Edge angles are stored with 256 distinct values, so everything derived from the angles of a pair
+ * of edges is precomputed in tables indexed by {@link #turnIndex(int, int)}. This avoids repeating
+ * the angle conversion and arithmetic for every edge traversal.
  *
  * @author avi
  */
 public abstract class AbstractIntersectionTraversalCalculator
   implements IntersectionTraversalCalculator {
 
+  /** The number of entries in a table indexed by {@link #turnIndex(int, int)}. */
+  protected static final int TURN_TABLE_SIZE = 256 * 256;
+
+  /**
+   * The absolute difference in degrees [0, 180] between the in-angle of the from-edge and the
+   * out-angle of the to-edge.
+   */
+  private static final short[] ABSOLUTE_TURN_ANGLES = createAbsoluteTurnAngles();
+
   /** Factor by which absolute turn angles are divided to get turn durations for non-driving scenarios. */
   protected double nonDrivingTurnDurationFactor = 1.0 / 20.0;
 
@@ -35,12 +48,7 @@ public abstract class AbstractIntersectionTraversalCalculator
     StreetEdge to,
     float toSpeed
   ) {
-    int outAngle = to.getOutAngle();
-    int inAngle = from.getInAngle();
-    int turnCost = Math.abs(outAngle - inAngle);
-    if (turnCost > 180) {
-      turnCost = 360 - turnCost;
-    }
+    int turnCost = ABSOLUTE_TURN_ANGLES[turnIndex(from.getInAngleIndex(), to.getOutAngleIndex())];
 
     // NOTE: This makes the turn duration lower the faster you're going
     return (this.nonDrivingTurnDurationFactor * turnCost) / toSpeed;
@@ -63,4 +71,38 @@ public abstract class AbstractIntersectionTraversalCalculator
 
     return angleOutOfIntersection - angleIntoIntersection;
   }
+
+  /**
+   * Same as {@link #calculateTurnAngle(StreetEdge, StreetEdge)}, but for the out-angle index of the
+   * from-edge and the in-angle index of the to-edge.
+   */
+  protected static int calculateTurnAngle(int fromOutAngleIndex, int toInAngleIndex) {
+    int angleOutOfIntersection = StreetEdge.angleIndexToDegrees(toInAngleIndex);
+    int angleIntoIntersection = StreetEdge.angleIndexToDegrees(fromOutAngleIndex);
+    if (angleOutOfIntersection < angleIntoIntersection) {
+      angleOutOfIntersection += 360;
+    }
+    return angleOutOfIntersection - angleIntoIntersection;
+  }
+
+  /** The index of a pair of edge angles, each in the range [0, 255], in a precomputed table. */
+  protected static int turnIndex(int fromAngleIndex, int toAngleIndex) {
+    return (fromAngleIndex << 8) | toAngleIndex;
+  }
+
+  private static short[] createAbsoluteTurnAngles() {
+    var table = new short[TURN_TABLE_SIZE];
+    for (int from = 0; from < 256; ++from) {
+      for (int to = 0; to < 256; ++to) {
+        int turnAngle = Math.abs(
+          StreetEdge.angleIndexToDegrees(to) - StreetEdge.angleIndexToDegrees(from)
+        );
+        if (turnAngle > 180) {
+          turnAngle = 360 - turnAngle;
+        }
+        table[turnIndex(from, to)] = (short) turnAngle;
+      }
+    }
+    return table;
+  }
 }
@@ -37,7 +37,7 @@ public interface IntersectionTraversalCalculator {
     DrivingDirection drivingDirection
   ) {
     return switch (intersectionTraversalModel) {
-      case SIMPLE -> new SimpleIntersectionTraversalCalculator(drivingDirection);
+      case SIMPLE -> SimpleIntersectionTraversalCalculator.of(drivingDirection);
       case CONSTANT -> new ConstantIntersectionTraversalCalculator();
     };
   }
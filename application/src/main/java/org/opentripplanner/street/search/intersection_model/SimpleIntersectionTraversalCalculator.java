@@ -5,16 +5,48 @@ import org.opentripplanner.street.model.edge.StreetEdge;
 import org.opentripplanner.street.model.vertex.IntersectionVertex;
 import org.opentripplanner.street.search.TraverseMode;
 
-public class SimpleIntersectionTraversalCalculator
+/**
+ * The turn durations of this calculator are precomputed in tables when it is created, from the
+ * constants returned by its getters. The class is final, so the tables can not get out of sync
+ * with an overridden getter, and no subclass method is called before the subclass is initialized.
+ */
+public final class SimpleIntersectionTraversalCalculator
   extends AbstractIntersectionTraversalCalculator
   implements Serializable {
 
+  private static final byte STRAIGHT = 0;
+  private static final byte SAFE_TURN = 1;
+  private static final byte TURN_ACROSS_TRAFFIC = 2;
+
+  private static final SimpleIntersectionTraversalCalculator RIGHT_HAND_TRAFFIC =
+    new SimpleIntersectionTraversalCalculator(DrivingDirection.RIGHT);
+  private static final SimpleIntersectionTraversalCalculator LEFT_HAND_TRAFFIC =
+    new SimpleIntersectionTraversalCalculator(DrivingDirection.LEFT);
+
   private final DrivingDirection drivingDirection;
 
   private final double acrossTrafficBicycleTurnMultiplier = getSafeBicycleTurnModifier() * 3;
 
+  /**
+   * The kind of turn ({@link #STRAIGHT}, {@link #SAFE_TURN} or {@link #TURN_ACROSS_TRAFFIC}) for
+   * each pair of from-edge out-angle and to-edge in-angle, see {@link #turnIndex(int, int)}.
+   */
+  private final byte[] turnTypes;
+
   public SimpleIntersectionTraversalCalculator(DrivingDirection drivingDirection) {
     this.drivingDirection = drivingDirection;
+    this.turnTypes = createTurnTypes();
+  }
+
+  /**
+   * Return a shared instance for the given driving direction. The calculator is immutable, and
+   * using a shared instance avoids computing the turn tables for each search.
+   */
+  public static SimpleIntersectionTraversalCalculator of(DrivingDirection drivingDirection) {
+    return switch (drivingDirection) {
+      case RIGHT -> RIGHT_HAND_TRAFFIC;
+      case LEFT -> LEFT_HAND_TRAFFIC;
+    };
   }
 
   @Override
@@ -152,12 +184,12 @@ public class SimpleIntersectionTraversalCalculator
     StreetEdge from,
     StreetEdge to
   ) {
-    int turnAngle = calculateTurnAngle(from, to);
+    byte turnType = turnType(from, to);
     if (v.hasDrivingTrafficLight()) {
       // Use constants that apply when there are stop lights.
-      if (isSafeTurn(turnAngle)) {
+      if (turnType == SAFE_TURN) {
         return getExpectedRightAtLightTimeSec();
-      } else if (isTurnAcrossTraffic(turnAngle)) {
+      } else if (turnType == TURN_ACROSS_TRAFFIC) {
         return getExpectedLeftAtLightTimeSec();
       } else {
         return getExpectedStraightAtLightTimeSec();
@@ -169,9 +201,9 @@ public class SimpleIntersectionTraversalCalculator
       }
 
       // Use constants that apply when no stop lights.
-      if (isSafeTurn(turnAngle)) {
+      if (turnType == SAFE_TURN) {
         return getExpectedRightNoLightTimeSec();
-      } else if (isTurnAcrossTraffic(turnAngle)) {
+      } else if (turnType == TURN_ACROSS_TRAFFIC) {
         return getExpectedLeftNoLightTimeSec();
       } else {
         return getExpectedStraightNoLightTimeSec();
@@ -185,14 +217,15 @@ public class SimpleIntersectionTraversalCalculator
     StreetEdge to,
     float toSpeed
   ) {
-    var turnAngle = calculateTurnAngle(from, to);
     final var baseDuration = computeNonDrivingTraversalDuration(from, to, toSpeed);
 
     if (v.hasCyclingTrafficLight()) {
       return baseDuration + getExpectedWalkingAndCyclingTrafficLightTimeSec();
-    } else if (isTurnAcrossTraffic(turnAngle)) {
+    }
+    byte turnType = turnType(from, to);
+    if (turnType == TURN_ACROSS_TRAFFIC) {
       return baseDuration * getAcrossTrafficBicycleTurnMultiplier();
-    } else if (isSafeTurn(turnAngle)) {
+    } else if (turnType == SAFE_TURN) {
       return baseDuration * getSafeBicycleTurnModifier();
     } else {
       return baseDuration;
@@ -211,6 +244,24 @@ public class SimpleIntersectionTraversalCalculator
       : baseDuration;
   }
 
+  private byte turnType(StreetEdge from, StreetEdge to) {
+    return turnTypes[turnIndex(from.getOutAngleIndex(), to.getInAngleIndex())];
+  }
+
+  private byte[] createTurnTypes() {
+    var table = new byte[TURN_TABLE_SIZE];
+    for (int from = 0; from < 256; ++from) {
+      for (int to = 0; to < 256; ++to) {
+        int turnAngle = calculateTurnAngle(from, to);
+        table[turnIndex(from, to)] =
+          isSafeTurn(turnAngle)
+            ? SAFE_TURN
+            : isTurnAcrossTraffic(turnAngle) ? TURN_ACROSS_TRAFFIC : STRAIGHT;
+      }
+    }
+    return table;
+  }
+
   private boolean isLeftTurn(int turnAngle) {
     return turnAngle >= getMinLeftTurnAngle() && turnAngle < getMaxLeftTurnAngle();
   }
@@ -30,6 +30,11 @@ public class StateEditor {
 
   private boolean traversingBackward;
 
+  /**
+   * Set when the child has its own copy of the state data, which may be modified in place.
+   */
+  private boolean stateDataCloned = false;
+
   /* CONSTRUCTORS */
 
   public StateEditor(Vertex v, StreetSearchRequest request) {
@@ -47,6 +52,7 @@ public class StateEditor {
       child.backState = null;
       child.vertex = parentVertex;
       child.stateData = child.stateData.clone();
+      stateDataCloned = true;
       return;
     }
 
@@ -56,6 +62,7 @@ public class StateEditor {
     if (fromVertex == null || toVertex == null) {
       child.vertex = parentVertex;
       child.stateData = child.stateData.clone();
+      stateDataCloned = true;
       LOG.error("From or to vertex is null for {}", e);
       defectiveTraversal = true;
       return;
@@ -384,7 +391,9 @@ public class StateEditor {
    * older states.
    */
   private void cloneStateDataAsNeeded() {
-    if (child.backState != null && child.stateData == child.backState.stateData) child.stateData =
-      child.stateData.clone();
+    if (child.backState != null && !stateDataCloned) {
+      child.stateData = child.stateData.clone();
+      stateDataCloned = true;
+    }
   }
 }
@@ -6,10 +6,11 @@ import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -19,21 +20,26 @@ import org.opentripplanner.framework.tostring.ToStringBuilder;
 /**
  * Does the same thing as String.intern, but for several different types. Java's String.intern uses
  * perm gen space and is broken anyway.
+ * <p>
+ * This class is thread-safe, it can be used from parallel graph build steps. The canonical
+ * instances are kept in concurrent maps. If two threads deduplicate equal values at the same time,
+ * both get the instance which is added to the map first.
  */
 public class Deduplicator implements DeduplicatorService, Serializable {
 
   private static final String ZERO_COUNT = sizeAndCount(0, 0);
 
-  private final Map<BitSet, BitSet> canonicalBitSets = new HashMap<>();
-  private final Map<IntArray, IntArray> canonicalIntArrays = new HashMap<>();
-  private final Map<String, String> canonicalStrings = new HashMap<>();
-  private final Map<StringArray, StringArray> canonicalStringArrays = new HashMap<>();
-  private final Map<String2DArray, String2DArray> canonicalString2DArrays = new HashMap<>();
-  private final Map<Class<?>, Map<?, ?>> canonicalObjects = new HashMap<>();
-  private final Map<Class<?>, Map<?, ?>> canonicalObjArrays = new HashMap<>();
-  private final Map<Class<?>, Map<List<?>, List<?>>> canonicalLists = new HashMap<>();
+  private final Map<BitSet, BitSet> canonicalBitSets = new ConcurrentHashMap<>();
+  private final Map<IntArray, IntArray> canonicalIntArrays = new ConcurrentHashMap<>();
+  private final Map<String, String> canonicalStrings = new ConcurrentHashMap<>();
+  private final Map<StringArray, StringArray> canonicalStringArrays = new ConcurrentHashMap<>();
+  private final Map<String2DArray, String2DArray> canonicalString2DArrays =
+    new ConcurrentHashMap<>();
+  private final Map<Class<?>, Map<?, ?>> canonicalObjects = new ConcurrentHashMap<>();
+  private final Map<Class<?>, Map<?, ?>> canonicalObjArrays = new ConcurrentHashMap<>();
+  private final Map<Class<?>, Map<List<?>, List<?>>> canonicalLists = new ConcurrentHashMap<>();
 
-  private final Map<String, Integer> effectCounter = new HashMap<>();
+  private final Map<String, LongAdder> effectCounter = new ConcurrentHashMap<>();
 
   @Inject
   public Deduplicator() {}
@@ -56,13 +62,9 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     if (original == null) {
       return null;
     }
-    BitSet canonical = canonicalBitSets.get(original);
-    if (canonical == null) {
-      canonical = original;
-      canonicalBitSets.put(canonical, canonical);
-    }
+    BitSet canonical = canonicalBitSets.putIfAbsent(original, original);
     incrementEffectCounter(BitSet.class);
-    return canonical;
+    return canonical == null ? original : canonical;
   }
 
   @Override
@@ -72,13 +74,9 @@ public class Deduplicator implements DeduplicatorService, Serializable {
       return null;
     }
     IntArray intArray = new IntArray(original);
-    IntArray canonical = canonicalIntArrays.get(intArray);
-    if (canonical == null) {
-      canonical = intArray;
-      canonicalIntArrays.put(canonical, canonical);
-    }
+    IntArray canonical = canonicalIntArrays.putIfAbsent(intArray, intArray);
     incrementEffectCounter(IntArray.class);
-    return canonical.array;
+    return canonical == null ? original : canonical.array;
   }
 
   @Override
@@ -100,8 +98,7 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     }
     StringArray canonical = canonicalStringArrays.get(new StringArray(original));
     if (canonical == null) {
-      canonical = StringArray.deepDeduplicateOf(original, this);
-      canonicalStringArrays.put(canonical, canonical);
+      canonical = putIfAbsent(canonicalStringArrays, StringArray.deepDeduplicateOf(original, this));
     }
     incrementEffectCounter(StringArray.class);
     return canonical.array;
@@ -115,8 +112,8 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     }
     String2DArray canonical = canonicalString2DArrays.get(new String2DArray(original));
     if (canonical == null) {
-      canonical = String2DArray.deepDeduplicateOf(original, this);
-      canonicalString2DArrays.put(canonical, canonical);
+      canonical =
+        putIfAbsent(canonicalString2DArrays, String2DArray.deepDeduplicateOf(original, this));
     }
     incrementEffectCounter(String2DArray.class);
     return canonical.array;
@@ -132,7 +129,10 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     if (original == null) {
       return null;
     }
-    Map<T, T> objects = (Map<T, T>) canonicalObjects.computeIfAbsent(cl, c -> new HashMap<T, T>());
+    Map<T, T> objects = (Map<T, T>) canonicalObjects.computeIfAbsent(
+      cl,
+      c -> new ConcurrentHashMap<T, T>()
+    );
     T canonical = objects.putIfAbsent(original, original);
     incrementEffectCounter(objCounterName(cl));
     return canonical == null ? original : canonical;
@@ -144,19 +144,15 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     if (original == null) {
       return null;
     }
-    Map<ObjArray<T>, ObjArray<T>> map;
-    if (canonicalObjArrays.containsKey(type)) {
-      //noinspection unchecked
-      map = (Map<ObjArray<T>, ObjArray<T>>) canonicalObjArrays.get(type);
-    } else {
-      map = new HashMap<>();
-      canonicalObjArrays.put(type, map);
-    }
+    //noinspection unchecked
+    var map = (Map<ObjArray<T>, ObjArray<T>>) canonicalObjArrays.computeIfAbsent(
+      type,
+      t -> new ConcurrentHashMap<ObjArray<T>, ObjArray<T>>()
+    );
     ObjArray<T> canonical = map.get(new ObjArray<>(original));
 
     if (canonical == null) {
-      canonical = ObjArray.deepDeduplicateOf(type, original, this);
-      map.put(canonical, canonical);
+      canonical = putIfAbsent(map, ObjArray.deepDeduplicateOf(type, original, this));
     }
     incrementEffectCounter(arrayCounterName(type));
     return canonical.array();
@@ -170,7 +166,7 @@ public class Deduplicator implements DeduplicatorService, Serializable {
     }
 
     Map<List<?>, List<?>> canonicalLists =
-      this.canonicalLists.computeIfAbsent(clazz, key -> new HashMap<>());
+      this.canonicalLists.computeIfAbsent(clazz, key -> new ConcurrentHashMap<>());
 
     @SuppressWarnings("unchecked")
     List<T> canonical = (List<T>) canonicalLists.get(original);
@@ -180,11 +176,12 @@ public class Deduplicator implements DeduplicatorService, Serializable {
       Stream<T> stream = original.stream().map(it -> deduplicateObject(clazz, it));
       // The list may contain nulls, hence the use of the old unmodifiable wrapper
       //noinspection SimplifyStreamApiCallChains
-      canonical =
-        containsNull
-          ? Collections.unmodifiableList(stream.collect(Collectors.toList()))
-          : stream.collect(Collectors.toUnmodifiableList());
-      canonicalLists.put(canonical, canonical);
+      List<T> list = containsNull
+        ? Collections.unmodifiableList(stream.collect(Collectors.toList()))
+        : stream.collect(Collectors.toUnmodifiableList());
+      var existing = canonicalLists.putIfAbsent(list, list);
+      //noinspection unchecked
+      canonical = existing == null ? list : (List<T>) existing;
     }
 
     incrementEffectCounter(listCounterName(clazz));
@@ -249,8 +246,16 @@ public class Deduplicator implements DeduplicatorService, Serializable {
   }
 
   private void incrementEffectCounter(String key) {
-    // Count the first element, start at 1
-    effectCounter.compute(key, (k, v) -> v == null ? 1 : ++v);
+    effectCounter.computeIfAbsent(key, k -> new LongAdder()).increment();
+  }
+
+  /**
+   * Add the value to the map, unless an equal value is added by another thread. Return the value
+   * in the map.
+   */
+  private static <T> T putIfAbsent(Map<T, T> map, T value) {
+    T existing = map.putIfAbsent(value, value);
+    return existing == null ? value : existing;
   }
 
   private String sizeAndCount(int size, Class<?> clazz) {
@@ -258,8 +263,8 @@ public class Deduplicator implements DeduplicatorService, Serializable {
   }
 
   private String sizeAndCount(int size, String key) {
-    int count = effectCounter.getOrDefault(key, 0);
-    return sizeAndCount(size, count);
+    var count = effectCounter.get(key);
+    return sizeAndCount(size, count == null ? 0 : count.intValue());
   }
 
   private static String sizeAndCount(int size, int count) {
@@ -90,7 +90,7 @@ public class ScheduledTripTimesBuilder {
   }
 
   public ScheduledTripTimesBuilder withArrivalTimes(int[] arrivalTimes) {
-    this.arrivalTimes = deduplicator.deduplicateIntArray(arrivalTimes);
+    this.arrivalTimes = arrivalTimes;
     return this;
   }
 
@@ -104,7 +104,7 @@ public class ScheduledTripTimesBuilder {
   }
 
   public ScheduledTripTimesBuilder withDepartureTimes(int[] departureTimes) {
-    this.departureTimes = deduplicator.deduplicateIntArray(departureTimes);
+    this.departureTimes = departureTimes;
     return this;
   }
 
@@ -185,7 +185,9 @@ public class ScheduledTripTimesBuilder {
 
   /**
    * Times are always shifted to zero based on the first departure time. This is essential for
-   * frequencies and deduplication.
+   * frequencies and deduplication. The times are deduplicated after they are shifted, so trips
+   * with the same running times share the same arrays. The times are shifted in a copy, an array
+   * passed to the builder may already be a canonical array shared by other trips.
    */
   private void normalizeTimes() {
     if (departureTimes == null) {
@@ -196,13 +198,12 @@ public class ScheduledTripTimesBuilder {
     }
 
     int shift = departureTimes[0];
-    if (shift == 0) {
-      return;
-    }
-    this.departureTimes = timeShift(departureTimes, shift);
-    if (arrivalTimes != departureTimes) {
-      this.arrivalTimes = timeShift(arrivalTimes, shift);
-    }
+    boolean sameArray = arrivalTimes == departureTimes;
+    this.departureTimes = deduplicator.deduplicateIntArray(timeShift(departureTimes, shift));
+    this.arrivalTimes =
+      sameArray
+        ? departureTimes
+        : deduplicator.deduplicateIntArray(timeShift(arrivalTimes, shift));
     this.timeShift += shift;
   }
 
@@ -210,9 +211,10 @@ public class ScheduledTripTimesBuilder {
     if (shift == 0) {
       return a;
     }
+    int[] shifted = new int[a.length];
     for (int i = 0; i < a.length; i++) {
-      a[i] -= shift;
+      shifted[i] = a[i] - shift;
     }
-    return a;
+    return shifted;
   }
 }
@@ -11,6 +11,7 @@ import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.framework.collection.CollectionsView;
 import org.opentripplanner.framework.collection.MapUtils;
 import org.opentripplanner.framework.geometry.WgsCoordinate;
+import org.opentripplanner.framework.time.DurationUtils;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.site.AreaStop;
 import org.opentripplanner.transit.model.site.GroupOfStations;
@@ -294,8 +295,12 @@ public class SiteRepository implements Serializable {
 
   private void reindex() {
     LOG.info("Index site repository...");
+    long startTime = System.currentTimeMillis();
     index = createIndex();
-    LOG.info("Index site repository complete.");
+    LOG.info(
+      "Index site repository complete in {}.",
+      DurationUtils.msToSecondsStr(System.currentTimeMillis() - startTime)
+    );
   }
 
   private SiteRepositoryIndex createIndex() {
@@ -8,7 +8,7 @@ import java.util.Objects;
 import javax.annotation.Nullable;
 import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.framework.collection.CollectionsView;
-import org.opentripplanner.framework.geometry.HashGridSpatialIndex;
+import org.opentripplanner.framework.geometry.PackedHilbertRTree;
 import org.opentripplanner.transit.model.site.AreaStop;
 import org.opentripplanner.transit.model.site.GroupStop;
 import org.opentripplanner.transit.model.site.MultiModalStation;
@@ -28,9 +28,9 @@ class SiteRepositoryIndex {
 
   private static final Logger LOG = LoggerFactory.getLogger(SiteRepositoryIndex.class);
 
-  private final HashGridSpatialIndex<RegularStop> regularStopSpatialIndex = new HashGridSpatialIndex<>();
+  private final PackedHilbertRTree<RegularStop> regularStopSpatialIndex;
   private final Map<Station, MultiModalStation> multiModalStationForStations = new HashMap<>();
-  private final HashGridSpatialIndex<AreaStop> locationIndex = new HashGridSpatialIndex<>();
+  private final PackedHilbertRTree<AreaStop> locationIndex;
   private final StopLocation[] stopsByIndex;
 
   /**
@@ -45,27 +45,26 @@ class SiteRepositoryIndex {
   ) {
     stopsByIndex = new StopLocation[indexSize];
 
+    var regularStopIndexBuilder = PackedHilbertRTree.<RegularStop>of();
     var allStops = new CollectionsView<StopLocation>(stops, flexStops, groupStops);
     for (StopLocation it : allStops) {
       if (it instanceof RegularStop regularStop) {
-        var envelope = new Envelope(it.getCoordinate().asJtsCoordinate());
-        regularStopSpatialIndex.insert(envelope, regularStop);
+        regularStopIndexBuilder.add(it.getCoordinate().asJtsCoordinate(), regularStop);
       }
       stopsByIndex[it.getIndex()] = it;
     }
+    regularStopSpatialIndex = regularStopIndexBuilder.build();
 
     for (MultiModalStation it : multiModalStations) {
       for (Station childStation : it.getChildStations()) {
         multiModalStationForStations.put(childStation, it);
       }
     }
+    var locationIndexBuilder = PackedHilbertRTree.<AreaStop>of();
     for (AreaStop it : flexStops) {
-      locationIndex.insert(it.getGeometry().getEnvelopeInternal(), it);
+      locationIndexBuilder.add(it.getGeometry().getEnvelopeInternal(), it);
     }
-
-    // Trim the sizes of the indices
-    regularStopSpatialIndex.compact();
-    locationIndex.compact();
+    locationIndex = locationIndexBuilder.build();
 
     logHolesInIndex();
   }
@@ -23,6 +23,7 @@ import java.util.Set;
 import javax.annotation.Nullable;
 import org.opentripplanner.ext.flex.trip.FlexTrip;
 import org.opentripplanner.framework.lang.ObjectUtils;
+import org.opentripplanner.framework.time.DurationUtils;
 import org.opentripplanner.framework.time.ServiceDateUtils;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.NoFutureDates;
@@ -163,9 +164,14 @@ public class TimetableRepository implements Serializable {
   public void index() {
     if (index == null) {
       LOG.info("Index transit model...");
-      // the transit model indexing updates the site repository index (flex stops added to the stop index)
+      long startTime = System.currentTimeMillis();
+      // Only the timetable data is indexed here, the site repository is not changed. The street
+      // index reads the site repository, and can therefore be built at the same time.
       this.index = new TimetableRepositoryIndex(this);
-      LOG.info("Index transit model complete.");
+      LOG.info(
+        "Index transit model complete in {}.",
+        DurationUtils.msToSecondsStr(System.currentTimeMillis() - startTime)
+      );
     }
   }
 
@@ -8,6 +8,7 @@ import org.opentripplanner.ext.emissions.DefaultEmissionsService;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
 import org.opentripplanner.ext.emissions.EmissionsService;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleService;
 import org.opentripplanner.service.realtimevehicles.internal.DefaultRealtimeVehicleService;
@@ -47,6 +48,7 @@ public class TestServerContext {
         routerConfig.transitTuningConfig(),
         RaptorEnvironmentFactory.create(routerConfig.transitTuningConfig().searchThreadPoolSize())
       ),
+      AccessEgressCache.DISABLED,
       graph,
       new DefaultTransitService(timetableRepository),
       Metrics.globalRegistry,
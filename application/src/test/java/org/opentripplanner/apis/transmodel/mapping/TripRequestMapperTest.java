@@ -39,6 +39,7 @@ import org.opentripplanner.model.plan.Place;
 import org.opentripplanner.model.plan.PlanTestConstants;
 import org.opentripplanner.model.plan.ScheduledTransitLeg;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.preference.StreetPreferences;
@@ -137,6 +138,7 @@ public class TripRequestMapperTest implements PlanTestConstants {
           RouterConfig.DEFAULT.transitTuningConfig(),
           defaultRequest,
           RaptorConfig.defaultConfigForTest(),
+          AccessEgressCache.DISABLED,
           graph,
           transitService,
           Metrics.globalRegistry,
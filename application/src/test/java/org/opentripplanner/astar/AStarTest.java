@@ -1,6 +1,7 @@
 package org.opentripplanner.astar;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.opentripplanner.street.model.vertex.VertexLabel.string;
@@ -204,6 +205,53 @@ public class AStarTest {
     assertEquals("near_56th_20th", states.get(8).getVertex().getLabelString());
   }
 
+  /**
+   * Temporary edges between a request-scoped vertex and the shared graph are only visible to the
+   * search, they are not added to the edge lists of the shared vertices.
+   */
+  @Test
+  public void testExtraEdgesAreNotAddedToSharedVertices() {
+    var request = new RouteRequest();
+
+    TemporaryStreetLocation from = new TemporaryStreetLocation(
+      "near_shilshole_22nd",
+      new Coordinate(-122.385050, 47.666620),
+      new NonLocalizedString("near_shilshole_22nd"),
+      false
+    );
+    Vertex fromStreet = graph.getVertex("shilshole_22nd");
+    var fromEdge = TemporaryConcreteEdge.createTemporaryConcreteEdge(from, fromStreet);
+
+    TemporaryStreetLocation to = new TemporaryStreetLocation(
+      "near_56th_20th",
+      new Coordinate(-122.382347, 47.669518),
+      new NonLocalizedString("near_56th_20th"),
+      true
+    );
+    Vertex toStreet = graph.getVertex("56th_20th");
+    var toEdge = TemporaryConcreteEdge.createTemporaryConcreteEdge(toStreet, to);
+
+    assertTrue(from.getOutgoing().contains(fromEdge));
+    assertFalse(fromStreet.getIncoming().contains(fromEdge));
+    assertTrue(to.getIncoming().contains(toEdge));
+    assertFalse(toStreet.getOutgoing().contains(toEdge));
+
+    for (boolean arriveBy : new boolean[] { false, true }) {
+      request.setArriveBy(arriveBy);
+      ShortestPathTree<State, Edge, Vertex> tree = StreetSearchBuilder
+        .of()
+        .setRequest(request)
+        .setFrom(from)
+        .setTo(to)
+        .getShortestPathTree();
+
+      GraphPath<State, Edge, Vertex> path = tree.getPath(arriveBy ? from : to);
+      assertNotNull(path);
+      assertTrue(path.edges.contains(fromEdge));
+      assertTrue(path.edges.contains(toEdge));
+    }
+  }
+
   @Test
   public void testBackExtraEdges() {
     var request = new RouteRequest();
@@ -0,0 +1,99 @@
+package org.opentripplanner.framework.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class StartupTaskSchedulerTest {
+
+  @Test
+  void tasksRunAfterTheirDependencies() {
+    var done = new ConcurrentLinkedQueue<String>();
+
+    var timeline = new StartupTaskScheduler()
+      .add("a", () -> done.add("a"))
+      .add("b", () -> done.add("b"), "a")
+      .add("c", () -> done.add("c"), "a")
+      .add("d", () -> done.add("d"), "b", "c")
+      .run();
+
+    var order = List.copyOf(done);
+    assertEquals("a", order.get(0));
+    assertEquals(Set.of("b", "c"), Set.copyOf(order.subList(1, 3)));
+    assertEquals("d", order.get(3));
+
+    var tasks = timeline.entries().stream().map(StartupTimeline.Entry::task).toList();
+    assertEquals(Set.of("a", "b", "c", "d"), Set.copyOf(tasks));
+    assertTrue(
+      timeline.entries().stream().allMatch(it -> it.thread().startsWith("startup-")),
+      timeline.toString()
+    );
+  }
+
+  @Test
+  void independentTasksRunInParallel() {
+    assumeTrue(Runtime.getRuntime().availableProcessors() > 1);
+    // Each task waits for the other, this only completes if they run at the same time
+    var latch = new CountDownLatch(2);
+    Runnable task = () -> {
+      latch.countDown();
+      try {
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    };
+
+    var timeline = new StartupTaskScheduler().add("a", task).add("b", task).run();
+
+    var threads = timeline
+      .entries()
+      .stream()
+      .map(StartupTimeline.Entry::thread)
+      .collect(Collectors.toSet());
+    assertEquals(2, threads.size());
+  }
+
+  @Test
+  void tasksDependingOnAFailedTaskAreNotRun() {
+    var done = new ConcurrentLinkedQueue<String>();
+    var subject = new StartupTaskScheduler()
+      .add(
+        "a",
+        () -> {
+          throw new IllegalStateException("Failed");
+        }
+      )
+      .add("b", () -> done.add("b"), "a")
+      .add("c", () -> done.add("c"));
+
+    var error = assertThrows(IllegalStateException.class, subject::run);
+
+    assertEquals("Failed", error.getMessage());
+    assertFalse(done.contains("b"));
+    assertTrue(done.contains("c"));
+  }
+
+  @Test
+  void dependenciesMustBeAddedFirst() {
+    var subject = new StartupTaskScheduler().add("a", () -> {});
+
+    assertThrows(IllegalArgumentException.class, () -> subject.add("b", () -> {}, "c"));
+    assertThrows(IllegalArgumentException.class, () -> subject.add("a", () -> {}));
+  }
+
+  @Test
+  void noTasks() {
+    assertEquals(StartupTimeline.EMPTY, new StartupTaskScheduler().run());
+  }
+}
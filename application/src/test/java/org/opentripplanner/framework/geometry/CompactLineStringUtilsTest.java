@@ -111,6 +111,54 @@ public class CompactLineStringUtilsTest {
     assertArrayEquals(arr, unpacked);
   }
 
+  @Test
+  public final void testLengthPrefixedInSharedBuffer() {
+    GeometryFactory gf = new GeometryFactory();
+    double x0 = 10.0;
+    double y0 = 59.0;
+    double x1 = 10.01;
+    double y1 = 59.01;
+    LineString ls = gf.createLineString(
+      new Coordinate[] {
+        new Coordinate(x0, y0),
+        new Coordinate(10.003, 59.002),
+        new Coordinate(10.007, 59.008),
+        new Coordinate(x1, y1),
+      }
+    );
+    byte[] packedCoords = CompactLineStringUtils.compactLineString(x0, y0, x1, y1, ls, false);
+    int size = CompactLineStringUtils.lengthPrefixedSize(packedCoords);
+    assertTrue(size > packedCoords.length);
+
+    // Write the same geometry twice, at a non-zero offset
+    byte[] buffer = new byte[3 + 2 * size];
+    int offset = CompactLineStringUtils.writeLengthPrefixed(packedCoords, buffer, 3);
+    assertEquals(3 + size, offset);
+    offset = CompactLineStringUtils.writeLengthPrefixed(packedCoords, buffer, offset);
+    assertEquals(buffer.length, offset);
+
+    var expected = CompactLineStringUtils.uncompactLineString(x0, y0, x1, y1, packedCoords, false);
+    var first = CompactLineStringUtils.uncompactLineString(x0, y0, x1, y1, buffer, 3, false);
+    var second = CompactLineStringUtils.uncompactLineString(
+      x0,
+      y0,
+      x1,
+      y1,
+      buffer,
+      3 + size,
+      false
+    );
+    assertTrue(expected.equalsExact(first));
+    assertTrue(expected.equalsExact(second));
+
+    var reversed = CompactLineStringUtils.uncompactLineString(x1, y1, x0, y0, buffer, 3, true);
+    assertTrue(
+      CompactLineStringUtils
+        .uncompactLineString(x1, y1, x0, y0, packedCoords, true)
+        .equalsExact(reversed)
+    );
+  }
+
   private String unsignedCharString(byte[] data) {
     StringBuilder sb = new StringBuilder();
     sb.append("[");
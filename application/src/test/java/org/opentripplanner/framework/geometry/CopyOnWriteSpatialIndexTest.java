@@ -0,0 +1,171 @@
+package org.opentripplanner.framework.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.LineString;
+
+class CopyOnWriteSpatialIndexTest {
+
+  private static final double X0 = 10.70;
+  private static final double Y0 = 59.90;
+
+  @Test
+  void insertQueryAndRemove() {
+    var subject = new CopyOnWriteSpatialIndex<String>();
+    var a = line(X0, Y0, X0 + 0.02, Y0);
+    var b = line(X0 + 0.1, Y0 + 0.1, X0 + 0.11, Y0 + 0.1);
+    subject.insert(a, "A");
+    subject.insert(b, "B");
+    assertEquals(2, subject.version());
+
+    assertEquals(List.of("A"), subject.query(new Envelope(X0 + 0.01, X0 + 0.01, Y0, Y0)));
+    assertEquals(List.of("B"), subject.query(b.getEnvelopeInternal()));
+
+    assertTrue(subject.remove(a.getEnvelopeInternal(), "A"));
+    assertFalse(subject.remove(a.getEnvelopeInternal(), "A"));
+    assertTrue(subject.query(a.getEnvelopeInternal()).isEmpty());
+    assertEquals(3, subject.version());
+  }
+
+  @Test
+  void batchChangesArePublishedAsOneVersion() {
+    var subject = new CopyOnWriteSpatialIndex<LineString>();
+    var lines = List.of(line(X0, Y0, X0 + 0.01, Y0), line(X0, Y0 + 0.01, X0 + 0.01, Y0 + 0.01));
+    subject.insertAll(lines, it -> it);
+    assertEquals(1, subject.version());
+    assertEquals(2, subject.query(new Envelope(X0, X0 + 0.01, Y0, Y0 + 0.01)).size());
+
+    assertEquals(2, subject.removeAll(lines, LineString::getEnvelopeInternal));
+    assertEquals(2, subject.version());
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  void versionOfAnArea() {
+    var subject = new CopyOnWriteSpatialIndex<String>();
+    var area = new Envelope(X0, X0 + 0.01, Y0, Y0 + 0.01);
+    assertEquals(0, subject.version(area));
+
+    var a = line(X0, Y0, X0 + 0.001, Y0);
+    subject.insert(a, "A");
+    assertEquals(1, subject.version(area));
+
+    // A change far away does not change the version of the area
+    subject.insert(line(X0 + 1, Y0 + 1, X0 + 1.001, Y0 + 1), "B");
+    assertEquals(2, subject.version());
+    assertEquals(1, subject.version(area));
+
+    // Removing the last item of a bin is still a change of the area
+    subject.remove(a.getEnvelopeInternal(), "A");
+    assertEquals(3, subject.version(area));
+  }
+
+  /**
+   * Each write copies only the segments with changed bins, the bins in the other segments must
+   * still be found after the write.
+   */
+  @Test
+  void writesKeepTheBinsTheyDoNotChange() {
+    var subject = new CopyOnWriteSpatialIndex<Integer>();
+    var lines = new ArrayList<LineString>();
+    for (int i = 0; i < 1000; i++) {
+      double x = X0 + 0.01 * (i % 40);
+      double y = Y0 + 0.01 * (i / 40);
+      lines.add(line(x, y, x + 0.001, y));
+      subject.insert(lines.get(i), i);
+    }
+    assertTrue(subject.remove(lines.get(500).getEnvelopeInternal(), 500));
+
+    assertEquals(999, subject.size());
+    for (int i = 0; i < 1000; i++) {
+      var expected = i == 500 ? List.of() : List.of(i);
+      assertEquals(expected, subject.query(lines.get(i).getEnvelopeInternal()), "Item " + i);
+    }
+  }
+
+  /**
+   * Writers insert and remove groups of items, while readers query the same area. Since a group
+   * is published as one version, a reader must always see either all or none of a group.
+   */
+  @Test
+  void concurrentWritersAndReaders() throws Exception {
+    var subject = new CopyOnWriteSpatialIndex<Item>();
+    var permanent = new Item(-1, line(X0, Y0, X0 + 0.05, Y0 + 0.05));
+    subject.insert(permanent.geometry, permanent);
+
+    var queryEnvelope = new Envelope(X0, X0 + 0.05, Y0, Y0 + 0.05);
+    var done = new AtomicBoolean(false);
+    ExecutorService executor = Executors.newFixedThreadPool(6);
+    try {
+      List<Future<?>> writers = new ArrayList<>();
+      for (int w = 0; w < 2; w++) {
+        final int writer = w;
+        writers.add(
+          executor.submit(() -> {
+            for (int i = 0; i < 500; i++) {
+              int group = writer * 1000 + i;
+              var items = List.of(
+                new Item(group, line(X0 + 0.001 * (i % 40), Y0, X0 + 0.002, Y0 + 0.01)),
+                new Item(group, line(X0, Y0 + 0.001 * (i % 40), X0 + 0.01, Y0 + 0.002))
+              );
+              subject.insertAll(items, Item::geometry);
+              subject.removeAll(items, it -> it.geometry.getEnvelopeInternal());
+            }
+          })
+        );
+      }
+      List<Future<?>> readers = new ArrayList<>();
+      for (int r = 0; r < 4; r++) {
+        readers.add(
+          executor.submit(() -> {
+            while (!done.get()) {
+              var result = subject.query(queryEnvelope);
+              assertEquals(result.size(), new HashSet<>(result).size());
+              assertTrue(result.contains(permanent));
+              var groupSizes = new int[2000];
+              for (Item it : result) {
+                if (it.group >= 0) {
+                  groupSizes[it.group]++;
+                }
+              }
+              for (int size : groupSizes) {
+                assertTrue(size == 0 || size == 2, "Partially published group");
+              }
+            }
+          })
+        );
+      }
+      for (var it : writers) {
+        it.get(30, TimeUnit.SECONDS);
+      }
+      done.set(true);
+      for (var it : readers) {
+        it.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(List.of(permanent), subject.query(queryEnvelope));
+    assertEquals(2001, subject.version());
+  }
+
+  private static LineString line(double x1, double y1, double x2, double y2) {
+    return GeometryUtils.makeLineString(new Coordinate(x1, y1), new Coordinate(x2, y2));
+  }
+
+  private record Item(int group, LineString geometry) {}
+}
@@ -0,0 +1,82 @@
+package org.opentripplanner.framework.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+
+class PackedHilbertRTreeTest {
+
+  private static final double X0 = 10.70;
+  private static final double Y0 = 59.90;
+  private static final double DX = 0.1;
+  private static final double DY = 0.1;
+
+  /**
+   * Compare the result of random queries with a brute force search. Each item must be returned
+   * exactly once, and only if its envelope intersects the query envelope.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = { 0, 1, 15, 16, 17, 257, 5000 })
+  void queryRandom(int size) {
+    var rand = new Random(42);
+    var objects = createObjects(rand, size);
+    var builder = PackedHilbertRTree.<DummyObject>of();
+    objects.forEach(it -> builder.add(it.envelope, it));
+    var subject = builder.build();
+    assertEquals(size, subject.size());
+
+    for (int i = 0; i < 500; i++) {
+      var searchEnv = new Envelope(randomCoordinate(rand), randomCoordinate(rand));
+      List<DummyObject> result = subject.query(searchEnv);
+
+      Set<DummyObject> expected = new HashSet<>();
+      for (var it : objects) {
+        if (it.envelope.intersects(searchEnv)) {
+          expected.add(it);
+        }
+      }
+      assertEquals(expected.size(), result.size(), "Duplicates or false positives");
+      assertEquals(expected, new HashSet<>(result));
+    }
+  }
+
+  @Test
+  void queryPoints() {
+    var a = new Coordinate(X0, Y0);
+    var b = new Coordinate(X0 + 0.01, Y0 + 0.01);
+    var subject = PackedHilbertRTree.<String>of().add(a, "A").add(b, "B").build();
+
+    assertEquals(List.of("A"), subject.query(new Envelope(a)));
+    assertEquals(List.of(), subject.query(new Envelope(X0 + 0.001, X0 + 0.002, Y0, Y0 + 0.02)));
+    assertEquals(Set.of("A", "B"), new HashSet<>(subject.query(new Envelope(a, b))));
+  }
+
+
+  private static List<DummyObject> createObjects(Random rand, int size) {
+    var objects = new ArrayList<DummyObject>();
+    for (int i = 0; i < size; i++) {
+      // Mix small and large envelopes
+      var a = randomCoordinate(rand);
+      var b = i % 10 == 0
+        ? randomCoordinate(rand)
+        : new Coordinate(a.x + rand.nextDouble() * 0.002, a.y + rand.nextDouble() * 0.002);
+      objects.add(new DummyObject(new Envelope(a, b)));
+    }
+    return objects;
+  }
+
+  private static Coordinate randomCoordinate(Random rand) {
+    return new Coordinate(rand.nextDouble() * DX + X0, rand.nextDouble() * DY + Y0);
+  }
+
+  private record DummyObject(Envelope envelope) {}
+}
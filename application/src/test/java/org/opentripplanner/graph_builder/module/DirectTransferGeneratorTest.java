@@ -2,6 +2,7 @@ package org.opentripplanner.graph_builder.module;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -22,6 +23,7 @@ import org.opentripplanner.model.PathTransfer;
 import org.opentripplanner.routing.algorithm.GraphRoutingTest;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.WalkPreferences;
 import org.opentripplanner.street.model.StreetTraversalPermission;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.StreetVertex;
@@ -273,6 +275,90 @@ class DirectTransferGeneratorTest extends GraphRoutingTest {
     assertTrue(timetableRepository.getAllPathTransfers().isEmpty());
   }
 
+  @Test
+  public void testIdenticalTransferRequestsAreSearchedOnce() {
+    var walk = new RouteRequest();
+    walk.journey().transfer().setMode(StreetMode.WALK);
+    var sameAsWalk = new RouteRequest();
+    sameAsWalk.journey().transfer().setMode(StreetMode.WALK);
+    var slowWalk = new RouteRequest();
+    slowWalk.journey().transfer().setMode(StreetMode.WALK);
+    slowWalk.withPreferences(p -> p.withWalk(w -> w.withSpeed(0.5)));
+    var wheelchair = new RouteRequest();
+    wheelchair.journey().transfer().setMode(StreetMode.WALK);
+    wheelchair.setWheelchair(true);
+    var bike = new RouteRequest();
+    bike.journey().transfer().setMode(StreetMode.BIKE);
+
+    assertEquals(
+      List.of(walk, slowWalk, wheelchair, bike),
+      DirectTransferGenerator.distinctTransferProfiles(
+        List.of(walk, sameAsWalk, slowWalk, wheelchair, bike)
+      )
+    );
+  }
+
+  @Test
+  public void testSharedTransferSearches() {
+    var walk = new RouteRequest();
+    walk.journey().transfer().setMode(StreetMode.WALK);
+    var slowWalk = new RouteRequest();
+    slowWalk.journey().transfer().setMode(StreetMode.WALK);
+    slowWalk.withPreferences(p -> p.withWalk(w -> w.withSpeed(0.5)));
+
+    var otpModel = model(true);
+    var graph = otpModel.graph();
+    graph.hasStreets = true;
+    var timetableRepository = otpModel.timetableRepository();
+
+    new DirectTransferGenerator(
+      graph,
+      timetableRepository,
+      DataImportIssueStore.NOOP,
+      MAX_TRANSFER_DURATION,
+      List.of(slowWalk, walk),
+      true
+    )
+      .buildGraph();
+
+    assertTransfers(
+      timetableRepository.getAllPathTransfers(),
+      tr(S0, 100, List.of(V0, V11), S11),
+      tr(S0, 100, List.of(V0, V21), S21),
+      tr(S11, 100, List.of(V11, V21), S21)
+    );
+  }
+
+  @Test
+  public void testTransferSearchesAreSharedByMode() {
+    var walk = new RouteRequest();
+    walk.journey().transfer().setMode(StreetMode.WALK);
+    var fastWalk = new RouteRequest();
+    fastWalk.journey().transfer().setMode(StreetMode.WALK);
+    fastWalk.withPreferences(p ->
+      p.withWalk(w -> w.withSpeed(WalkPreferences.DEFAULT.speed() * 2))
+    );
+    var wheelchair = new RouteRequest();
+    wheelchair.journey().transfer().setMode(StreetMode.WALK);
+    wheelchair.setWheelchair(true);
+    var bike = new RouteRequest();
+    bike.journey().transfer().setMode(StreetMode.BIKE);
+
+    var searches = DirectTransferGenerator.transferSearches(
+      List.of(walk, fastWalk, wheelchair, bike),
+      MAX_TRANSFER_DURATION
+    );
+
+    assertEquals(3, searches.size());
+    assertSame(walk, searches.get(0).request());
+    assertEquals(MAX_TRANSFER_DURATION.multipliedBy(2), searches.get(0).durationLimit());
+    assertEquals(2, searches.get(0).filters().size());
+    assertSame(wheelchair, searches.get(1).request());
+    assertEquals(MAX_TRANSFER_DURATION, searches.get(1).durationLimit());
+    assertEquals(List.of(), searches.get(1).filters());
+    assertSame(bike, searches.get(2).request());
+  }
+
   private TestOtpModel model(boolean addPatterns) {
     return model(addPatterns, false);
   }
@@ -92,6 +92,45 @@ class StreetLinkerModuleTest {
     });
   }
 
+  /**
+   * The closest edges for all stops are found before any edge is split. The second stop must be
+   * linked to one of the edges created when the first stop split the shared edge.
+   */
+  @Test
+  void linkStopsToTheSameEdge() {
+    var from = StreetModelForTest.intersectionVertex(59.9, 10.700);
+    var to = StreetModelForTest.intersectionVertex(59.9, 10.702);
+    Graph graph = new Graph();
+    graph.addVertex(from);
+    graph.addVertex(to);
+    StreetModelForTest.streetEdge(from, to, PEDESTRIAN);
+
+    var builder = SiteRepository.of();
+    var stops = List.of(
+      builder.regularStop(id("s1")).withCoordinate(59.9001, 10.7005).build(),
+      builder.regularStop(id("s2")).withCoordinate(59.9001, 10.7015).build()
+    );
+    stops.forEach(builder::withRegularStop);
+    var timetableRepository = new TimetableRepository(builder.build(), new Deduplicator());
+    var stopVertices = stops
+      .stream()
+      .map(it -> TransitStopVertex.of().withStop(it).build())
+      .toList();
+    stopVertices.forEach(graph::addVertex);
+    graph.hasStreets = true;
+
+    new StreetLinkerModule(graph, timetableRepository, DataImportIssueStore.NOOP, false)
+      .buildGraph();
+
+    for (int i = 0; i < stops.size(); i++) {
+      var outgoing = List.copyOf(stopVertices.get(i).getOutgoing());
+      assertEquals(1, outgoing.size());
+      var linkedTo = (SplitterVertex) outgoing.getFirst().getToVertex();
+      assertEquals(stops.get(i).getLon(), linkedTo.getLon(), 1e-6);
+      assertTrue(linkedTo.isConnectedToWalkingEdge());
+    }
+  }
+
   private static class TestModel {
 
     private final TransitStopVertex stopVertex;
@@ -0,0 +1,40 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentUnionFindTest {
+
+  @Test
+  void union() {
+    var subject = new ConcurrentUnionFind(5);
+    assertTrue(subject.union(3, 4));
+    assertTrue(subject.union(1, 4));
+    assertFalse(subject.union(3, 1));
+
+    assertEquals(subject.find(1), subject.find(3));
+    assertEquals(1, subject.find(4));
+    assertNotEquals(subject.find(0), subject.find(2));
+    assertNotEquals(subject.find(0), subject.find(1));
+  }
+
+  /**
+   * Join the elements into chains of even and odd numbers from many threads at the same time. The
+   * result must be exactly two sets.
+   */
+  @Test
+  void concurrentUnion() {
+    int size = 100_000;
+    var subject = new ConcurrentUnionFind(size);
+    IntStream.range(2, size).parallel().forEach(i -> subject.union(i, i - 2));
+
+    for (int i = 0; i < size; i++) {
+      assertEquals(i % 2, subject.find(i));
+    }
+  }
+}
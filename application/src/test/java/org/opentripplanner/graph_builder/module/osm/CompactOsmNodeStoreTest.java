@@ -0,0 +1,80 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.osm.model.OsmNode;
+
+class CompactOsmNodeStoreTest {
+
+  @Test
+  void nodesAreFoundInAnyInsertionOrder() {
+    var subject = new CompactOsmNodeStore();
+    assertTrue(subject.add(node(7, pbf(599127300), pbf(107460900))));
+    assertTrue(subject.add(node(3, pbf(599138688), pbf(107522454))));
+    assertTrue(subject.add(node(11, pbf(-338688197), pbf(1512092955))));
+    assertTrue(subject.add(node(3, pbf(599138688), pbf(107522454))));
+
+    assertEquals(3, subject.size());
+    assertTrue(subject.contains(11));
+    assertFalse(subject.contains(5));
+    assertNull(subject.get(5));
+
+    var node = subject.get(11);
+    assertEquals(11, node.getId());
+    assertEquals(pbf(-338688197), node.lat);
+    assertEquals(pbf(1512092955), node.lon);
+    assertEquals(pbf(107522454), subject.get(3).lon);
+  }
+
+  @Test
+  void containsSortedFindsNodesAddedBeforeTheLastSort() {
+    var subject = new CompactOsmNodeStore();
+    subject.add(node(7, pbf(599127300), pbf(107460900)));
+    assertFalse(subject.containsSorted(7));
+
+    subject.sort();
+    subject.add(node(3, pbf(599138688), pbf(107522454)));
+    assertTrue(subject.containsSorted(7));
+    assertFalse(subject.containsSorted(3));
+    assertTrue(subject.contains(3));
+  }
+
+  @Test
+  void repeatedLookupsReturnTheSameNode() {
+    var subject = new CompactOsmNodeStore();
+    subject.add(node(7, pbf(599127300), pbf(107460900)));
+    subject.add(node(3, pbf(599138688), pbf(107522454)));
+
+    var node = subject.get(7);
+    assertSame(node, subject.get(7));
+    assertEquals(3, subject.get(3).getId());
+  }
+
+  @Test
+  void taggedAndHighPrecisionNodesAreRejected() {
+    var subject = new CompactOsmNodeStore();
+    var tagged = node(1, pbf(599127300), pbf(107460900));
+    tagged.addTag("highway", "traffic_signals");
+    assertFalse(subject.add(tagged));
+    assertFalse(subject.add(node(2, 59.912730001, pbf(107460900))));
+    assertEquals(0, subject.size());
+  }
+
+  /** A coordinate as decoded by the PBF parser, with the default granularity */
+  private static double pbf(int fixedPoint) {
+    return (100L * fixedPoint) * .000000001;
+  }
+
+  private static OsmNode node(long id, double lat, double lon) {
+    var node = new OsmNode();
+    node.setId(id);
+    node.lat = lat;
+    node.lon = lon;
+    return node;
+  }
+}
@@ -2,10 +2,13 @@ package org.opentripplanner.graph_builder.module.osm;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.osm.OsmProvider;
+import org.opentripplanner.osm.model.OsmNode;
+import org.opentripplanner.osm.model.OsmWay;
 import org.opentripplanner.test.support.ResourceLoader;
 
 public class OsmDatabaseTest {
@@ -48,4 +51,50 @@ public class OsmDatabaseTest {
     assertNotNull(way);
     assertEquals("platform", way.getTag("public_transport"));
   }
+
+  /**
+   * When several files contain the same node, the node from the first file is used. This is the
+   * case whether the node is stored compactly or as an object.
+   */
+  @Test
+  void nodeFromTheFirstFileIsUsed() {
+    var osmdb = new OsmDatabase(DataImportIssueStore.NOOP);
+    var way = new OsmWay();
+    way.setId(1);
+    way.addTag("highway", "footway");
+    way.getNodeRefs().add(1);
+    way.getNodeRefs().add(2);
+    osmdb.addWay(way);
+    osmdb.doneSecondPhaseWays();
+
+    // The first file
+    osmdb.addNode(node(1, 599127300, null));
+    osmdb.addNode(node(2, 599127400, null));
+    osmdb.doneThirdPhaseNodes();
+
+    // The second file, with an untagged and a tagged version of the same nodes
+    osmdb.addNode(node(1, 599138688, null));
+    osmdb.addNode(node(2, 599138689, "traffic_signals"));
+    osmdb.doneThirdPhaseNodes();
+
+    assertEquals(pbf(599127300), osmdb.getNode(1L).lat);
+    assertEquals(pbf(599127400), osmdb.getNode(2L).lat);
+    assertTrue(osmdb.getNode(2L).getTags().isEmpty());
+  }
+
+  /** A coordinate as decoded by the PBF parser, with the default granularity */
+  private static double pbf(int fixedPoint) {
+    return (100L * fixedPoint) * .000000001;
+  }
+
+  private static OsmNode node(long id, int lat, String highway) {
+    var node = new OsmNode();
+    node.setId(id);
+    node.lat = pbf(lat);
+    node.lon = pbf(107460900);
+    if (highway != null) {
+      node.addTag("highway", highway);
+    }
+    return node;
+  }
 }
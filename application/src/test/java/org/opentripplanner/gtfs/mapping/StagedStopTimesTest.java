@@ -0,0 +1,101 @@
+package org.opentripplanner.gtfs.mapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.onebusaway.gtfs.model.AgencyAndId;
+import org.onebusaway.gtfs.model.BookingRule;
+import org.onebusaway.gtfs.model.Stop;
+import org.onebusaway.gtfs.model.StopTime;
+import org.onebusaway.gtfs.model.Trip;
+
+class StagedStopTimesTest {
+
+  private static final Trip TRIP = new Trip();
+  private static final Stop STOP_A = new Stop();
+  private static final Stop STOP_B = new Stop();
+
+  static {
+    TRIP.setId(new AgencyAndId("A", "T1"));
+    STOP_A.setId(new AgencyAndId("A", "S1"));
+    STOP_B.setId(new AgencyAndId("A", "S2"));
+  }
+
+  @Test
+  void stagedStopTimesAreReadInInsertionOrder() {
+    var subject = new StagedStopTimes();
+    var bookingRule = new BookingRule();
+
+    var first = stopTime(STOP_A, 1, 3600);
+    first.setStopHeadsign("Downtown");
+    first.setPickupType(2);
+    first.setPickupBookingRule(bookingRule);
+    first.setShapeDistTraveled(12.5);
+    subject.add(first);
+    subject.add(stopTime(STOP_B, 2, 3700));
+
+    // Grow the staging area beyond the initial capacity
+    for (int i = 3; i < 3000; i++) {
+      subject.add(stopTime(STOP_B, i, 3700 + i));
+    }
+
+    assertEquals(2999, subject.size());
+
+    var copies = new ArrayList<List<Object>>();
+    subject.forEach(it ->
+      copies.add(
+        List.of(
+          it.getTrip(),
+          it.getStopLocation(),
+          it.getStopSequence(),
+          it.getArrivalTime(),
+          it.getDepartureTime(),
+          it.getPickupType(),
+          it.getShapeDistTraveled()
+        )
+      )
+    );
+
+    assertEquals(List.of(TRIP, STOP_A, 1, 3600, 3660, 2, 12.5), copies.get(0));
+    assertEquals(List.of(TRIP, STOP_B, 2, 3700, 3760, 0, -999.0), copies.get(1));
+    assertEquals(List.of(TRIP, STOP_B, 2999, 6699, 6759, 0, -999.0), copies.get(2998));
+  }
+
+  @Test
+  void optionalFieldsAreNotCarriedOverToTheNextRow() {
+    var subject = new StagedStopTimes();
+    var bookingRule = new BookingRule();
+
+    var first = stopTime(STOP_A, 1, 3600);
+    first.setStopHeadsign("Downtown");
+    first.setDropOffBookingRule(bookingRule);
+    subject.add(first);
+    subject.add(stopTime(STOP_B, 2, 3700));
+
+    var headsigns = new ArrayList<String>();
+    var bookingRules = new ArrayList<BookingRule>();
+    subject.forEach(it -> {
+      headsigns.add(it.getStopHeadsign());
+      bookingRules.add(it.getDropOffBookingRule());
+    });
+
+    assertEquals("Downtown", headsigns.get(0));
+    assertNull(headsigns.get(1));
+    assertSame(bookingRule, bookingRules.get(0));
+    assertNull(bookingRules.get(1));
+  }
+
+  private static StopTime stopTime(Stop stop, int sequence, int arrivalTime) {
+    var stopTime = new StopTime();
+    stopTime.setTrip(TRIP);
+    stopTime.setStop(stop);
+    stopTime.setStopSequence(sequence);
+    stopTime.setArrivalTime(arrivalTime);
+    stopTime.setDepartureTime(arrivalTime + 60);
+    return stopTime;
+  }
+}
@@ -0,0 +1,43 @@
+package org.opentripplanner.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
+import org.opentripplanner.transit.model.site.RegularStop;
+
+class PathTransferTest {
+
+  private static final TimetableRepositoryForTest TEST_MODEL = TimetableRepositoryForTest.of();
+  private static final RegularStop FROM = TEST_MODEL.stop("A").build();
+  private static final RegularStop TO = TEST_MODEL.stop("B").build();
+
+  @Test
+  void getEdges() {
+    var a = intersectionVertex("A", 59.9, 10.7);
+    var b = intersectionVertex("B", 59.901, 10.7);
+    var edges = new ArrayList<Edge>(List.of(streetEdge(a, b), streetEdge(b, a)));
+    var subject = new PathTransfer(FROM, TO, 200, edges);
+
+    // Changes to the list given to the constructor are not visible
+    edges.clear();
+    assertEquals(2, subject.getEdges().size());
+
+    // The same list is returned each time, and it can not be modified
+    assertSame(subject.getEdges(), subject.getEdges());
+    assertThrows(UnsupportedOperationException.class, () -> subject.getEdges().clear());
+  }
+
+  @Test
+  void getEdgesWithoutStreetPath() {
+    assertNull(new PathTransfer(FROM, TO, 200, null).getEdges());
+  }
+}
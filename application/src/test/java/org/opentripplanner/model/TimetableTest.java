@@ -4,6 +4,8 @@ import static com.google.transit.realtime.GtfsRealtime.TripDescriptor.ScheduleRe
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.opentripplanner.updater.spi.UpdateError.UpdateErrorType.INVALID_ARRIVAL_TIME;
 import static org.opentripplanner.updater.spi.UpdateError.UpdateErrorType.INVALID_DEPARTURE_TIME;
@@ -71,6 +73,34 @@ public class TimetableTest {
     assertNotNull(tt);
   }
 
+  @Test
+  public void getTripIndex() {
+    assertTripIndex(timetable);
+    assertEquals(-1, timetable.getTripIndex(new FeedScopedId(feedId, "b")));
+    assertEquals(-1, timetable.getTripIndex("b"));
+    assertNull(timetable.getTripTimes(new FeedScopedId(feedId, "b")));
+  }
+
+  @Test
+  public void getTripIndexAfterUpdate() {
+    int lastIndex = timetable.getTripTimes().size() - 1;
+    var updatedTimes = timetable.getTripTimes(trip_1_1_index).copyScheduledTimes();
+
+    // The order of the trips is not changed
+    var updated = timetable.copyOf().addOrUpdateTripTimes(updatedTimes).build();
+    assertTripIndex(updated);
+    assertEquals(trip_1_1_index, updated.getTripIndex(TRIP_ID));
+
+    // The trip is delayed a day and moved to the end of the timetable
+    for (int i = 0; i < updatedTimes.getNumStops(); ++i) {
+      updatedTimes.updateArrivalDelay(i, 24 * 3600);
+      updatedTimes.updateDepartureDelay(i, 24 * 3600);
+    }
+    updated = updated.copyOf().addOrUpdateTripTimes(updatedTimes).build();
+    assertTripIndex(updated);
+    assertEquals(lastIndex, updated.getTripIndex(TRIP_ID));
+  }
+
   @Test
   public void tripNotFoundInPattern() {
     // non-existing trip
@@ -998,4 +1028,14 @@ public class TimetableTest {
     tripDescriptorBuilder.setTripId(tripId);
     return tripDescriptorBuilder;
   }
+
+  private static void assertTripIndex(Timetable timetable) {
+    var tripTimes = timetable.getTripTimes();
+    for (int i = 0; i < tripTimes.size(); ++i) {
+      var trip = tripTimes.get(i).getTrip();
+      assertEquals(i, timetable.getTripIndex(trip.getId()));
+      assertEquals(i, timetable.getTripIndex(trip.getId().getId()));
+      assertSame(tripTimes.get(i), timetable.getTripTimes(trip));
+    }
+  }
 }
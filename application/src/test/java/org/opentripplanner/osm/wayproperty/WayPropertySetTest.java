@@ -2,6 +2,8 @@ package org.opentripplanner.osm.wayproperty;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.opentripplanner.osm.wayproperty.MixinPropertiesBuilder.ofBicycleSafety;
 import static org.opentripplanner.osm.wayproperty.WayPropertiesBuilder.withModes;
@@ -83,6 +85,30 @@ class WayPropertySetTest {
       assertEquals(expected, wps.getDataForWay(cycleway).bicycleSafety());
     }
 
+    @Test
+    void wayPropertiesAreCachedByRelevantTags() {
+      WayPropertySet wps = wps();
+      var first = WayTestData.cyclewayLeft();
+      first.addTag("name", "first");
+      var second = WayTestData.cyclewayLeft();
+      second.addTag("name", "second");
+      second.addTag("source", "survey");
+
+      var expected = wps.getDataForWay(first);
+      assertSame(expected, wps.getDataForWay(second));
+      assertTrue(wps.dataForWayCacheSummary().startsWith("2 lookups, 50.0% hits"));
+
+      second.addTag("bicycle", "no");
+      assertNotSame(expected, wps.getDataForWay(second));
+
+      // A descriptive tag becomes part of the key when a specifier reads it
+      wps.setMixinProperties("name=first", ofBicycleSafety(2));
+      assertEquals(new SafetyFeatures(2, 10), wps.getDataForWay(first).bicycleSafety());
+      var third = WayTestData.cyclewayLeft();
+      third.addTag("name", "third");
+      assertEquals(new SafetyFeatures(1, 5), wps.getDataForWay(third).bicycleSafety());
+    }
+
     private static WayPropertySet wps() {
       var wps = new WayPropertySet();
       var source = new OsmTagMapper() {
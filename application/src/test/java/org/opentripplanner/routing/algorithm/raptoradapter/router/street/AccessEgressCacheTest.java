@@ -0,0 +1,219 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressType.ACCESS;
+import static org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressType.EGRESS;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.algorithm.GraphRoutingTest;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.street.search.TemporaryVerticesContainer;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+class AccessEgressCacheTest extends GraphRoutingTest {
+
+  private static final Duration DURATION_LIMIT = Duration.ofMinutes(10);
+  private static final int MAX_STOP_COUNT = 10;
+  private static final WgsCoordinate ORIGIN = new WgsCoordinate(0.0, 0.0);
+  private static final WgsCoordinate FAR_AWAY = ORIGIN.moveEastMeters(100000);
+
+  private final AccessEgressCache subject = new AccessEgressCache(10, Duration.ofMinutes(1));
+  private Graph graph;
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    var otpModel = modelOf(
+      new GraphRoutingTest.Builder() {
+        @Override
+        public void build() {
+          var A = intersection("A", ORIGIN);
+          var B = intersection("B", ORIGIN.moveEastMeters(100));
+          var C = intersection("C", ORIGIN.moveEastMeters(200));
+          var D = intersection("D", ORIGIN.moveEastMeters(300));
+          var farAway = intersection("FarAway", FAR_AWAY);
+
+          biStreet(A, B, 100);
+          biStreet(B, C, 100);
+          biStreet(C, D, 100);
+          biStreet(farAway, A, 1000000);
+
+          biLink(B, stop("S1", B.toWgsCoordinate()));
+          biLink(D, stop("S2", D.toWgsCoordinate()));
+        }
+      }
+    );
+    graph = otpModel.graph();
+  }
+
+  /**
+   * Two places along the same street are linked to the same street vertices, so the second one
+   * reuses the searches of the first.
+   */
+  @Test
+  void coordinatesAlongTheSameStreetShareTheSearches() {
+    var first = find(location(ORIGIN.moveEastMeters(5)), ACCESS, subject);
+    long misses = subject.getCache().stats().missCount();
+    assertTrue(misses > 0);
+    assertEquals(0, subject.getCache().stats().hitCount());
+
+    var second = find(location(ORIGIN.moveEastMeters(40)), ACCESS, subject);
+    assertEquals(misses, subject.getCache().stats().missCount());
+    assertTrue(subject.getCache().stats().hitCount() > 0);
+
+    assertEquals(Map.of("S1", "Origin", "S2", "Origin"), origins(first));
+    assertEquals(Map.of("S1", "Origin", "S2", "Origin"), origins(second));
+  }
+
+  @Test
+  void cachedResultsAreTheSameAsASearch() {
+    for (var type : AccessEgressType.values()) {
+      for (int meters : new int[] { 5, 40, 150, 260 }) {
+        var location = location(ORIGIN.moveEastMeters(meters));
+        var expected = find(location, type, AccessEgressCache.DISABLED);
+        // Fill the cache from another place, then read from it
+        find(location(ORIGIN.moveEastMeters(meters + 3)), type, subject);
+        var actual = find(location, type, subject);
+        assertEquals(weights(expected), weights(actual), type + " from " + meters + " m");
+      }
+    }
+    assertTrue(subject.getCache().stats().hitCount() > 0);
+  }
+
+  @Test
+  void stopOriginsAreCached() {
+    var stop = new GenericLocation(null, new FeedScopedId("F", "S1"), null, null);
+    var expected = find(stop, ACCESS, AccessEgressCache.DISABLED);
+    find(stop, ACCESS, subject);
+    var actual = find(stop, ACCESS, subject);
+
+    assertEquals(weights(expected), weights(actual));
+    assertTrue(subject.getCache().stats().hitCount() > 0);
+  }
+
+  @Test
+  void rentalIsNotCached() {
+    var location = location(ORIGIN.moveEastMeters(5));
+    var rental = new StreetRequest(StreetMode.BIKE_RENTAL);
+    find(location, ACCESS, rental, subject);
+    find(location, ACCESS, rental, subject);
+    assertEquals(0, subject.getCache().size());
+  }
+
+  @Test
+  void searchTreeSharesEdgesBetweenPaths() {
+    var result = find(location(ORIGIN.moveEastMeters(5)), EGRESS, AccessEgressCache.DISABLED);
+    long edges = result.stream().mapToLong(it -> it.edges.size()).sum();
+    var tree = AccessEgressCache.SearchTree.of(result);
+    assertTrue(tree.size() < edges);
+    // The paths from a coordinate go through the temporary edges of the request
+    assertFalse(tree.isReusable());
+  }
+
+  @Test
+  void disabled() {
+    assertFalse(AccessEgressCache.DISABLED.isEnabled());
+    assertNull(AccessEgressCache.DISABLED.getCache());
+    assertTrue(subject.isEnabled());
+
+    var location = location(ORIGIN.moveEastMeters(5));
+    assertEquals(
+      weights(find(location, ACCESS, AccessEgressCache.DISABLED)),
+      weights(find(location, ACCESS, subject))
+    );
+  }
+
+  private Collection<NearbyStop> find(
+    GenericLocation location,
+    AccessEgressType type,
+    AccessEgressCache cache
+  ) {
+    return find(location, type, new StreetRequest(StreetMode.WALK), cache);
+  }
+
+  private Collection<NearbyStop> find(
+    GenericLocation location,
+    AccessEgressType type,
+    StreetRequest streetRequest,
+    AccessEgressCache cache
+  ) {
+    var from = type.isAccess() ? location : location(FAR_AWAY);
+    var to = type.isAccess() ? location(FAR_AWAY) : location;
+    var request = new RouteRequest();
+    request.setFrom(from);
+    request.setTo(to);
+
+    try (
+      var verticesContainer = new TemporaryVerticesContainer(
+        graph,
+        from,
+        to,
+        streetRequest.mode(),
+        streetRequest.mode()
+      )
+    ) {
+      var result = AccessEgressRouter.findAccessEgresses(
+        request,
+        verticesContainer,
+        streetRequest,
+        null,
+        type,
+        DURATION_LIMIT,
+        MAX_STOP_COUNT,
+        cache
+      );
+      var origins = type.isAccess()
+        ? verticesContainer.getFromVertices()
+        : verticesContainer.getToVertices();
+      for (NearbyStop it : result) {
+        assertTrue(origins.contains(root(it.state).getVertex()), "Path starts at the origin");
+      }
+      return result;
+    }
+  }
+
+  private static GenericLocation location(WgsCoordinate coordinate) {
+    return new GenericLocation(coordinate.latitude(), coordinate.longitude());
+  }
+
+  private static Map<String, Long> weights(Collection<NearbyStop> result) {
+    return result
+      .stream()
+      .collect(
+        Collectors.toMap(it -> it.stop.getName().toString(), it -> (long) it.state.getWeight())
+      );
+  }
+
+  private static Map<String, String> origins(Collection<NearbyStop> result) {
+    return result
+      .stream()
+      .collect(
+        Collectors.toMap(
+          it -> it.stop.getName().toString(),
+          it -> root(it.state).getVertex().getName()
+        )
+      );
+  }
+
+  private static State root(State state) {
+    var s = state;
+    while (s.getBackState() != null) {
+      s = s.getBackState();
+    }
+    return s;
+  }
+}
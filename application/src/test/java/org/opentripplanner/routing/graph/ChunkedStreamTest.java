@@ -0,0 +1,99 @@
+package org.opentripplanner.routing.graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class ChunkedStreamTest {
+
+  @Test
+  void sectionsCanBeSkippedAndRead() throws IOException {
+    var first = randomBytes(3 * ChunkedOutputStream.CHUNK_SIZE + 17);
+    var second = randomBytes(1000);
+
+    var bytes = new ByteArrayOutputStream();
+    var out = new DataOutputStream(bytes);
+    writeSection(out, first, GraphFileCompression.NONE);
+    writeSection(out, second, GraphFileCompression.NONE);
+    writeSection(out, new byte[0], GraphFileCompression.NONE);
+    out.writeInt(42);
+
+    var in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    assertEquals(first.length, ChunkedInputStream.skipSection(in));
+
+    var section = new ChunkedInputStream(in, GraphFileCompression.NONE, null);
+    assertArrayEquals(second, section.readAllBytes());
+    assertEquals(second.length, section.size());
+    assertEquals(-1, section.read());
+
+    assertEquals(-1, new ChunkedInputStream(in, GraphFileCompression.NONE, null).read());
+    assertEquals(42, in.readInt());
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = GraphFileCompression.class, names = { "DEFLATE_FAST", "DEFLATE" })
+  void compressedSectionsAreDecompressedInParallel(GraphFileCompression compression)
+    throws IOException {
+    // Repeat a small random block, so the content can be compressed
+    var block = randomBytes(1000);
+    var content = new byte[5 * ChunkedOutputStream.CHUNK_SIZE + 3];
+    for (int i = 0; i < content.length; ++i) {
+      content[i] = block[i % block.length];
+    }
+    var last = randomBytes(100);
+
+    var bytes = new ByteArrayOutputStream();
+    var out = new DataOutputStream(bytes);
+    long storedSize = writeSection(out, content, compression);
+    writeSection(out, last, compression);
+
+    assertTrue(storedSize < content.length / 10, "Stored size: " + storedSize);
+
+    var inflaterPool = Executors.newFixedThreadPool(2);
+    try {
+      var in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+      var section = new ChunkedInputStream(in, compression, inflaterPool);
+      assertArrayEquals(content, section.readAllBytes());
+      assertEquals(content.length, section.size());
+      assertEquals(storedSize, section.storedSize());
+
+      // The next section is read by the reading thread
+      assertArrayEquals(last, new ChunkedInputStream(in, compression, null).readAllBytes());
+    } finally {
+      inflaterPool.shutdownNow();
+    }
+  }
+
+  private static long writeSection(
+    DataOutputStream out,
+    byte[] content,
+    GraphFileCompression compression
+  ) throws IOException {
+    var section = new ChunkedOutputStream(out, compression);
+    // Mix single byte and array writes
+    if (content.length > 0) {
+      section.write(content[0]);
+      section.write(content, 1, content.length - 1);
+    }
+    section.finish();
+    assertEquals(content.length, section.size());
+    return section.storedSize();
+  }
+
+  private static byte[] randomBytes(int size) {
+    var bytes = new byte[size];
+    new Random(size).nextBytes(bytes);
+    return bytes;
+  }
+}
@@ -1,12 +1,18 @@
 package org.opentripplanner.routing.graph;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
 
 import com.conveyal.object_differ.ObjectDiffer;
+import com.google.common.collect.ArrayListMultimap;
 import java.io.File;
 import java.lang.ref.SoftReference;
 import java.lang.reflect.Method;
 import java.util.BitSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -19,16 +25,22 @@ import org.locationtech.jts.geom.Polygon;
 import org.opentripplanner.ConstantsForTests;
 import org.opentripplanner.TestOtpModel;
 import org.opentripplanner.datastore.api.FileType;
+import org.opentripplanner.datastore.base.ByteArrayDataSource;
 import org.opentripplanner.datastore.file.FileDataSource;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
 import org.opentripplanner.framework.geometry.HashGridSpatialIndex;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
+import org.opentripplanner.model.PathTransfer;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeRepository;
 import org.opentripplanner.service.worldenvelope.internal.DefaultWorldEnvelopeRepository;
 import org.opentripplanner.standalone.config.BuildConfig;
 import org.opentripplanner.standalone.config.RouterConfig;
 import org.opentripplanner.street.model.StreetLimitationParameters;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
 import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.service.TimetableRepository;
 
 /**
@@ -86,6 +98,73 @@ public class GraphSerializationTest {
     );
   }
 
+  /**
+   * The transfers are saved in another section than the street graph. The edges of a loaded
+   * transfer must be the edges of the loaded graph, not a copy of them. This is tested for a local
+   * file, where the sections are read in parallel, and for another data source, where the sections
+   * are read one after the other.
+   */
+  @Test
+  public void transferEdgesAreTheEdgesOfTheLoadedGraph() throws Exception {
+    var testModel = TimetableRepositoryForTest.of();
+    var stopA = testModel.stop("A").build();
+    var stopB = testModel.stop("B").build();
+    var siteRepository = testModel
+      .siteRepositoryBuilder()
+      .withRegularStop(stopA)
+      .withRegularStop(stopB)
+      .build();
+    var timetableRepository = new TimetableRepository(siteRepository, new Deduplicator());
+
+    var graph = new Graph();
+    var a = intersectionVertex("A", 59.9, 10.7);
+    var b = intersectionVertex("B", 59.901, 10.7);
+    var c = intersectionVertex("C", 59.902, 10.7);
+    graph.addVertex(a);
+    graph.addVertex(b);
+    graph.addVertex(c);
+    var transfers = ArrayListMultimap.<StopLocation, PathTransfer>create();
+    var streetPath = List.<Edge>of(streetEdge(a, b), streetEdge(b, c));
+    transfers.put(stopA, new PathTransfer(stopA, stopB, 200, streetPath));
+    transfers.put(stopB, new PathTransfer(stopB, stopA, 200, null));
+    timetableRepository.addAllTransfersByStops(transfers);
+
+    var serializedObj = new SerializedGraphObject(
+      graph,
+      timetableRepository,
+      new DefaultWorldEnvelopeRepository(),
+      BuildConfig.DEFAULT,
+      RouterConfig.DEFAULT,
+      DataImportIssueSummary.empty(),
+      new EmissionsDataModel(),
+      null,
+      new StreetLimitationParameters()
+    );
+
+    File tempFile = TempFile.createTempFile("graph", "transfers");
+    serializedObj.save(new FileDataSource(tempFile, FileType.GRAPH));
+    assertTransferEdgesAreGraphEdges(SerializedGraphObject.load(tempFile));
+
+    var source = new ByteArrayDataSource("graph.obj", "graph.obj", FileType.GRAPH, 0, 0, true);
+    serializedObj.save(source);
+    assertTransferEdgesAreGraphEdges(SerializedGraphObject.load(source));
+  }
+
+  private static void assertTransferEdgesAreGraphEdges(SerializedGraphObject loaded) {
+    var siteRepository = loaded.timetableRepository.getSiteRepository();
+    var stopA = siteRepository.getRegularStop(TimetableRepositoryForTest.id("A"));
+    var transfer = List.copyOf(loaded.timetableRepository.getTransfersByStop(stopA)).get(0);
+
+    List<Edge> edges = transfer.getEdges();
+    assertEquals(2, edges.size());
+    for (Edge edge : edges) {
+      Vertex from = loaded.graph.getVertex(edge.getFromVertex().getLabel());
+      assertSame(from, edge.getFromVertex());
+      assertSame(edge, from.getOutgoing().iterator().next());
+      assertSame(edge, edge.getToVertex().getIncoming().iterator().next());
+    }
+  }
+
   // Ideally we'd also test comparing two separate but identical complex graphs, built separately from the same inputs.
   // A test that builds the same graph twice will currently fail for the following reasons:
   // There is global state in Vertex.index and the feeds IDs that mean if you build the same graph twice the feed IDs
@@ -0,0 +1,85 @@
+package org.opentripplanner.routing.graph.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import java.io.ByteArrayOutputStream;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graph.kryosupport.KryoBuilder;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.transit.service.SiteRepository;
+
+class StreetSpatialIndexTest {
+
+  private static final Envelope ALL = new Envelope(9.9, 10.1, 59.9, 60.1);
+
+  private final IntersectionVertex a = intersectionVertex("A", 60.0, 10.0);
+  private final IntersectionVertex b = intersectionVertex("B", 60.001, 10.0);
+  private final IntersectionVertex c = intersectionVertex("C", 60.001, 10.002);
+
+  private Graph graph;
+  private Edge ab;
+  private Edge bc;
+
+  @BeforeEach
+  void setUp() {
+    graph = new Graph();
+    graph.addVertex(a);
+    graph.addVertex(b);
+    graph.addVertex(c);
+    ab = streetEdge(a, b);
+    bc = streetEdge(b, c);
+  }
+
+  @Test
+  void savedIndexIsUsed() {
+    var saved = StreetSpatialIndex.build(graph);
+    assertTrue(saved.matches(graph));
+
+    var subject = new StreetIndex(graph, new SiteRepository(), saved);
+
+    assertEquals(Set.of(ab, bc), Set.copyOf(subject.getEdgesForEnvelope(ALL)));
+    assertEquals(Set.of(a, b, c), Set.copyOf(subject.getVerticesForEnvelope(ALL)));
+  }
+
+  @Test
+  void savedIndexIsRebuiltIfTheGraphIsChanged() {
+    var saved = StreetSpatialIndex.build(graph);
+    var d = intersectionVertex("D", 60.002, 10.002);
+    graph.addVertex(d);
+    var cd = streetEdge(c, d);
+    assertFalse(saved.matches(graph));
+
+    var subject = new StreetIndex(graph, new SiteRepository(), saved);
+
+    assertEquals(Set.of(ab, bc, cd), Set.copyOf(subject.getEdgesForEnvelope(ALL)));
+    assertEquals(Set.of(a, b, c, d), Set.copyOf(subject.getVerticesForEnvelope(ALL)));
+  }
+
+  @Test
+  void serializeIndex() {
+    var bytes = new ByteArrayOutputStream();
+    try (var output = new Output(bytes)) {
+      KryoBuilder.create().writeClassAndObject(output, StreetSpatialIndex.build(graph));
+    }
+
+    var copy = (StreetSpatialIndex) KryoBuilder
+      .create()
+      .readClassAndObject(new Input(bytes.toByteArray()));
+
+    assertEquals(3, copy.vertexCount());
+    assertEquals(2, copy.edgeCount());
+    assertEquals(2, copy.edges().query(ALL).size());
+    assertEquals(3, copy.vertices().query(ALL).size());
+  }
+}
@@ -0,0 +1,83 @@
+package org.opentripplanner.routing.linking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.TraverseModeSet;
+
+class SnappedLocationCacheTest {
+
+  private static final Coordinate COORDINATE = new Coordinate(10.7, 59.9);
+  private static final TraverseModeSet WALK = new TraverseModeSet(TraverseMode.WALK);
+
+  private final StreetEdge edge = streetEdge(
+    intersectionVertex("A", 59.9, 10.7),
+    intersectionVertex("B", 59.901, 10.7)
+  );
+  private final AtomicInteger searches = new AtomicInteger();
+  private final Supplier<List<StreetEdge>> search = () -> {
+    searches.incrementAndGet();
+    return List.of(edge);
+  };
+
+  @Test
+  void repeatedLocationsAreCached() {
+    var subject = new SnappedLocationCache();
+
+    assertEquals(List.of(edge), subject.getOrFind(COORDINATE, WALK, 1, search));
+    assertEquals(List.of(edge), subject.getOrFind(COORDINATE, WALK, 1, search));
+    // Less than a centimeter away
+    var near = new Coordinate(COORDINATE.x + 0.00000001, COORDINATE.y);
+    assertEquals(List.of(edge), subject.getOrFind(near, WALK, 1, search));
+    assertEquals(1, searches.get());
+    assertEquals(1, subject.size());
+  }
+
+  @Test
+  void modesArePartOfTheKey() {
+    var subject = new SnappedLocationCache();
+
+    subject.getOrFind(COORDINATE, WALK, 1, search);
+    subject.getOrFind(COORDINATE, new TraverseModeSet(TraverseMode.CAR), 1, search);
+    subject.getOrFind(new Coordinate(10.71, 59.9), WALK, 1, search);
+    assertEquals(3, searches.get());
+  }
+
+  @Test
+  void entriesFromAnOlderIndexVersionAreIgnored() {
+    var subject = new SnappedLocationCache();
+
+    subject.getOrFind(COORDINATE, WALK, 1, search);
+    subject.getOrFind(COORDINATE, WALK, 2, search);
+    subject.getOrFind(COORDINATE, WALK, 2, search);
+    assertEquals(2, searches.get());
+  }
+
+  @Test
+  void disabledCacheAlwaysSearches() {
+    var subject = new SnappedLocationCache(0);
+
+    subject.getOrFind(COORDINATE, WALK, 1, search);
+    subject.getOrFind(COORDINATE, WALK, 1, search);
+    assertEquals(2, searches.get());
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  void entriesWithRemovedEdgesAreIgnored() {
+    var subject = new SnappedLocationCache();
+
+    subject.getOrFind(COORDINATE, WALK, 1, search);
+    edge.remove();
+    subject.getOrFind(COORDINATE, WALK, 1, search);
+    assertEquals(2, searches.get());
+  }
+}
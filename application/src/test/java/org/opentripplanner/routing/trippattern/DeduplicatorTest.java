@@ -10,6 +10,7 @@ import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.transit.model.framework.Deduplicator;
@@ -197,6 +198,20 @@ public class DeduplicatorTest {
     assertNotSame(dateList, subject.deduplicateImmutableList(DATE_CL, DATE_LIST));
   }
 
+  @Test
+  public void deduplicateFromParallelStream() {
+    var arrays = IntStream
+      .range(0, 10_000)
+      .parallel()
+      .mapToObj(i -> subject.deduplicateIntArray(new int[] { i % 10, 1, 2 }))
+      .toList();
+
+    for (int i = 10; i < arrays.size(); ++i) {
+      assertSame(arrays.get(i % 10), arrays.get(i));
+    }
+    assertEquals("Deduplicator{int[]: 10(10000)}", subject.toString());
+  }
+
   @Test
   public void testToStringForEmptyDeduplicator() {
     assertEquals("Deduplicator{}", subject.toString());
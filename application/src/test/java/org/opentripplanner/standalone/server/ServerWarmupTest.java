@@ -0,0 +1,49 @@
+package org.opentripplanner.standalone.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ServerWarmupTest {
+
+  @Test
+  void parseRequests() throws IOException {
+    var requests = ServerWarmup.parseRequests(
+      List.of(
+        "{\"query\": \"{ feeds { feedId } }\"}",
+        "",
+        "{\"query\": \"query Plan($n: Int) { plan(numItineraries: $n) { date } }\", " +
+        "\"variables\": {\"n\": 3}, \"operationName\": \"Plan\"}"
+      )
+    );
+
+    assertEquals(2, requests.size());
+    assertEquals("{ feeds { feedId } }", requests.get(0).query());
+    assertEquals(Map.of(), requests.get(0).variables());
+    assertNull(requests.get(0).operationName());
+    assertEquals(Map.of("n", 3), requests.get(1).variables());
+    assertEquals("Plan", requests.get(1).operationName());
+  }
+
+  @Test
+  void requestWithoutQueryIsRejected() {
+    assertThrows(IOException.class, () ->
+      ServerWarmup.parseRequests(List.of("{\"variables\": {}}"))
+    );
+  }
+
+  @Test
+  void warmupIsCompleteIfNotEnabled() {
+    var subject = new ServerWarmup(WarmupParameters.DEFAULT, () -> {
+      throw new IllegalStateException("The warmup should not create a server context");
+    });
+    subject.start();
+    assertTrue(subject.isComplete());
+  }
+}
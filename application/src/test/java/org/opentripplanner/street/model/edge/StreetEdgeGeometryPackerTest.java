@@ -0,0 +1,79 @@
+package org.opentripplanner.street.model.edge;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdgeBuilder;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.LineString;
+import org.opentripplanner.framework.geometry.GeometryUtils;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+
+class StreetEdgeGeometryPackerTest {
+
+  private static final StreetVertex A = intersectionVertex("A", 59.900, 10.700);
+  private static final StreetVertex B = intersectionVertex("B", 59.901, 10.702);
+  private static final StreetVertex C = intersectionVertex("C", 59.903, 10.701);
+
+  @Test
+  void geometriesAreUnchangedAfterPacking() {
+    var ab = edge(A, B, new Coordinate(10.7005, 59.9007));
+    var ba = backEdge(B, A, new Coordinate(10.7005, 59.9007));
+    ba.shareData(ab);
+    var bc = edge(B, C, new Coordinate(10.7030, 59.9020), new Coordinate(10.7015, 59.9025));
+    var straight = streetEdge(A, C);
+
+    var edges = List.of(ab, ba, bc, straight);
+    var expected = edges.stream().map(StreetEdge::getGeometry).toList();
+
+    StreetEdgeGeometryPacker.pack(edges);
+
+    for (int i = 0; i < edges.size(); i++) {
+      assertTrue(expected.get(i).equalsExact(edges.get(i).getGeometry()));
+    }
+    assertNull(ab.unsharedCompactGeometry());
+    assertNull(bc.unsharedCompactGeometry());
+    // Straight lines do not need any storage and are not packed
+    assertNotNull(straight.unsharedCompactGeometry());
+  }
+
+  @Test
+  void reverseEdgesShareTheSameSlot() {
+    var ab = edge(A, B, new Coordinate(10.7005, 59.9007));
+    var ba = backEdge(B, A, new Coordinate(10.7005, 59.9007));
+    ba.shareData(ab);
+    assertSame(ab.unsharedCompactGeometry(), ba.unsharedCompactGeometry());
+
+    StreetEdgeGeometryPacker.pack(List.of(ab, ba));
+
+    assertTrue(ab.getGeometry().reverse().equalsExact(ba.getGeometry()));
+  }
+
+  private static StreetEdge edge(StreetVertex from, StreetVertex to, Coordinate... via) {
+    return streetEdgeBuilder(from, to, 100, StreetTraversalPermission.ALL)
+      .withGeometry(lineString(from, to, via))
+      .buildAndConnect();
+  }
+
+  private static StreetEdge backEdge(StreetVertex from, StreetVertex to, Coordinate... via) {
+    return streetEdgeBuilder(from, to, 100, StreetTraversalPermission.ALL)
+      .withGeometry(lineString(from, to, via))
+      .withBack(true)
+      .buildAndConnect();
+  }
+
+  private static LineString lineString(StreetVertex from, StreetVertex to, Coordinate... via) {
+    var coordinates = new Coordinate[via.length + 2];
+    coordinates[0] = from.getCoordinate();
+    System.arraycopy(via, 0, coordinates, 1, via.length);
+    coordinates[coordinates.length - 1] = to.getCoordinate();
+    return GeometryUtils.getGeometryFactory().createLineString(coordinates);
+  }
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.locationtech.jts.geom.Coordinate;
@@ -108,6 +109,50 @@ public class SimpleIntersectionTraversalCalculatorTest {
     );
   }
 
+  /**
+   * The precomputed turn tables must give the same durations as computing the turns from the edge
+   * angles in degrees, for every pair of streets at an intersection with 16 streets.
+   */
+  @Test
+  public void testTurnTablesMatchEdgeAngles() {
+    IntersectionVertex center = vertex("center", new Coordinate(10.0, 60.0), false, false);
+    var into = new ArrayList<StreetEdge>();
+    var outOf = new ArrayList<StreetEdge>();
+    for (int i = 0; i < 16; ++i) {
+      double a = 2 * Math.PI * i / 16;
+      var c = new Coordinate(10.0 + 0.001 * Math.cos(a), 60.0 + 0.0005 * Math.sin(a));
+      IntersectionVertex v = vertex("v" + i, c, false, false);
+      into.add(edge(v, center, 100.0, false));
+      outOf.add(edge(center, v, 100.0, true));
+    }
+
+    for (DrivingDirection direction : DrivingDirection.values()) {
+      var subject = new SimpleIntersectionTraversalCalculator(direction);
+      for (StreetEdge from : into) {
+        for (StreetEdge to : outOf) {
+          int turnAngle = subject.calculateTurnAngle(from, to);
+          int turnCost = Math.abs(to.getOutAngle() - from.getInAngle());
+          if (turnCost > 180) {
+            turnCost = 360 - turnCost;
+          }
+          double expected = turnCost / 20.0 / 5.0f;
+          if (subject.isSafeTurn(turnAngle)) {
+            expected *= subject.getSafeBicycleTurnModifier();
+          } else if (subject.isTurnAcrossTraffic(turnAngle)) {
+            expected *= subject.getAcrossTrafficBicycleTurnMultiplier();
+          }
+
+          assertEquals(
+            expected,
+            subject.computeTraversalDuration(center, from, to, TraverseMode.BICYCLE, 5.0f, 5.0f),
+            1e-9,
+            direction + " " + from.getName() + " -> " + to.getName()
+          );
+        }
+      }
+    }
+  }
+
   @Test
   public void testBicycleTrafficLights() {
     // Graph with an intersection with traffic lights
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Nested;
@@ -13,6 +14,7 @@ import org.opentripplanner.street.model._data.StreetModelForTest;
 import org.opentripplanner.street.model.edge.StreetEdge;
 import org.opentripplanner.street.model.vertex.StreetVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
 import org.opentripplanner.street.search.request.StreetSearchRequest;
 
 public class StateEditorTest {
@@ -59,6 +61,31 @@ public class StateEditorTest {
     assertNull(stateEditor.makeState(), "Infinity weight increment");
   }
 
+  @Test
+  void stateDataIsCopiedOnce() {
+    StreetVertex v1 = StreetModelForTest.intersectionVertex(0, 0);
+    StreetVertex v2 = StreetModelForTest.intersectionVertex(1, 1);
+    var edge = StreetModelForTest.streetEdge(v1, v2);
+    var parent = new State(v1, StreetSearchRequest.of().withMode(StreetMode.WALK).build());
+    var parentData = parent.stateData;
+
+    var editor = parent.edit(edge);
+    editor.setBackMode(TraverseMode.WALK);
+    var copy = editor.child.stateData;
+    editor.setEnteredNoThroughTrafficArea();
+    editor.setBackWalkingBike(true);
+    var state = editor.makeState();
+
+    assertSame(copy, state.stateData);
+    assertEquals(TraverseMode.WALK, state.getBackMode());
+    assertTrue(state.hasEnteredNoThruTrafficArea());
+    assertTrue(state.isBackWalkingBike());
+    // The parent is not changed
+    assertSame(parentData, parent.stateData);
+    assertNull(parent.getBackMode());
+    assertFalse(parent.hasEnteredNoThruTrafficArea());
+  }
+
   @Nested
   class GeofencingZones {
 
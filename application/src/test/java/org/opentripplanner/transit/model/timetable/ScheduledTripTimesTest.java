@@ -3,6 +3,7 @@ package org.opentripplanner.transit.model.timetable;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.opentripplanner.transit.model._data.TimetableRepositoryForTest.id;
@@ -14,6 +15,7 @@ import org.opentripplanner.framework.time.TimeUtils;
 import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
 import org.opentripplanner.transit.model.basic.Accessibility;
 import org.opentripplanner.transit.model.framework.DataValidationException;
+import org.opentripplanner.transit.model.framework.Deduplicator;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 
 class ScheduledTripTimesTest {
@@ -177,4 +179,30 @@ class ScheduledTripTimesTest {
   void copyDepartureTimes() {
     assertArrayEquals(new int[] { T10_01, T11_02, T12_03 }, subject.copyDepartureTimes());
   }
+
+  @Test
+  void tripsWithTheSameRunningTimesShareTheTimes() {
+    var deduplicator = new Deduplicator();
+    var departures = new int[] { T10_00, T11_00, T12_00 };
+    var first = ScheduledTripTimes
+      .of(deduplicator)
+      .withDepartureTimes(departures)
+      .withServiceCode(SERVICE_CODE)
+      .withTrip(TRIP)
+      .build();
+    var second = ScheduledTripTimes
+      .of(deduplicator)
+      .withDepartureTimes(new int[] { T11_00, T12_00, T12_00 + 3600 })
+      .withServiceCode(SERVICE_CODE)
+      .withTrip(TRIP)
+      .build();
+
+    assertSame(
+      first.copyOfNoDuplication().departureTimes(),
+      second.copyOfNoDuplication().departureTimes()
+    );
+    assertEquals(T11_00, second.getDepartureTime(0));
+    // The times are shifted in a copy, the array passed to the builder is not changed
+    assertEquals(T10_00, departures[0]);
+  }
 }
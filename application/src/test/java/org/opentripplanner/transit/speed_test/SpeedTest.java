@@ -18,6 +18,7 @@ import org.opentripplanner.datastore.OtpDataStore;
 import org.opentripplanner.framework.application.OtpAppException;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.api.response.RoutingResponse;
 import org.opentripplanner.routing.framework.DebugTimingAggregator;
 import org.opentripplanner.routing.graph.Graph;
@@ -113,6 +114,10 @@ public class SpeedTest {
           config.transitRoutingParams,
           RaptorEnvironmentFactory.create(config.transitRoutingParams.searchThreadPoolSize())
         ),
+        new AccessEgressCache(
+          config.transitRoutingParams.accessEgressCacheMaxSize(),
+          config.transitRoutingParams.accessEgressCacheTimeToLive()
+        ),
         graph,
         new DefaultTransitService(timetableRepository),
         timer.getRegistry(),